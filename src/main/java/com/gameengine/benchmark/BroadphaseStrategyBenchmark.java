@@ -0,0 +1,122 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.core.Broadphase;
+import com.gameengine.core.BroadphaseStats;
+import com.gameengine.core.BroadphaseType;
+
+import java.util.Random;
+
+/**
+ * 碰撞粗筛策略基准：少量巨大物体 + 大量小而快的子弹 + 普通敌人，每帧移动全部代理后枚举候选对，
+ * 输出各策略的更新耗时、配对耗时、候选对数、重叠测试数与结构更新次数。
+ * 用法：java com.gameengine.benchmark.BroadphaseStrategyBenchmark [帧数] [子弹数] [敌人数]
+ */
+public class BroadphaseStrategyBenchmark {
+    private static final float WORLD_W = 1920f;
+    private static final float WORLD_H = 1080f;
+    private static final int CATEGORY_ENEMY = 1;
+    private static final int CATEGORY_BULLET = 1 << 1;
+    private static final int HUGE_COUNT = 6;
+    private static final float HUGE_HALF = 200f;
+    private static final float ENEMY_HALF = 10f;
+    private static final float BULLET_HALF = 4f;
+    private static final float DT = 1f / 60f;
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 300;
+        int bullets = args.length > 1 ? Integer.parseInt(args[1]) : 5000;
+        int enemies = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+
+        System.out.printf("子弹 %d，敌人 %d，巨型物体 %d，%d 帧%n", bullets, enemies, HUGE_COUNT, frames);
+        System.out.printf("%16s %12s %12s %10s %12s %12s%n",
+                "策略", "更新(ms/帧)", "配对(ms/帧)", "候选对/帧", "测试/帧", "结构更新/帧");
+        for (BroadphaseType type : BroadphaseType.values()) {
+            run(type, frames, bullets, enemies);
+        }
+    }
+
+    private static void run(BroadphaseType type, int frames, int bullets, int enemies) {
+        // 每个策略使用相同的随机种子，候选对数应一致
+        Random random = new Random(42);
+        int n = HUGE_COUNT + enemies + bullets;
+        float[] x = new float[n];
+        float[] y = new float[n];
+        float[] vx = new float[n];
+        float[] vy = new float[n];
+        float[] half = new float[n];
+        int[] ids = new int[n];
+
+        Broadphase<Integer> broadphase = type.create();
+        for (int i = 0; i < n; i++) {
+            x[i] = random.nextFloat() * WORLD_W;
+            y[i] = random.nextFloat() * WORLD_H;
+            int category;
+            int mask;
+            if (i < HUGE_COUNT) {
+                half[i] = HUGE_HALF;
+                category = CATEGORY_ENEMY;
+                mask = 0;
+            } else if (i < HUGE_COUNT + enemies) {
+                half[i] = ENEMY_HALF;
+                setVelocity(random, vx, vy, i, 60f);
+                category = CATEGORY_ENEMY;
+                mask = 0;
+            } else {
+                half[i] = BULLET_HALF;
+                setVelocity(random, vx, vy, i, 600f);
+                category = CATEGORY_BULLET;
+                mask = CATEGORY_ENEMY;
+            }
+            ids[i] = broadphase.insert(i, x[i] - half[i], y[i] - half[i], x[i] + half[i], y[i] + half[i], category, mask);
+        }
+
+        int[] pairCounter = new int[1];
+        Broadphase.PairCallback<Integer> callback = (a, b) -> pairCounter[0]++;
+
+        // 预热
+        for (int f = 0; f < 30; f++) {
+            step(broadphase, ids, x, y, vx, vy, half);
+            broadphase.findPairs(callback);
+        }
+
+        long updateNanos = 0;
+        long pairNanos = 0;
+        long tests = 0;
+        long pairs = 0;
+        long structural = 0;
+        for (int f = 0; f < frames; f++) {
+            BroadphaseStats stats = broadphase.getStats();
+            stats.resetTimers();
+            long start = System.nanoTime();
+            step(broadphase, ids, x, y, vx, vy, half);
+            updateNanos += System.nanoTime() - start;
+            broadphase.findPairs(callback);
+            pairNanos += stats.getPairNanos();
+            tests += stats.getOverlapTests();
+            pairs += stats.getPairCount();
+            structural += stats.getStructuralUpdates();
+        }
+
+        System.out.printf("%16s %12.3f %12.3f %10d %12d %12d%n", type,
+                updateNanos / 1e6 / frames, pairNanos / 1e6 / frames,
+                pairs / frames, tests / frames, structural / frames);
+    }
+
+    private static void setVelocity(Random random, float[] vx, float[] vy, int i, float speed) {
+        double angle = random.nextDouble() * Math.PI * 2;
+        vx[i] = (float) Math.cos(angle) * speed;
+        vy[i] = (float) Math.sin(angle) * speed;
+    }
+
+    // 匀速移动并在边界反弹，然后把新包围盒交给 broadphase
+    private static void step(Broadphase<Integer> broadphase, int[] ids,
+                             float[] x, float[] y, float[] vx, float[] vy, float[] half) {
+        for (int i = 0; i < x.length; i++) {
+            x[i] += vx[i] * DT;
+            y[i] += vy[i] * DT;
+            if (x[i] < 0 || x[i] > WORLD_W) vx[i] = -vx[i];
+            if (y[i] < 0 || y[i] > WORLD_H) vy[i] = -vy[i];
+            broadphase.move(ids[i], x[i] - half[i], y[i] - half[i], x[i] + half[i], y[i] + half[i]);
+        }
+    }
+}
@@ -0,0 +1,131 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.core.Broadphase;
+import com.gameengine.core.BroadphaseType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * 子弹/敌人碰撞粗筛基准：对比原来的 O(子弹 x 敌人) 暴力距离检测与游戏实际使用的各个 Broadphase 策略。
+ * 与 GameLogic 一样，敌人代理只插入一次，每帧 move 后按子弹的命中范围做 queryAabb，再精确比较距离；
+ * 策略一侧的计时包含每帧的 move。
+ * 用法：java com.gameengine.benchmark.CollisionBroadphaseBenchmark [帧数]
+ */
+public class CollisionBroadphaseBenchmark {
+    private static final float WORLD_W = 1920f;
+    private static final float WORLD_H = 1080f;
+    private static final float HIT_RADIUS = 20f;
+    private static final int[][] SIZES = {
+            {100, 400},
+            {500, 2000},
+            {1000, 8000},
+            {2000, 20000},
+    };
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 50;
+        Random random = new Random(42);
+        BroadphaseType[] types = BroadphaseType.values();
+
+        StringBuilder header = new StringBuilder(String.format("%8s %8s %14s", "子弹", "敌人", "暴力(ms/帧)"));
+        for (BroadphaseType type : types) {
+            header.append(String.format(" %16s", type + "(ms/帧)"));
+        }
+        System.out.println(header.append(String.format(" %8s", "命中")));
+
+        for (int[] size : SIZES) {
+            int bullets = size[0];
+            int enemies = size[1];
+            float[] bx = randomCoords(random, bullets, WORLD_W);
+            float[] by = randomCoords(random, bullets, WORLD_H);
+            float[] ex = randomCoords(random, enemies, WORLD_W);
+            float[] ey = randomCoords(random, enemies, WORLD_H);
+            List<Integer> candidates = new ArrayList<>();
+
+            for (int i = 0; i < 5; i++) {
+                bruteForce(bx, by, ex, ey);
+            }
+            long start = System.nanoTime();
+            int bruteHits = 0;
+            for (int f = 0; f < frames; f++) {
+                bruteHits = bruteForce(bx, by, ex, ey);
+            }
+            double bruteMs = (System.nanoTime() - start) / 1e6 / frames;
+
+            StringBuilder row = new StringBuilder(String.format("%8d %8d %14.3f", bullets, enemies, bruteMs));
+            String hits = String.valueOf(bruteHits);
+            for (BroadphaseType type : types) {
+                Broadphase<Integer> broadphase = type.create();
+                int[] proxies = new int[enemies];
+                for (int e = 0; e < enemies; e++) {
+                    proxies[e] = broadphase.insert(e, ex[e], ey[e], ex[e], ey[e], 1, 0);
+                }
+
+                // 预热
+                for (int i = 0; i < 5; i++) {
+                    withBroadphase(broadphase, proxies, candidates, bx, by, ex, ey);
+                }
+                start = System.nanoTime();
+                int typeHits = 0;
+                for (int f = 0; f < frames; f++) {
+                    typeHits = withBroadphase(broadphase, proxies, candidates, bx, by, ex, ey);
+                }
+                double typeMs = (System.nanoTime() - start) / 1e6 / frames;
+                row.append(String.format(" %16.3f", typeMs));
+                if (typeHits != bruteHits) {
+                    hits += " " + type + "=" + typeHits + "!";
+                }
+            }
+            System.out.println(row.append(String.format(" %8s", hits)));
+        }
+    }
+
+    private static float[] randomCoords(Random random, int n, float extent) {
+        float[] out = new float[n];
+        for (int i = 0; i < n; i++) {
+            out[i] = random.nextFloat() * extent;
+        }
+        return out;
+    }
+
+    // 与 GameLogic 原实现一致：逐对计算距离（含 sqrt），每颗子弹命中第一个即停止
+    private static int bruteForce(float[] bx, float[] by, float[] ex, float[] ey) {
+        int hits = 0;
+        for (int b = 0; b < bx.length; b++) {
+            for (int e = 0; e < ex.length; e++) {
+                float dx = bx[b] - ex[e];
+                float dy = by[b] - ey[e];
+                if ((float) Math.sqrt(dx * dx + dy * dy) < HIT_RADIUS) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+
+    private static int withBroadphase(Broadphase<Integer> broadphase, int[] proxies, List<Integer> candidates,
+                                      float[] bx, float[] by, float[] ex, float[] ey) {
+        for (int e = 0; e < proxies.length; e++) {
+            broadphase.move(proxies[e], ex[e], ey[e], ex[e], ey[e]);
+        }
+        float radiusSq = HIT_RADIUS * HIT_RADIUS;
+        int hits = 0;
+        for (int b = 0; b < bx.length; b++) {
+            candidates.clear();
+            broadphase.queryAabb(bx[b] - HIT_RADIUS, by[b] - HIT_RADIUS, bx[b] + HIT_RADIUS, by[b] + HIT_RADIUS, candidates);
+            for (int c = 0; c < candidates.size(); c++) {
+                int e = candidates.get(c);
+                float dx = bx[b] - ex[e];
+                float dy = by[b] - ey[e];
+                if (dx * dx + dy * dy < radiusSq) {
+                    hits++;
+                    break;
+                }
+            }
+        }
+        return hits;
+    }
+}
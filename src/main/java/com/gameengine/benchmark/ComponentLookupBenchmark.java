@@ -0,0 +1,110 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.components.*;
+import com.gameengine.core.Component;
+import com.gameengine.core.GameObject;
+import com.gameengine.math.Vector2;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 组件查询基准：对比旧的线性 isInstance 遍历、按 Class 查类型 ID 后的槽位查找与按类型键（TYPE）的槽位查找，
+ * 分别覆盖精确类型查询与父类型（子类实例）查询两种方式。
+ * 用法：java com.gameengine.benchmark.ComponentLookupBenchmark [对象数] [轮数]
+ */
+public class ComponentLookupBenchmark {
+    // 用于父类型查询：按 TransformComponent 查询时应返回该子类实例
+    private static class TrackedTransform extends TransformComponent {
+        TrackedTransform(Vector2 position) {
+            super(position);
+        }
+    }
+
+    private static volatile Object sink;
+
+    public static void main(String[] args) {
+        int objectCount = args.length > 0 ? Integer.parseInt(args[0]) : 5000;
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : 200;
+
+        List<GameObject> objects = new ArrayList<>();
+        for (int i = 0; i < objectCount; i++) {
+            GameObject obj = new GameObject("Enemy");
+            if (i % 2 == 0) {
+                obj.addComponent(new TransformComponent(new Vector2(i, i)));
+            } else {
+                obj.addComponent(new TrackedTransform(new Vector2(i, i)));
+            }
+            obj.addComponent(new RenderComponent());
+            obj.addComponent(new PhysicsComponent(1.0f));
+            obj.addComponent(new HealthComponent(100));
+            obj.addComponent(new DamageComponent(10));
+            objects.add(obj);
+        }
+
+        // 预热，让 JIT 编译两条路径
+        for (int i = 0; i < rounds; i++) {
+            runLinear(objects);
+            runSlots(objects);
+            runTypeKeys(objects);
+        }
+
+        long linear = time(() -> runLinear(objects), rounds);
+        long slots = time(() -> runSlots(objects), rounds);
+        long typeKeys = time(() -> runTypeKeys(objects), rounds);
+
+        long lookups = (long) objectCount * 3 * rounds;
+        System.out.printf("对象数=%d 轮数=%d 查询次数=%d%n", objectCount, rounds, lookups);
+        System.out.printf("线性遍历(isInstance): %.2f ns/次%n", (double) linear / lookups);
+        System.out.printf("类型槽位(Class)     : %.2f ns/次%n", (double) slots / lookups);
+        System.out.printf("类型槽位(TYPE 键)   : %.2f ns/次%n", (double) typeKeys / lookups);
+    }
+
+    private static long time(Runnable task, int rounds) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            task.run();
+        }
+        return System.nanoTime() - start;
+    }
+
+    // 每个对象做三次查询：精确类型（位于列表末尾）、父类型、缺失类型
+    private static void runLinear(List<GameObject> objects) {
+        Object last = null;
+        for (GameObject obj : objects) {
+            last = findLinear(obj, DamageComponent.class);
+            last = findLinear(obj, TransformComponent.class);
+            last = findLinear(obj, EnemyAIComponent.class);
+        }
+        sink = last;
+    }
+
+    private static void runSlots(List<GameObject> objects) {
+        Object last = null;
+        for (GameObject obj : objects) {
+            last = obj.getComponent(DamageComponent.class);
+            last = obj.getComponent(TransformComponent.class);
+            last = obj.getComponent(EnemyAIComponent.class);
+        }
+        sink = last;
+    }
+
+    private static void runTypeKeys(List<GameObject> objects) {
+        Object last = null;
+        for (GameObject obj : objects) {
+            last = obj.getComponent(DamageComponent.TYPE);
+            last = obj.getComponent(TransformComponent.TYPE);
+            last = obj.getComponent(EnemyAIComponent.TYPE);
+        }
+        sink = last;
+    }
+
+    private static Object findLinear(GameObject obj, Class<?> type) {
+        for (Component<?> component : obj.getComponentList()) {
+            if (type.isInstance(component)) {
+                return component;
+            }
+        }
+        return null;
+    }
+}
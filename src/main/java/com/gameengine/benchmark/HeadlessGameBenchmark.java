@@ -0,0 +1,63 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.core.FramePacer;
+import com.gameengine.core.GameEngine;
+import com.gameengine.example.GameScene;
+import com.gameengine.graphics.HeadlessRenderer;
+import com.gameengine.graphics.RenderBackend;
+import com.gameengine.graphics.SnapshotRenderer;
+import com.gameengine.recording.RecordingConfig;
+import com.gameengine.recording.RecordingService;
+
+import java.io.File;
+
+/**
+ * 无窗口整局基准：HEADLESS 后端 + 虚拟时钟 + 不限帧率，驱动 GameScene（含 GameLogic、PhysicsSystem）
+ * 跑固定帧数，可选同时录制或经命令缓冲提交，输出每秒帧数与各图元的绘制次数；
+ * 开启命令缓冲时另外输出最后一帧的命令数与排序前后的批次数。
+ * 用法：java com.gameengine.benchmark.HeadlessGameBenchmark [帧数] [record] [commandBuffer]
+ */
+public class HeadlessGameBenchmark {
+    public static void main(String[] args) throws Exception {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 10000;
+        boolean record = false;
+        boolean commandBuffer = false;
+        for (int i = 1; i < args.length; i++) {
+            record |= "record".equals(args[i]);
+            commandBuffer |= "commandBuffer".equals(args[i]);
+        }
+
+        GameEngine engine = new GameEngine(1024, 768, "headless", RenderBackend.HEADLESS);
+        HeadlessRenderer renderer = (HeadlessRenderer) engine.getRenderer();
+        renderer.setCountDrawCalls(true);
+        engine.setCommandBufferEnabled(commandBuffer);
+        engine.setVirtualClock(60.0f);
+        engine.setFixedTimestep(true);
+        engine.setTickRate(60.0f);
+        engine.setFramePacingMode(FramePacer.Mode.UNCAPPED);
+        engine.setFrameLimit(frames);
+        engine.setScene(new GameScene(engine));
+
+        File recording = null;
+        if (record) {
+            recording = File.createTempFile("headless_", ".jsonl");
+            recording.deleteOnExit();
+            engine.enableRecording(new RecordingService(new RecordingConfig(recording.getPath())));
+        }
+
+        long start = System.nanoTime();
+        engine.run();
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("%d 帧，%.3f 秒，%.0f 帧/秒%n", engine.getFrameCount(), seconds, engine.getFrameCount() / seconds);
+        System.out.println("绘制: " + renderer);
+        SnapshotRenderer snapshot = engine.getSnapshotRenderer();
+        if (snapshot != null) {
+            System.out.println("命令缓冲（最后一帧）: 命令 " + snapshot.getLastCommandCount()
+                + "，批次 " + snapshot.getLastBatchesUnsorted() + " -> " + snapshot.getLastBatches());
+        }
+        if (recording != null) {
+            System.out.println("录制文件: " + recording.length() + " 字节");
+        }
+    }
+}
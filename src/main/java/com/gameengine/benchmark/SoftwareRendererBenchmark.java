@@ -0,0 +1,101 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.graphics.SoftwareRenderer;
+
+import java.io.File;
+import java.util.Random;
+
+/**
+ * 软件光栅化基准：按 ReplayScene 的画面构成（全屏背景、数百个半透明方块、粒子圆、提示文字）
+ * 绘制 1024x768 帧，对比不同并行度下每帧的光栅化耗时；可选把最后一帧导出为 PNG。
+ * 默认测 1、2、4…直到核数的线程数，也可用逗号分隔的列表指定（如 1,8），便于固定对比 1 线程与 N 线程。
+ * 用法：java com.gameengine.benchmark.SoftwareRendererBenchmark [帧数] [线程列表] [输出.png]
+ */
+public class SoftwareRendererBenchmark {
+    private static final int WIDTH = 1024;
+    private static final int HEIGHT = 768;
+    private static final int OBJECTS = 600;
+    private static final int PARTICLES = 200;
+
+    public static void main(String[] args) throws Exception {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        String png = null;
+        String threadList = null;
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].endsWith(".png")) {
+                png = args[i];
+            } else {
+                threadList = args[i];
+            }
+        }
+
+        int cores = Runtime.getRuntime().availableProcessors();
+        System.out.printf("%8s %14s  (可用核数 %d)%n", "线程", "光栅化(ms/帧)", cores);
+        int maxThreads = cores;
+        if (threadList != null) {
+            for (String t : threadList.split(",")) {
+                int threads = Integer.parseInt(t.trim());
+                run(threads, frames, null);
+                maxThreads = threads;
+            }
+        } else {
+            for (int threads = 1; threads <= cores; threads *= 2) {
+                run(threads, frames, null);
+            }
+            if (Integer.bitCount(cores) != 1) {
+                run(cores, frames, null);
+            }
+        }
+        if (png != null) {
+            run(maxThreads, 1, new File(png));
+            System.out.println("已导出: " + png);
+        }
+    }
+
+    private static void run(int threads, int frames, File png) throws Exception {
+        SoftwareRenderer renderer = new SoftwareRenderer(WIDTH, HEIGHT, "bench", threads);
+        Random random = new Random(7);
+        float[] xs = new float[OBJECTS];
+        float[] ys = new float[OBJECTS];
+        for (int i = 0; i < OBJECTS; i++) {
+            xs[i] = random.nextFloat() * WIDTH;
+            ys[i] = random.nextFloat() * HEIGHT;
+        }
+
+        // 预热
+        for (int f = 0; f < 20; f++) {
+            drawFrame(renderer, xs, ys, f);
+        }
+        long total = 0;
+        for (int f = 0; f < frames; f++) {
+            drawFrame(renderer, xs, ys, f);
+            total += renderer.getLastRasterNanos();
+        }
+        if (png == null) {
+            System.out.printf("%8d %14.3f%n", threads, total / 1e6 / frames);
+        } else {
+            renderer.writePng(png);
+        }
+        renderer.cleanup();
+    }
+
+    private static void drawFrame(SoftwareRenderer renderer, float[] xs, float[] ys, int frame) {
+        renderer.beginFrame();
+        renderer.drawRect(0, 0, WIDTH, HEIGHT, 0.06f, 0.06f, 0.08f, 1.0f);
+        for (int i = 0; i < xs.length; i++) {
+            float x = (xs[i] + frame) % WIDTH;
+            if (i % 3 == 0) {
+                renderer.drawRect(x, ys[i], 40, 40, 1.0f, 0.2f, 0.2f, 0.8f);
+            } else {
+                renderer.drawRect(x, ys[i], 20, 20, 1.0f, 1.0f, 0.0f, 1.0f);
+            }
+        }
+        for (int i = 0; i < PARTICLES; i++) {
+            renderer.drawCircle(xs[i], ys[i] + frame % 50, 4, 16, 1.0f, 0.6f, 0.1f, 0.5f);
+        }
+        renderer.drawLine(0, 0, WIDTH, HEIGHT, 0.5f, 0.8f, 1.0f, 1.0f);
+        renderer.drawText(WIDTH / 2.0f - 126, 30, "REPLAY: ESC to return", 0.8f, 0.8f, 0.8f, 1.0f);
+        renderer.drawText(20, HEIGHT - 50, "Kills: 12  Time: 34.5", 1.0f, 1.0f, 1.0f, 1.0f);
+        renderer.endFrame();
+    }
+}
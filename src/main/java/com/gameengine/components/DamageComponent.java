@@ -1,8 +1,11 @@
 package com.gameengine.components;
 
 import com.gameengine.core.Component;
+import com.gameengine.core.ComponentType;
 
 public class DamageComponent extends Component<DamageComponent> {
+    public static final ComponentType<DamageComponent> TYPE = ComponentType.of(DamageComponent.class);
+
     private int damage;
 
     public DamageComponent(int damage) {
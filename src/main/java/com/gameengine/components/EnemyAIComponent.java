@@ -1,16 +1,19 @@
 package com.gameengine.components;
 
 import com.gameengine.core.Component;
+import com.gameengine.core.ComponentType;
 import com.gameengine.core.GameObject;
 import com.gameengine.math.Vector2;
 import com.gameengine.scene.Scene;
 
 public class EnemyAIComponent extends Component<EnemyAIComponent> {
+    public static final ComponentType<EnemyAIComponent> TYPE = ComponentType.of(EnemyAIComponent.class);
 
     private GameObject player;
     private final float speed;
     private final Scene scene;
     private boolean active = true; // 添加 active 状态
+    private final Vector2 direction = new Vector2(); // 复用的方向向量，避免每帧分配
 
     /**
      * 构造一个敌人AI组件。
@@ -49,20 +52,19 @@ public class EnemyAIComponent extends Component<EnemyAIComponent> {
             return;
         }
 
-        TransformComponent myTransform = owner.getComponent(TransformComponent.class);
-        TransformComponent playerTransform = player.getComponent(TransformComponent.class);
-        PhysicsComponent myPhysics = owner.getComponent(PhysicsComponent.class);
+        TransformComponent myTransform = owner.getComponent(TransformComponent.TYPE);
+        TransformComponent playerTransform = player.getComponent(TransformComponent.TYPE);
+        PhysicsComponent myPhysics = owner.getComponent(PhysicsComponent.TYPE);
 
         // 确保所有必需的组件都存在
         if (myTransform != null && playerTransform != null && myPhysics != null) {
-            Vector2 myPosition = myTransform.getPosition();
-            Vector2 playerPosition = playerTransform.getPosition();
-
             // 计算从当前位置到玩家位置的方向向量
-            Vector2 direction = playerPosition.subtract(myPosition).normalize();
+            direction.set(playerTransform.getX() - myTransform.getX(), playerTransform.getY() - myTransform.getY())
+                    .normalizeLocal()
+                    .scaleLocal(speed);
 
             // 设置物理组件的速度，使敌人朝向玩家移动
-            myPhysics.setVelocity(direction.multiply(speed));
+            myPhysics.setVelocity(direction.x, direction.y);
         }
     }
 
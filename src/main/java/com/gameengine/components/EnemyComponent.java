@@ -1,10 +1,13 @@
 package com.gameengine.components;
 
 import com.gameengine.core.Component;
+import com.gameengine.core.ComponentType;
 import com.gameengine.core.GameObject;
 import com.gameengine.math.Vector2;
 
 public class EnemyComponent extends Component<EnemyComponent> {
+    public static final ComponentType<EnemyComponent> TYPE = ComponentType.of(EnemyComponent.class);
+
     private GameObject player;
     private float speed;
 
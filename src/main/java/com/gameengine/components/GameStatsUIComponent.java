@@ -1,13 +1,14 @@
 package com.gameengine.components;
 
 import com.gameengine.core.Component;
+import com.gameengine.core.ComponentType;
 import com.gameengine.core.GameEngine;
 import com.gameengine.core.GameLogic;
 import com.gameengine.graphics.IRenderer;
 
-import java.util.Map;
-
 public class GameStatsUIComponent extends Component<GameStatsUIComponent> {
+    public static final ComponentType<GameStatsUIComponent> TYPE = ComponentType.of(GameStatsUIComponent.class);
+
     private final IRenderer renderer;
     private final GameLogic gameLogic;
     private final GameEngine gameEngine;
@@ -17,6 +18,16 @@ public class GameStatsUIComponent extends Component<GameStatsUIComponent> {
     private int frameCount = 0;
     private float averageFps = 0f;
 
+    // 上次显示的数值与对应文本，数值不变时复用
+    private String killText;
+    private String timeText;
+    private String enemyText;
+    private String fpsText;
+    private int lastKillCount;
+    private long lastSurvivalTenths;
+    private int lastEnemyCount;
+    private long lastFpsTenths;
+
     public GameStatsUIComponent(IRenderer renderer, GameLogic gameLogic, GameEngine gameEngine) {
         this.renderer = renderer;
         this.gameLogic = gameLogic;
@@ -47,32 +58,57 @@ public class GameStatsUIComponent extends Component<GameStatsUIComponent> {
         }
 
         int killCount = gameLogic.getKillCount();
-        float survivalTime = gameLogic.getSurvivalTime();
+        // 存活时间与帧率按显示精度（0.1）比较，只有显示内容变化时才重新格式化
+        long survivalTenths = Math.round(gameLogic.getSurvivalTime() * 10.0);
         int enemyCount = gameLogic.getEnemyCount();
+        long fpsTenths = Math.round(averageFps * 10.0);
+
+        if (killText == null || killCount != lastKillCount) {
+            lastKillCount = killCount;
+            killText = "击杀数: " + killCount;
+        }
+        if (timeText == null || survivalTenths != lastSurvivalTenths) {
+            lastSurvivalTenths = survivalTenths;
+            timeText = "存活时间: " + formatTenths(survivalTenths) + "s";
+        }
+        if (enemyText == null || enemyCount != lastEnemyCount) {
+            lastEnemyCount = enemyCount;
+            enemyText = "敌人数: " + enemyCount;
+        }
+        if (fpsText == null || fpsTenths != lastFpsTenths) {
+            lastFpsTenths = fpsTenths;
+            fpsText = "平均帧率: " + formatTenths(fpsTenths);
+        }
+
+        // HUD 画在世界之上，不被之后绘制的粒子覆盖
+        renderer.setLayer(IRenderer.LAYER_HUD);
 
         // 设置UI文本的属性
         int x = 20;
         int y = 30;
-        int fontSize = 18;
         int lineHeight = 30;
 
         // 绘制击杀数
-        String killText = "击杀数: " + killCount;
         renderer.drawText(x, y, killText, 1, 1, 1, 1);
 
         // 绘制生存时间
         y += lineHeight;
-        String timeText = String.format("存活时间: %.1fs", survivalTime);
         renderer.drawText(x, y, timeText, 1, 1, 1, 1);
 
         // 绘制敌人数量
         y += lineHeight;
-        String enemyText = "敌人数: " + enemyCount;
         renderer.drawText(x, y, enemyText, 1, 1, 1, 1);
 
         // 绘制平均帧率
         y += lineHeight;
-        String fpsText = String.format("平均帧率: %.1f", averageFps);
         renderer.drawText(x, y, fpsText, 1, 1, 1, 1);
+
+        renderer.setLayer(IRenderer.LAYER_WORLD);
+    }
+
+    // 与 String.format("%.1f") 相同的输出，输入为乘以 10 后四舍五入的值
+    private static String formatTenths(long tenths) {
+        long abs = Math.abs(tenths);
+        return (tenths < 0 ? "-" : "") + (abs / 10) + "." + (abs % 10);
     }
 }
@@ -1,10 +1,14 @@
 package com.gameengine.components;
 
 import com.gameengine.core.Component;
+import com.gameengine.core.ComponentType;
 import com.gameengine.graphics.IRenderer;
 import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
 
 public class HealthBarComponent extends Component<HealthBarComponent> {
+    public static final ComponentType<HealthBarComponent> TYPE = ComponentType.of(HealthBarComponent.class);
+
 
     private IRenderer renderer;
     private HealthComponent healthComponent;
@@ -16,6 +20,8 @@ public class HealthBarComponent extends Component<HealthBarComponent> {
     private float height = 5;
     private RenderComponent.Color healthColor = new RenderComponent.Color(0.0f, 1.0f, 0.0f, 0.8f);
     private RenderComponent.Color backgroundColor = new RenderComponent.Color(1.0f, 0.0f, 0.0f, 0.8f);
+    // 满血时不画血条
+    private boolean hideWhenFull;
 
     public HealthBarComponent(IRenderer renderer) {
         this.renderer = renderer;
@@ -24,8 +30,8 @@ public class HealthBarComponent extends Component<HealthBarComponent> {
     @Override
     public void initialize() {
         // 获取宿主对象上必需的组件
-        this.healthComponent = owner.getComponent(HealthComponent.class);
-        this.transformComponent = owner.getComponent(TransformComponent.class);
+        this.healthComponent = owner.getComponent(HealthComponent.TYPE);
+        this.transformComponent = owner.getComponent(TransformComponent.TYPE);
 
         if (healthComponent == null || transformComponent == null) {
             System.err.println("HealthBarComponent needs HealthComponent and TransformComponent on the same GameObject.");
@@ -44,16 +50,26 @@ public class HealthBarComponent extends Component<HealthBarComponent> {
             return; // 如果未启用，则不渲染
         }
 
-        Vector2 pos = transformComponent.getPosition();
-        float healthPercentage = (float) healthComponent.getHealth() / healthComponent.getMaxHealth();
+        if (hideWhenFull && healthComponent.isFullHealth()) {
+            return;
+        }
+        float healthPercentage = healthComponent.getHealthFraction();
 
-        float barX = pos.x - width / 2 + offset.x;
-        float barY = pos.y + offset.y;
+        float alpha = getInterpolationAlpha();
+        float barX = transformComponent.getRenderX(alpha) - width / 2 + offset.x;
+        float barY = transformComponent.getRenderY(alpha) + offset.y;
 
-        // 绘制血条背景
-        renderer.drawRect(barX, barY, width, height, backgroundColor.r, backgroundColor.g, backgroundColor.b, backgroundColor.a);
-        // 绘制当前血量
-        renderer.drawRect(barX, barY, width * healthPercentage, height, healthColor.r, healthColor.g, healthColor.b, healthColor.a);
+        Scene scene = owner.getScene();
+        if (scene != null) {
+            // 加入场景的血条批次，本层对象画完后与其他血条一起提交
+            scene.getHealthBarBatch().add(barX, barY, width, height, healthPercentage,
+                healthColor.r, healthColor.g, healthColor.b, healthColor.a,
+                backgroundColor.r, backgroundColor.g, backgroundColor.b, backgroundColor.a);
+        } else {
+            renderer.drawHealthBar(barX, barY, width, height, healthPercentage,
+                healthColor.r, healthColor.g, healthColor.b, healthColor.a,
+                backgroundColor.r, backgroundColor.g, backgroundColor.b, backgroundColor.a);
+        }
     }
 
     // --- 你可以添加更多setter方法来自定义血条样式 ---
@@ -65,4 +81,12 @@ public class HealthBarComponent extends Component<HealthBarComponent> {
         this.width = width;
         this.height = height;
     }
+
+    public void setHideWhenFull(boolean hideWhenFull) {
+        this.hideWhenFull = hideWhenFull;
+    }
+
+    public boolean isHideWhenFull() {
+        return hideWhenFull;
+    }
 }
@@ -1,10 +1,16 @@
 package com.gameengine.components;
 
 import com.gameengine.core.Component;
+import com.gameengine.core.ComponentType;
 
 public class HealthComponent extends Component<HealthComponent> {
+    public static final ComponentType<HealthComponent> TYPE = ComponentType.of(HealthComponent.class);
+
     private int health;
     private int maxHealth;
+    // 血量比例缓存：血量变化时置脏，读取时才重算
+    private float fraction = 1f;
+    private boolean fractionDirty = true;
 
     public HealthComponent(int maxHealth) {
         this.maxHealth = maxHealth;
@@ -12,10 +18,7 @@ public class HealthComponent extends Component<HealthComponent> {
     }
 
     public void takeDamage(int damage) {
-        this.health -= damage;
-        if (this.health < 0) {
-            this.health = 0;
-        }
+        setHealth(Math.max(0, this.health - damage));
     }
 
     public boolean isDead() {
@@ -31,7 +34,23 @@ public class HealthComponent extends Component<HealthComponent> {
     }
 
     public void setHealth(int health) {
-        this.health = health;
+        if (health != this.health) {
+            this.health = health;
+            fractionDirty = true;
+        }
+    }
+
+    /** 当前血量占上限的比例（0~1），只在血量变化后重算 */
+    public float getHealthFraction() {
+        if (fractionDirty) {
+            fraction = maxHealth > 0 ? Math.max(0f, Math.min(1f, (float) health / maxHealth)) : 0f;
+            fractionDirty = false;
+        }
+        return fraction;
+    }
+
+    public boolean isFullHealth() {
+        return health >= maxHealth;
     }
 
     @Override
@@ -1,15 +1,22 @@
 package com.gameengine.components;
 
+import com.gameengine.core.Archetype;
 import com.gameengine.core.Component;
+import com.gameengine.core.ComponentType;
 import com.gameengine.math.Vector2;
 
 public class PhysicsComponent extends Component<PhysicsComponent> {
+    public static final ComponentType<PhysicsComponent> TYPE = ComponentType.of(PhysicsComponent.class);
+    
     private Vector2 velocity;
     private Vector2 acceleration;
     private float mass;
     private float friction;
     private boolean useGravity;
     private Vector2 gravity;
+    // 挂入原型存储后，速度/加速度/摩擦/质量以 storage 中的数组行为准
+    private Archetype storage;
+    private int storageRow;
     
     public PhysicsComponent() {
         this.velocity = new Vector2();
@@ -34,63 +41,136 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
     }
     
     public void applyForce(Vector2 force) {
-        if (mass > 0) {
-            acceleration = acceleration.add(force.multiply(1.0f / mass));
+        float m = getMass();
+        if (m > 0) {
+            if (storage != null) {
+                storage.accX[storageRow] += force.x / m;
+                storage.accY[storageRow] += force.y / m;
+            } else {
+                acceleration.addLocal(force.x / m, force.y / m);
+            }
         }
     }
     
     public void applyImpulse(Vector2 impulse) {
-        if (mass > 0) {
-            velocity = velocity.add(impulse.multiply(1.0f / mass));
+        float m = getMass();
+        if (m > 0) {
+            if (storage != null) {
+                storage.velX[storageRow] += impulse.x / m;
+                storage.velY[storageRow] += impulse.y / m;
+            } else {
+                velocity.addLocal(impulse.x / m, impulse.y / m);
+            }
         }
     }
     
     public void setVelocity(Vector2 velocity) {
-        this.velocity = new Vector2(velocity);
+        setVelocity(velocity.x, velocity.y);
     }
     
     public void setVelocity(float x, float y) {
-        this.velocity = new Vector2(x, y);
+        if (storage != null) {
+            storage.velX[storageRow] = x;
+            storage.velY[storageRow] = y;
+        } else {
+            this.velocity.set(x, y);
+        }
     }
     
     public void setAcceleration(Vector2 acceleration) {
-        this.acceleration = new Vector2(acceleration);
+        setAcceleration(acceleration.x, acceleration.y);
+    }
+    
+    public void setAcceleration(float x, float y) {
+        if (storage != null) {
+            storage.accX[storageRow] = x;
+            storage.accY[storageRow] = y;
+        } else {
+            this.acceleration.set(x, y);
+        }
     }
     
     public void addVelocity(Vector2 delta) {
-        this.velocity = velocity.add(delta);
+        if (storage != null) {
+            storage.velX[storageRow] += delta.x;
+            storage.velY[storageRow] += delta.y;
+        } else {
+            this.velocity.addLocal(delta);
+        }
     }
     
     public void setGravity(Vector2 gravity) {
         this.gravity = new Vector2(gravity);
+        syncGravity();
     }
     
     public void setUseGravity(boolean useGravity) {
         this.useGravity = useGravity;
+        syncGravity();
     }
     
     public void setFriction(float friction) {
-        this.friction = Math.max(0, Math.min(1, friction));
+        float clamped = Math.max(0, Math.min(1, friction));
+        if (storage != null) {
+            storage.friction[storageRow] = clamped;
+        } else {
+            this.friction = clamped;
+        }
     }
     
     public void setMass(float mass) {
-        this.mass = Math.max(0.1f, mass);
+        float clamped = Math.max(0.1f, mass);
+        if (storage != null) {
+            storage.mass[storageRow] = clamped;
+        } else {
+            this.mass = clamped;
+        }
     }
     
     public Vector2 getVelocity() {
+        if (storage != null) {
+            return new Vector2(storage.velX[storageRow], storage.velY[storageRow]);
+        }
         return new Vector2(velocity);
     }
     
     public Vector2 getAcceleration() {
+        if (storage != null) {
+            return new Vector2(storage.accX[storageRow], storage.accY[storageRow]);
+        }
         return new Vector2(acceleration);
     }
     
+    public Vector2 getVelocity(Vector2 out) {
+        return out.set(getVelocityX(), getVelocityY());
+    }
+    
+    public float getVelocityX() {
+        return storage != null ? storage.velX[storageRow] : velocity.x;
+    }
+    
+    public float getVelocityY() {
+        return storage != null ? storage.velY[storageRow] : velocity.y;
+    }
+    
+    public Vector2 getAcceleration(Vector2 out) {
+        return out.set(getAccelerationX(), getAccelerationY());
+    }
+    
+    public float getAccelerationX() {
+        return storage != null ? storage.accX[storageRow] : acceleration.x;
+    }
+    
+    public float getAccelerationY() {
+        return storage != null ? storage.accY[storageRow] : acceleration.y;
+    }
+    
     public float getMass() {
-        return mass;
+        return storage != null ? storage.mass[storageRow] : mass;
     }
     
     public float getFriction() {
-        return friction;
+        return storage != null ? storage.friction[storageRow] : friction;
     }
     
     public boolean isUseGravity() {
@@ -100,4 +180,48 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
     public Vector2 getGravity() {
         return new Vector2(gravity);
     }
+    
+    public Vector2 getGravity(Vector2 out) {
+        return out.set(gravity);
+    }
+    
+    // 原型存储中重力按行展开：未启用重力的行为 0，积分循环无需分支
+    private void syncGravity() {
+        if (storage != null) {
+            storage.gravX[storageRow] = useGravity ? gravity.x : 0;
+            storage.gravY[storageRow] = useGravity ? gravity.y : 0;
+        }
+    }
+    
+    // ---- 原型存储绑定（由 Archetype 调用） ----
+    
+    public void attachStorage(Archetype storage, int row) {
+        storage.velX[row] = velocity.x;
+        storage.velY[row] = velocity.y;
+        storage.accX[row] = acceleration.x;
+        storage.accY[row] = acceleration.y;
+        storage.friction[row] = friction;
+        storage.mass[row] = mass;
+        this.storage = storage;
+        this.storageRow = row;
+        syncGravity();
+    }
+    
+    public void detachStorage() {
+        if (storage == null) return;
+        this.velocity.set(storage.velX[storageRow], storage.velY[storageRow]);
+        this.acceleration.set(storage.accX[storageRow], storage.accY[storageRow]);
+        this.friction = storage.friction[storageRow];
+        this.mass = storage.mass[storageRow];
+        this.storage = null;
+        this.storageRow = -1;
+    }
+    
+    public void moveStorageRow(int row) {
+        this.storageRow = row;
+    }
+    
+    public boolean isStored() {
+        return storage != null;
+    }
 }
@@ -1,15 +1,22 @@
 package com.gameengine.components;
 
 import com.gameengine.core.Component;
+import com.gameengine.core.ComponentType;
 import com.gameengine.graphics.IRenderer;
 import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
 
 public class RenderComponent extends Component<RenderComponent> {
+    public static final ComponentType<RenderComponent> TYPE = ComponentType.of(RenderComponent.class);
+    
     private IRenderer renderer;
     private RenderType renderType;
     private Vector2 size;
     private Color color;
     private boolean visible;
+    // 所在渲染层与层内次序：Scene 先按层号、再按 zOrder 从小到大绘制
+    private int layer = IRenderer.LAYER_WORLD;
+    private int zOrder;
     
     public enum RenderType {
         RECTANGLE,
@@ -56,25 +63,27 @@ public class RenderComponent extends Component<RenderComponent> {
             return;
         }
         
-        TransformComponent transform = owner.getComponent(TransformComponent.class);
+        TransformComponent transform = owner.getComponent(TransformComponent.TYPE);
         if (transform == null) {
             return;
         }
         
-        Vector2 position = transform.getPosition();
+        float alpha = getInterpolationAlpha();
+        float x = transform.getRenderX(alpha);
+        float y = transform.getRenderY(alpha);
         
         switch (renderType) {
             case RECTANGLE:
-                renderer.drawRect(position.x, position.y, size.x, size.y, 
+                renderer.drawRect(x, y, size.x, size.y, 
                                 color.r, color.g, color.b, color.a);
                 break;
             case CIRCLE:
-                renderer.drawCircle(position.x + size.x/2, position.y + size.y/2, 
+                renderer.drawCircle(x + size.x/2, y + size.y/2, 
                                   size.x/2, 16, color.r, color.g, color.b, color.a);
                 break;
             case LINE:
-                renderer.drawLine(position.x, position.y, 
-                                position.x + size.x, position.y + size.y,
+                renderer.drawLine(x, y, 
+                                x + size.x, y + size.y,
                                 color.r, color.g, color.b, color.a);
                 break;
         }
@@ -86,18 +95,67 @@ public class RenderComponent extends Component<RenderComponent> {
     
     public void setColor(Color color) {
         this.color = color;
+        invalidateLayer(layer);
     }
     
     public void setColor(float r, float g, float b, float a) {
         this.color = new Color(r, g, b, a);
+        invalidateLayer(layer);
     }
     
     public void setSize(Vector2 size) {
         this.size = new Vector2(size);
+        invalidateLayer(layer);
     }
     
     public void setVisible(boolean visible) {
+        if (this.visible == visible) return;
         this.visible = visible;
+        invalidateLayer(layer);
+    }
+    
+    /** 设置渲染层（见 IRenderer.LAYER_*），已在场景中时重新排序并使新旧两层的缓存失效。 */
+    public void setLayer(int layer) {
+        if (this.layer == layer) return;
+        int previous = this.layer;
+        this.layer = layer;
+        Scene scene = getScene();
+        if (scene != null) {
+            scene.invalidateLayer(previous);
+            scene.invalidateLayer(layer);
+            scene.markRenderOrderDirty();
+        }
+    }
+    
+    public int getLayer() {
+        return layer;
+    }
+    
+    /** 设置同层内的绘制次序，数值大的后画（在上面）。 */
+    public void setZOrder(int zOrder) {
+        if (this.zOrder == zOrder) return;
+        this.zOrder = zOrder;
+        Scene scene = getScene();
+        if (scene != null) {
+            scene.invalidateLayer(layer);
+            scene.markRenderOrderDirty();
+        }
+    }
+    
+    public int getZOrder() {
+        return zOrder;
+    }
+    
+    private Scene getScene() {
+        return owner != null ? owner.getScene() : null;
+    }
+    
+    // 外观变化时让静态层缓存失效；非静态层上是空操作
+    private void invalidateLayer(int layer) {
+        Scene scene = getScene();
+        if (scene != null) {
+            scene.invalidateLayer(layer);
+        }
     }
     
     public RenderType getRenderType() {
@@ -108,6 +166,18 @@ public class RenderComponent extends Component<RenderComponent> {
         return new Vector2(size);
     }
     
+    public Vector2 getSize(Vector2 out) {
+        return out.set(size);
+    }
+    
+    public float getWidth() {
+        return size.x;
+    }
+    
+    public float getHeight() {
+        return size.y;
+    }
+    
     public Color getColor() {
         return color;
     }
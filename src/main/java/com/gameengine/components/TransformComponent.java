@@ -1,12 +1,22 @@
 package com.gameengine.components;
 
+import com.gameengine.core.Archetype;
 import com.gameengine.core.Component;
+import com.gameengine.core.ComponentType;
 import com.gameengine.math.Vector2;
 
 public class TransformComponent extends Component<TransformComponent> {
+    public static final ComponentType<TransformComponent> TYPE = ComponentType.of(TransformComponent.class);
+    
     private Vector2 position;
     private Vector2 scale;
     private float rotation;
+    // 挂入原型存储后，位置数据以 storage 中的数组行为准
+    private Archetype storage;
+    private int storageRow;
+    // 上一个模拟步结束时的位置，用于渲染插值
+    private float prevX;
+    private float prevY;
     
     public TransformComponent() {
         this.position = new Vector2();
@@ -17,12 +27,16 @@ public class TransformComponent extends Component<TransformComponent> {
     public TransformComponent(Vector2 position) {
         this();
         this.position = new Vector2(position);
+        this.prevX = position.x;
+        this.prevY = position.y;
     }
     
     public TransformComponent(Vector2 position, Vector2 scale, float rotation) {
         this.position = new Vector2(position);
         this.scale = new Vector2(scale);
         this.rotation = rotation;
+        this.prevX = position.x;
+        this.prevY = position.y;
     }
     
     @Override
@@ -34,11 +48,20 @@ public class TransformComponent extends Component<TransformComponent> {
     }
     
     public void moveTo(Vector2 newPosition) {
-        this.position = new Vector2(newPosition);
+        setPosition(newPosition);
     }
     
     public void translate(Vector2 delta) {
-        this.position = position.add(delta);
+        translate(delta.x, delta.y);
+    }
+    
+    public void translate(float dx, float dy) {
+        if (storage != null) {
+            storage.posX[storageRow] += dx;
+            storage.posY[storageRow] += dy;
+        } else {
+            position.addLocal(dx, dy);
+        }
     }
     
     public void rotate(float angle) {
@@ -58,11 +81,65 @@ public class TransformComponent extends Component<TransformComponent> {
     }
     
     public Vector2 getPosition() {
+        if (storage != null) {
+            return new Vector2(storage.posX[storageRow], storage.posY[storageRow]);
+        }
         return new Vector2(position);
     }
     
+    public Vector2 getPosition(Vector2 out) {
+        return out.set(getX(), getY());
+    }
+    
+    public float getX() {
+        return storage != null ? storage.posX[storageRow] : position.x;
+    }
+    
+    public float getY() {
+        return storage != null ? storage.posY[storageRow] : position.y;
+    }
+    
+    /** 固定步长模式下由引擎在每个模拟步之前调用，记录插值起点。 */
+    public void savePrevious() {
+        this.prevX = getX();
+        this.prevY = getY();
+    }
+    
+    /** 在上一模拟步与当前位置之间按 alpha 插值，alpha 为 1 时即当前位置。 */
+    public float getRenderX(float alpha) {
+        return prevX + (getX() - prevX) * alpha;
+    }
+    
+    public float getRenderY(float alpha) {
+        return prevY + (getY() - prevY) * alpha;
+    }
+    
     public void setPosition(Vector2 position) {
-        this.position = new Vector2(position);
+        setPosition(position.x, position.y);
+    }
+    
+    public void setPosition(float x, float y) {
+        if (storage != null) {
+            storage.posX[storageRow] = x;
+            storage.posY[storageRow] = y;
+        } else {
+            this.position.set(x, y);
+        }
+    }
+    
+    /** 瞬移到指定位置：插值起点一并设为新位置，渲染时不会从旧位置拉出一段拖影。 */
+    public void teleport(float x, float y) {
+        setPosition(x, y);
+        resetInterpolation();
+    }
+    
+    public void teleport(Vector2 position) {
+        teleport(position.x, position.y);
+    }
+    
+    /** 丢弃上一模拟步的位置，本帧起直接按当前位置绘制。 */
+    public void resetInterpolation() {
+        savePrevious();
     }
     
     public Vector2 getScale() {
@@ -72,4 +149,36 @@ public class TransformComponent extends Component<TransformComponent> {
     public float getRotation() {
         return rotation;
     }
+    
+    // ---- 原型存储绑定（由 Archetype 调用） ----
+    
+    public void attachStorage(Archetype storage, int row) {
+        storage.posX[row] = position.x;
+        storage.posY[row] = position.y;
+        this.storage = storage;
+        this.storageRow = row;
+    }
+    
+    public void detachStorage() {
+        if (storage == null) return;
+        this.position.set(storage.posX[storageRow], storage.posY[storageRow]);
+        this.storage = null;
+        this.storageRow = -1;
+    }
+    
+    public void moveStorageRow(int row) {
+        this.storageRow = row;
+    }
+    
+    public boolean isStored() {
+        return storage != null;
+    }
+    
+    public Archetype getStorage() {
+        return storage;
+    }
+    
+    public int getStorageRow() {
+        return storageRow;
+    }
 }
@@ -0,0 +1,143 @@
+package com.gameengine.core;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+
+import java.util.Arrays;
+
+/**
+ * 一组具有相同组件组合的实体的列式（SoA）存储。
+ * 每一行对应一个实体，位置、速度、加速度、摩擦、质量分别放在并行的 float 数组中，
+ * 组件对象只保存所在行号，读写时直接访问这些数组。
+ * 数组在扩容时会被替换，外部只应通过字段临时读取，不要缓存数组引用。
+ */
+public class Archetype {
+    private final int mask;
+    private int size;
+
+    public float[] posX;
+    public float[] posY;
+    public float[] velX;
+    public float[] velY;
+    public float[] accX;
+    public float[] accY;
+    public float[] gravX;
+    public float[] gravY;
+    public float[] friction;
+    public float[] mass;
+
+    private TransformComponent[] transforms;
+    private PhysicsComponent[] physics;
+
+    Archetype(int mask, int initialCapacity) {
+        this.mask = mask;
+        this.size = 0;
+        allocate(Math.max(16, initialCapacity));
+    }
+
+    private void allocate(int capacity) {
+        posX = new float[capacity];
+        posY = new float[capacity];
+        transforms = new TransformComponent[capacity];
+        if (hasPhysics()) {
+            velX = new float[capacity];
+            velY = new float[capacity];
+            accX = new float[capacity];
+            accY = new float[capacity];
+            gravX = new float[capacity];
+            gravY = new float[capacity];
+            friction = new float[capacity];
+            mass = new float[capacity];
+            physics = new PhysicsComponent[capacity];
+        }
+    }
+
+    private void grow() {
+        int capacity = posX.length * 2;
+        posX = Arrays.copyOf(posX, capacity);
+        posY = Arrays.copyOf(posY, capacity);
+        transforms = Arrays.copyOf(transforms, capacity);
+        if (hasPhysics()) {
+            velX = Arrays.copyOf(velX, capacity);
+            velY = Arrays.copyOf(velY, capacity);
+            accX = Arrays.copyOf(accX, capacity);
+            accY = Arrays.copyOf(accY, capacity);
+            gravX = Arrays.copyOf(gravX, capacity);
+            gravY = Arrays.copyOf(gravY, capacity);
+            friction = Arrays.copyOf(friction, capacity);
+            mass = Arrays.copyOf(mass, capacity);
+            physics = Arrays.copyOf(physics, capacity);
+        }
+    }
+
+    int add(TransformComponent transform, PhysicsComponent physicsComponent) {
+        if (size == posX.length) {
+            grow();
+        }
+        int row = size++;
+        transforms[row] = transform;
+        transform.attachStorage(this, row);
+        if (hasPhysics()) {
+            physics[row] = physicsComponent;
+            physicsComponent.attachStorage(this, row);
+        }
+        return row;
+    }
+
+    // 交换删除：把最后一行搬到被删除的位置，并通知被搬动的组件更新行号
+    void remove(int row) {
+        transforms[row].detachStorage();
+        if (hasPhysics()) {
+            physics[row].detachStorage();
+        }
+        int last = --size;
+        if (row != last) {
+            posX[row] = posX[last];
+            posY[row] = posY[last];
+            transforms[row] = transforms[last];
+            transforms[row].moveStorageRow(row);
+            if (hasPhysics()) {
+                velX[row] = velX[last];
+                velY[row] = velY[last];
+                accX[row] = accX[last];
+                accY[row] = accY[last];
+                gravX[row] = gravX[last];
+                gravY[row] = gravY[last];
+                friction[row] = friction[last];
+                mass[row] = mass[last];
+                physics[row] = physics[last];
+                physics[row].moveStorageRow(row);
+            }
+        }
+        transforms[last] = null;
+        if (hasPhysics()) {
+            physics[last] = null;
+        }
+    }
+
+    void clear() {
+        while (size > 0) {
+            remove(size - 1);
+        }
+    }
+
+    public int getMask() {
+        return mask;
+    }
+
+    public boolean hasPhysics() {
+        return (mask & ArchetypeStore.PHYSICS) != 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public TransformComponent getTransform(int row) {
+        return transforms[row];
+    }
+
+    public PhysicsComponent getPhysics(int row) {
+        return hasPhysics() ? physics[row] : null;
+    }
+}
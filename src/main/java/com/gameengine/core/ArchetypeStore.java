@@ -0,0 +1,71 @@
+package com.gameengine.core;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+
+/**
+ * 可选的原型（archetype）存储：按组件组合把 Transform/Physics 数据分组放进并行数组，
+ * 供 PhysicsSystem 做连续内存、无分配的批量积分。由 Scene 在对象加入/移除时维护。
+ */
+public class ArchetypeStore {
+    public static final int TRANSFORM = 1;
+    public static final int PHYSICS = 1 << 1;
+
+    private final Archetype[] archetypes;
+
+    public ArchetypeStore() {
+        this.archetypes = new Archetype[PHYSICS << 1];
+    }
+
+    public Archetype getArchetype(int mask) {
+        Archetype archetype = archetypes[mask];
+        if (archetype == null) {
+            archetype = new Archetype(mask, 256);
+            archetypes[mask] = archetype;
+        }
+        return archetype;
+    }
+
+    public void bind(GameObject obj) {
+        TransformComponent transform = obj.getComponent(TransformComponent.TYPE);
+        if (transform == null || transform.isStored()) {
+            return;
+        }
+        PhysicsComponent physics = obj.getComponent(PhysicsComponent.TYPE);
+        int mask = TRANSFORM;
+        if (physics != null && !physics.isStored()) {
+            mask |= PHYSICS;
+        }
+        getArchetype(mask).add(transform, physics);
+    }
+
+    public void unbind(GameObject obj) {
+        TransformComponent transform = obj.getComponent(TransformComponent.TYPE);
+        if (transform != null && transform.isStored()) {
+            transform.getStorage().remove(transform.getStorageRow());
+        }
+    }
+
+    /**
+     * 组件集合变化后调用：Transform/Physics 增加时把实体迁移到新的原型。
+     */
+    public void onComponentAdded(Component<?> component) {
+        if (!(component instanceof TransformComponent) && !(component instanceof PhysicsComponent)) {
+            return;
+        }
+        GameObject owner = component.getOwner();
+        if (owner == null) {
+            return;
+        }
+        unbind(owner);
+        bind(owner);
+    }
+
+    public void clear() {
+        for (Archetype archetype : archetypes) {
+            if (archetype != null) {
+                archetype.clear();
+            }
+        }
+    }
+}
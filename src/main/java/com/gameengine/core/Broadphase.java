@@ -0,0 +1,38 @@
+package com.gameengine.core;
+
+import java.util.List;
+
+/**
+ * 碰撞粗筛（broadphase）策略：维护一组带 AABB 的代理（proxy），支持增量插入/移动/删除，
+ * 并枚举 AABB 相交的候选对。精确的形状判断由调用方完成。
+ *
+ * 每个代理带有类别位 categoryBits 与掩码 maskBits：只有 A 的掩码包含 B 的类别时，
+ * (A, B) 才会作为候选对报告，掩码为 0 的代理只会被动地出现在别人的候选对中。
+ */
+public interface Broadphase<T> {
+
+    interface PairCallback<T> {
+        /** a 为发起方（其掩码包含 b 的类别）。 */
+        void onPair(T a, T b);
+    }
+
+    int insert(T item, float minX, float minY, float maxX, float maxY, int categoryBits, int maskBits);
+
+    void move(int proxyId, float minX, float minY, float maxX, float maxY);
+
+    void remove(int proxyId);
+
+    void queryAabb(float minX, float minY, float maxX, float maxY, List<T> out);
+
+    void findPairs(PairCallback<T> callback);
+
+    T getItem(int proxyId);
+
+    int getProxyCount();
+
+    void clear();
+
+    BroadphaseStats getStats();
+
+    BroadphaseType getType();
+}
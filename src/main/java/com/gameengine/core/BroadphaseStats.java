@@ -0,0 +1,71 @@
+package com.gameengine.core;
+
+/**
+ * 单个 broadphase 的统计：代理数、最近一次 findPairs 的候选对数与重叠测试次数，
+ * 以及累计的更新（insert/move/remove）与配对耗时，用于按场景比较各策略。
+ */
+public class BroadphaseStats {
+    private int proxyCount;
+    private int pairCount;
+    private long overlapTests;
+    private long structuralUpdates;
+    private long updateNanos;
+    private long pairNanos;
+
+    void setProxyCount(int proxyCount) {
+        this.proxyCount = proxyCount;
+    }
+
+    void recordPairs(int pairs, long tests, long nanos) {
+        this.pairCount = pairs;
+        this.overlapTests = tests;
+        this.pairNanos += nanos;
+    }
+
+    void countStructuralUpdate() {
+        structuralUpdates++;
+    }
+
+    /** 由负责同步代理的一方记录一轮 insert/move/remove 的耗时，避免每次操作单独计时。 */
+    public void addUpdateNanos(long nanos) {
+        this.updateNanos += nanos;
+    }
+
+    /** 清零累计计时，通常每帧开始时调用。 */
+    public void resetTimers() {
+        updateNanos = 0;
+        pairNanos = 0;
+        structuralUpdates = 0;
+    }
+
+    public int getProxyCount() {
+        return proxyCount;
+    }
+
+    public int getPairCount() {
+        return pairCount;
+    }
+
+    public long getOverlapTests() {
+        return overlapTests;
+    }
+
+    /** 自上次 resetTimers 起改变了内部结构的更新次数（树的重插入、网格/排序表的增删等）。 */
+    public long getStructuralUpdates() {
+        return structuralUpdates;
+    }
+
+    public long getUpdateNanos() {
+        return updateNanos;
+    }
+
+    public long getPairNanos() {
+        return pairNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("proxies=%d pairs=%d tests=%d structural=%d update=%.3fms pairs=%.3fms",
+                proxyCount, pairCount, overlapTests, structuralUpdates, updateNanos / 1e6, pairNanos / 1e6);
+    }
+}
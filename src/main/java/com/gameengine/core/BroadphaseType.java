@@ -0,0 +1,35 @@
+package com.gameengine.core;
+
+public enum BroadphaseType {
+    GRID,
+    AABB_TREE,
+    SWEEP_AND_PRUNE;
+
+    public <T> Broadphase<T> create() {
+        switch (this) {
+            case AABB_TREE:
+                return new DynamicAabbTree<>();
+            case SWEEP_AND_PRUNE:
+                return new SweepAndPrune<>();
+            case GRID:
+            default:
+                return new GridBroadphase<>();
+        }
+    }
+
+    /**
+     * 读取 -Dgameengine.broadphase=GRID|AABB_TREE|SWEEP_AND_PRUNE，未设置或无效时返回 GRID。
+     */
+    public static BroadphaseType fromSystemProperty() {
+        String value = System.getProperty("gameengine.broadphase");
+        if (value == null) {
+            return GRID;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            System.err.println("未知的 broadphase 类型: " + value + "，使用 GRID");
+            return GRID;
+        }
+    }
+}
@@ -1,6 +1,20 @@
 package com.gameengine.core;
 
+import com.gameengine.scene.Scene;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
 public abstract class Component<T extends Component<T>> {
+    // 组件类型 ID：每个组件类在首次使用时分配一个小整数，供 GameObject 按下标存取
+    private static final AtomicInteger NEXT_TYPE_ID = new AtomicInteger();
+    private static final ClassValue<Integer> TYPE_IDS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return NEXT_TYPE_ID.getAndIncrement();
+        }
+    };
+    
+    private final int typeId;
     protected GameObject owner;
     protected boolean enabled;
     protected String name;
@@ -8,6 +22,15 @@ public abstract class Component<T extends Component<T>> {
     public Component() {
         this.enabled = true;
         this.name = this.getClass().getSimpleName();
+        this.typeId = typeId(this.getClass());
+    }
+    
+    public static int typeId(Class<?> componentType) {
+        return TYPE_IDS.get(componentType);
+    }
+    
+    public final int getTypeId() {
+        return typeId;
     }
     
     public abstract void initialize();
@@ -26,6 +49,12 @@ public abstract class Component<T extends Component<T>> {
         return (Class<T>) this.getClass();
     }
     
+    /** 当前渲染帧在上一模拟步与当前模拟步之间的插值系数，未挂入场景时为 1。 */
+    protected float getInterpolationAlpha() {
+        Scene scene = owner != null ? owner.getScene() : null;
+        return scene != null ? scene.getInterpolationAlpha() : 1.0f;
+    }
+    
     public GameObject getOwner() {
         return owner;
     }
@@ -0,0 +1,27 @@
+package com.gameengine.core;
+
+/**
+ * 组件类型键：持有该组件类的类型 ID，每个组件类以静态常量 TYPE 暴露一个。
+ * GameObject.getComponent(ComponentType) 直接用 ID 做下标读取槽位，省去按 Class 查 ID 的开销。
+ */
+public final class ComponentType<T extends Component<T>> {
+    private final Class<T> type;
+    private final int id;
+
+    private ComponentType(Class<T> type) {
+        this.type = type;
+        this.id = Component.typeId(type);
+    }
+
+    public static <T extends Component<T>> ComponentType<T> of(Class<T> type) {
+        return new ComponentType<>(type);
+    }
+
+    public Class<T> getType() {
+        return type;
+    }
+
+    public int getId() {
+        return id;
+    }
+}
@@ -0,0 +1,446 @@
+package com.gameengine.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 动态 AABB 树（参考 Box2D b2DynamicTree）：叶子保存放大（fat）后的包围盒，
+ * 物体在放大范围内移动时不需要改动树结构，只有移出时才删除并重新插入。
+ * 插入按周长代价选择兄弟节点，并通过旋转保持平衡，适合尺寸差异很大的场景。
+ * 查询与配对共用内部遍历栈，不是线程安全的。
+ */
+public class DynamicAabbTree<T> implements Broadphase<T> {
+    private static final int NULL = -1;
+
+    private final float margin;
+    private int root;
+    private int capacity;
+    private int freeList;
+    private int proxyCount;
+
+    // 节点的放大包围盒（内部节点为子树包围盒）
+    private float[] fMinX;
+    private float[] fMinY;
+    private float[] fMaxX;
+    private float[] fMaxY;
+    // 叶子的实际包围盒
+    private float[] tMinX;
+    private float[] tMinY;
+    private float[] tMaxX;
+    private float[] tMaxY;
+    private int[] parent;
+    private int[] child1;
+    private int[] child2;
+    private int[] height; // 叶子为 0，空闲节点为 -1
+    private Object[] items;
+    private int[] category;
+    private int[] mask;
+
+    private int[] stack;
+    private final BroadphaseStats stats;
+
+    public DynamicAabbTree() {
+        this(4.0f);
+    }
+
+    public DynamicAabbTree(float margin) {
+        this.margin = margin;
+        this.root = NULL;
+        this.capacity = 0;
+        this.freeList = NULL;
+        this.stack = new int[64];
+        this.stats = new BroadphaseStats();
+        grow(64);
+    }
+
+    @Override
+    public int insert(T item, float minX, float minY, float maxX, float maxY, int categoryBits, int maskBits) {
+        int leaf = allocateNode();
+        items[leaf] = item;
+        category[leaf] = categoryBits;
+        mask[leaf] = maskBits;
+        height[leaf] = 0;
+        setTight(leaf, minX, minY, maxX, maxY);
+        setFat(leaf, minX - margin, minY - margin, maxX + margin, maxY + margin);
+        insertLeaf(leaf);
+        proxyCount++;
+        stats.setProxyCount(proxyCount);
+        stats.countStructuralUpdate();
+        return leaf;
+    }
+
+    @Override
+    public void move(int proxyId, float minX, float minY, float maxX, float maxY) {
+        setTight(proxyId, minX, minY, maxX, maxY);
+        if (fMinX[proxyId] <= minX && fMinY[proxyId] <= minY && fMaxX[proxyId] >= maxX && fMaxY[proxyId] >= maxY) {
+            return; // 仍在放大包围盒内，树结构不变
+        }
+        removeLeaf(proxyId);
+        setFat(proxyId, minX - margin, minY - margin, maxX + margin, maxY + margin);
+        insertLeaf(proxyId);
+        stats.countStructuralUpdate();
+    }
+
+    @Override
+    public void remove(int proxyId) {
+        if (height[proxyId] != 0) return;
+        removeLeaf(proxyId);
+        freeNode(proxyId);
+        proxyCount--;
+        stats.setProxyCount(proxyCount);
+        stats.countStructuralUpdate();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void queryAabb(float minX, float minY, float maxX, float maxY, List<T> out) {
+        if (root == NULL) return;
+        int top = 0;
+        stack[top++] = root;
+        while (top > 0) {
+            int node = stack[--top];
+            if (fMinX[node] > maxX || fMaxX[node] < minX || fMinY[node] > maxY || fMaxY[node] < minY) continue;
+            if (height[node] == 0) {
+                if (tMinX[node] <= maxX && tMaxX[node] >= minX && tMinY[node] <= maxY && tMaxY[node] >= minY) {
+                    out.add((T) items[node]);
+                }
+            } else {
+                top = push(top, child1[node]);
+                top = push(top, child2[node]);
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void findPairs(PairCallback<T> callback) {
+        long start = System.nanoTime();
+        int pairs = 0;
+        long tests = 0;
+        for (int a = 0; a < capacity; a++) {
+            if (height[a] != 0 || mask[a] == 0) continue;
+            float minX = tMinX[a];
+            float minY = tMinY[a];
+            float maxX = tMaxX[a];
+            float maxY = tMaxY[a];
+            int top = 0;
+            stack[top++] = root;
+            while (top > 0) {
+                int node = stack[--top];
+                if (fMinX[node] > maxX || fMaxX[node] < minX || fMinY[node] > maxY || fMaxY[node] < minY) continue;
+                if (height[node] != 0) {
+                    top = push(top, child1[node]);
+                    top = push(top, child2[node]);
+                    continue;
+                }
+                int b = node;
+                if (b == a || (mask[a] & category[b]) == 0) continue;
+                // 双方互相关注时由 ID 较小的一方报告
+                if ((mask[b] & category[a]) != 0 && b < a) continue;
+                tests++;
+                if (tMinX[b] <= maxX && tMaxX[b] >= minX && tMinY[b] <= maxY && tMaxY[b] >= minY) {
+                    callback.onPair((T) items[a], (T) items[b]);
+                    pairs++;
+                }
+            }
+        }
+        stats.recordPairs(pairs, tests, System.nanoTime() - start);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getItem(int proxyId) {
+        return (T) items[proxyId];
+    }
+
+    @Override
+    public int getProxyCount() {
+        return proxyCount;
+    }
+
+    @Override
+    public void clear() {
+        root = NULL;
+        proxyCount = 0;
+        Arrays.fill(items, null);
+        freeList = NULL;
+        for (int i = capacity - 1; i >= 0; i--) {
+            height[i] = -1;
+            parent[i] = freeList;
+            freeList = i;
+        }
+        stats.setProxyCount(0);
+    }
+
+    @Override
+    public BroadphaseStats getStats() {
+        return stats;
+    }
+
+    @Override
+    public BroadphaseType getType() {
+        return BroadphaseType.AABB_TREE;
+    }
+
+    public int getHeight() {
+        return root == NULL ? 0 : height[root];
+    }
+
+    // ---- 树结构维护 ----
+
+    private void insertLeaf(int leaf) {
+        if (root == NULL) {
+            root = leaf;
+            parent[leaf] = NULL;
+            return;
+        }
+
+        // 按周长代价向下寻找最佳兄弟节点
+        int index = root;
+        while (height[index] != 0) {
+            int c1 = child1[index];
+            int c2 = child2[index];
+            float area = perimeter(fMinX[index], fMinY[index], fMaxX[index], fMaxY[index]);
+            float combinedArea = unionPerimeter(index, leaf);
+            float cost = 2.0f * combinedArea;
+            float inheritanceCost = 2.0f * (combinedArea - area);
+            float cost1 = descendCost(c1, leaf) + inheritanceCost;
+            float cost2 = descendCost(c2, leaf) + inheritanceCost;
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            index = cost1 < cost2 ? c1 : c2;
+        }
+
+        int sibling = index;
+        int oldParent = parent[sibling];
+        int newParent = allocateNode();
+        parent[newParent] = oldParent;
+        items[newParent] = null;
+        mask[newParent] = 0;
+        category[newParent] = 0;
+        setUnion(newParent, leaf, sibling);
+        height[newParent] = height[sibling] + 1;
+
+        if (oldParent != NULL) {
+            if (child1[oldParent] == sibling) {
+                child1[oldParent] = newParent;
+            } else {
+                child2[oldParent] = newParent;
+            }
+        } else {
+            root = newParent;
+        }
+        child1[newParent] = sibling;
+        child2[newParent] = leaf;
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+
+        refit(parent[leaf]);
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL;
+            return;
+        }
+        int p = parent[leaf];
+        int grandParent = parent[p];
+        int sibling = child1[p] == leaf ? child2[p] : child1[p];
+
+        if (grandParent != NULL) {
+            if (child1[grandParent] == p) {
+                child1[grandParent] = sibling;
+            } else {
+                child2[grandParent] = sibling;
+            }
+            parent[sibling] = grandParent;
+            freeNode(p);
+            refit(grandParent);
+        } else {
+            root = sibling;
+            parent[sibling] = NULL;
+            freeNode(p);
+        }
+    }
+
+    // 自下而上重新平衡并更新包围盒与高度
+    private void refit(int index) {
+        while (index != NULL) {
+            index = balance(index);
+            int c1 = child1[index];
+            int c2 = child2[index];
+            height[index] = 1 + Math.max(height[c1], height[c2]);
+            setUnion(index, c1, c2);
+            index = parent[index];
+        }
+    }
+
+    private int balance(int iA) {
+        if (height[iA] < 2) {
+            return iA;
+        }
+        int iB = child1[iA];
+        int iC = child2[iA];
+        int bal = height[iC] - height[iB];
+
+        if (bal > 1) {
+            // 把 C 旋转上来
+            int iF = child1[iC];
+            int iG = child2[iC];
+            child1[iC] = iA;
+            parent[iC] = parent[iA];
+            parent[iA] = iC;
+            replaceChild(parent[iC], iA, iC);
+            if (height[iF] > height[iG]) {
+                child2[iC] = iF;
+                child2[iA] = iG;
+                parent[iG] = iA;
+                setUnion(iA, iB, iG);
+                setUnion(iC, iA, iF);
+                height[iA] = 1 + Math.max(height[iB], height[iG]);
+                height[iC] = 1 + Math.max(height[iA], height[iF]);
+            } else {
+                child2[iC] = iG;
+                child2[iA] = iF;
+                parent[iF] = iA;
+                setUnion(iA, iB, iF);
+                setUnion(iC, iA, iG);
+                height[iA] = 1 + Math.max(height[iB], height[iF]);
+                height[iC] = 1 + Math.max(height[iA], height[iG]);
+            }
+            return iC;
+        }
+
+        if (bal < -1) {
+            // 把 B 旋转上来
+            int iD = child1[iB];
+            int iE = child2[iB];
+            child1[iB] = iA;
+            parent[iB] = parent[iA];
+            parent[iA] = iB;
+            replaceChild(parent[iB], iA, iB);
+            if (height[iD] > height[iE]) {
+                child2[iB] = iD;
+                child1[iA] = iE;
+                parent[iE] = iA;
+                setUnion(iA, iC, iE);
+                setUnion(iB, iA, iD);
+                height[iA] = 1 + Math.max(height[iC], height[iE]);
+                height[iB] = 1 + Math.max(height[iA], height[iD]);
+            } else {
+                child2[iB] = iE;
+                child1[iA] = iD;
+                parent[iD] = iA;
+                setUnion(iA, iC, iD);
+                setUnion(iB, iA, iE);
+                height[iA] = 1 + Math.max(height[iC], height[iD]);
+                height[iB] = 1 + Math.max(height[iA], height[iE]);
+            }
+            return iB;
+        }
+        return iA;
+    }
+
+    private void replaceChild(int p, int oldChild, int newChild) {
+        if (p == NULL) {
+            root = newChild;
+        } else if (child1[p] == oldChild) {
+            child1[p] = newChild;
+        } else {
+            child2[p] = newChild;
+        }
+    }
+
+    private float descendCost(int child, int leaf) {
+        float combined = unionPerimeter(child, leaf);
+        if (height[child] == 0) {
+            return combined;
+        }
+        return combined - perimeter(fMinX[child], fMinY[child], fMaxX[child], fMaxY[child]);
+    }
+
+    private float unionPerimeter(int a, int b) {
+        return perimeter(Math.min(fMinX[a], fMinX[b]), Math.min(fMinY[a], fMinY[b]),
+                Math.max(fMaxX[a], fMaxX[b]), Math.max(fMaxY[a], fMaxY[b]));
+    }
+
+    private static float perimeter(float minX, float minY, float maxX, float maxY) {
+        return 2.0f * ((maxX - minX) + (maxY - minY));
+    }
+
+    private void setUnion(int target, int a, int b) {
+        setFat(target,
+                Math.min(fMinX[a], fMinX[b]), Math.min(fMinY[a], fMinY[b]),
+                Math.max(fMaxX[a], fMaxX[b]), Math.max(fMaxY[a], fMaxY[b]));
+    }
+
+    private void setFat(int node, float minX, float minY, float maxX, float maxY) {
+        fMinX[node] = minX;
+        fMinY[node] = minY;
+        fMaxX[node] = maxX;
+        fMaxY[node] = maxY;
+    }
+
+    private void setTight(int node, float minX, float minY, float maxX, float maxY) {
+        tMinX[node] = minX;
+        tMinY[node] = minY;
+        tMaxX[node] = maxX;
+        tMaxY[node] = maxY;
+    }
+
+    private int push(int top, int node) {
+        if (top == stack.length) {
+            stack = Arrays.copyOf(stack, stack.length * 2);
+        }
+        stack[top] = node;
+        return top + 1;
+    }
+
+    private int allocateNode() {
+        if (freeList == NULL) {
+            grow(capacity * 2);
+        }
+        int node = freeList;
+        freeList = parent[node];
+        parent[node] = NULL;
+        child1[node] = NULL;
+        child2[node] = NULL;
+        height[node] = 0;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        items[node] = null;
+        mask[node] = 0;
+        height[node] = -1;
+        parent[node] = freeList;
+        freeList = node;
+    }
+
+    private void grow(int newCapacity) {
+        int old = capacity;
+        fMinX = Arrays.copyOf(fMinX == null ? new float[0] : fMinX, newCapacity);
+        fMinY = Arrays.copyOf(fMinY == null ? new float[0] : fMinY, newCapacity);
+        fMaxX = Arrays.copyOf(fMaxX == null ? new float[0] : fMaxX, newCapacity);
+        fMaxY = Arrays.copyOf(fMaxY == null ? new float[0] : fMaxY, newCapacity);
+        tMinX = Arrays.copyOf(tMinX == null ? new float[0] : tMinX, newCapacity);
+        tMinY = Arrays.copyOf(tMinY == null ? new float[0] : tMinY, newCapacity);
+        tMaxX = Arrays.copyOf(tMaxX == null ? new float[0] : tMaxX, newCapacity);
+        tMaxY = Arrays.copyOf(tMaxY == null ? new float[0] : tMaxY, newCapacity);
+        parent = Arrays.copyOf(parent == null ? new int[0] : parent, newCapacity);
+        child1 = Arrays.copyOf(child1 == null ? new int[0] : child1, newCapacity);
+        child2 = Arrays.copyOf(child2 == null ? new int[0] : child2, newCapacity);
+        height = Arrays.copyOf(height == null ? new int[0] : height, newCapacity);
+        items = Arrays.copyOf(items == null ? new Object[0] : items, newCapacity);
+        category = Arrays.copyOf(category == null ? new int[0] : category, newCapacity);
+        mask = Arrays.copyOf(mask == null ? new int[0] : mask, newCapacity);
+        // 新节点串入空闲链表
+        for (int i = newCapacity - 1; i >= old; i--) {
+            height[i] = -1;
+            parent[i] = freeList;
+            freeList = i;
+        }
+        capacity = newCapacity;
+    }
+}
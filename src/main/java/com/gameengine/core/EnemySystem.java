@@ -3,7 +3,6 @@ package com.gameengine.core;
 import com.gameengine.components.EnemyComponent;
 import com.gameengine.components.PhysicsComponent;
 import com.gameengine.components.TransformComponent;
-import com.gameengine.math.Vector2;
 
 import java.util.List;
 
@@ -14,26 +13,26 @@ public class EnemySystem {
             return;
         }
 
-        TransformComponent playerTransform = player.getComponent(TransformComponent.class);
+        TransformComponent playerTransform = player.getComponent(TransformComponent.TYPE);
         if (playerTransform == null) {
             return;
         }
 
         for (GameObject go : gameObjects) {
-            if (go.hasComponent(EnemyComponent.class)) {
-                EnemyComponent enemy = go.getComponent(EnemyComponent.class);
-                TransformComponent transform = go.getComponent(TransformComponent.class);
-                PhysicsComponent physics = go.getComponent(PhysicsComponent.class);
+            if (go.hasComponent(EnemyComponent.TYPE)) {
+                EnemyComponent enemy = go.getComponent(EnemyComponent.TYPE);
+                TransformComponent transform = go.getComponent(TransformComponent.TYPE);
+                PhysicsComponent physics = go.getComponent(PhysicsComponent.TYPE);
 
                 if (transform != null && physics != null) {
-                    float dx = playerTransform.getPosition().x - transform.getPosition().x;
-                    float dy = playerTransform.getPosition().y - transform.getPosition().y;
+                    float dx = playerTransform.getX() - transform.getX();
+                    float dy = playerTransform.getY() - transform.getY();
 
                     float distance = (float) Math.sqrt(dx * dx + dy * dy);
                     if (distance > 0) {
                         float vx = (dx / distance) * enemy.getSpeed();
                         float vy = (dy / distance) * enemy.getSpeed();
-                        physics.setVelocity(new Vector2(vx, vy));
+                        physics.setVelocity(vx, vy);
                     }
                 }
             }
@@ -0,0 +1,142 @@
+package com.gameengine.core;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 帧节奏控制：每帧结束时调用 {@link #waitForNextFrame(float)}，按模式等待到下一帧。
+ * <ul>
+ *     <li>PARK：按绝对截止时间 parkNanos 休眠，最后一小段自旋，抖动通常在几十微秒以内</li>
+ *     <li>VSYNC：不主动等待，由渲染器的交换间隔（glfwSwapInterval(1)）阻塞</li>
+ *     <li>UNCAPPED：不等待，用于基准测试</li>
+ * </ul>
+ * 目标帧率每帧重新读取，可随时修改。节奏误差为实际帧间隔与目标间隔之差的绝对值。
+ */
+public class FramePacer {
+    public enum Mode {
+        PARK,
+        VSYNC,
+        UNCAPPED
+    }
+
+    private static final long DEFAULT_SPIN_NANOS = 500_000L;
+
+    private Mode mode;
+    private long spinNanos;
+    private long nextDeadline;
+    private long lastFrameStart;
+
+    // 统计
+    private long frames;
+    private long lastIntervalNanos;
+    private long lastErrorNanos;
+    private long maxErrorNanos;
+    private double averageErrorNanos;
+
+    public FramePacer(Mode mode) {
+        this.mode = mode;
+        this.spinNanos = DEFAULT_SPIN_NANOS;
+    }
+
+    /** 开始计时（主循环开始或切换模式时调用）。 */
+    public void reset() {
+        long now = System.nanoTime();
+        nextDeadline = now;
+        lastFrameStart = now;
+    }
+
+    /**
+     * 等待到下一帧开始，返回新帧开始的时间戳。targetFPS 不大于 0 时不限帧率。
+     */
+    public long waitForNextFrame(float targetFPS) {
+        long period = targetFPS > 0 ? (long) (1_000_000_000.0 / targetFPS) : 0L;
+        if (mode == Mode.PARK && period > 0) {
+            nextDeadline += period;
+            long now = System.nanoTime();
+            // 落后超过一帧时不再追赶，从当前时刻重新对齐
+            if (now - nextDeadline > period) {
+                nextDeadline = now;
+            }
+            waitUntil(nextDeadline);
+        }
+
+        long frameStart = System.nanoTime();
+        lastIntervalNanos = frameStart - lastFrameStart;
+        lastFrameStart = frameStart;
+        if (mode != Mode.UNCAPPED && period > 0) {
+            recordError(Math.abs(lastIntervalNanos - period));
+        }
+        return frameStart;
+    }
+
+    private void waitUntil(long deadline) {
+        while (true) {
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                return;
+            }
+            if (remaining > spinNanos) {
+                LockSupport.parkNanos(remaining - spinNanos);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+
+    private void recordError(long error) {
+        lastErrorNanos = error;
+        if (error > maxErrorNanos) {
+            maxErrorNanos = error;
+        }
+        frames++;
+        // 指数滑动平均，约等于最近 64 帧
+        averageErrorNanos = frames == 1 ? error : averageErrorNanos + (error - averageErrorNanos) / 64.0;
+    }
+
+    public void resetStats() {
+        frames = 0;
+        lastErrorNanos = 0;
+        maxErrorNanos = 0;
+        averageErrorNanos = 0;
+    }
+
+    public Mode getMode() {
+        return mode;
+    }
+
+    public void setMode(Mode mode) {
+        this.mode = mode;
+        reset();
+        resetStats();
+    }
+
+    /** PARK 模式下截止时间前改为自旋的时长，越大越准但越耗 CPU。 */
+    public void setSpinNanos(long spinNanos) {
+        this.spinNanos = Math.max(0L, spinNanos);
+    }
+
+    public long getSpinNanos() {
+        return spinNanos;
+    }
+
+    public long getLastIntervalNanos() {
+        return lastIntervalNanos;
+    }
+
+    public long getLastErrorNanos() {
+        return lastErrorNanos;
+    }
+
+    public long getMaxErrorNanos() {
+        return maxErrorNanos;
+    }
+
+    public double getAverageErrorNanos() {
+        return averageErrorNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("mode=%s interval=%.3fms error(last/avg/max)=%.3f/%.3f/%.3fms",
+                mode, lastIntervalNanos / 1e6, lastErrorNanos / 1e6, averageErrorNanos / 1e6, maxErrorNanos / 1e6);
+    }
+}
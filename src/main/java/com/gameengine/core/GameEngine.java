@@ -1,10 +1,13 @@
 package com.gameengine.core;
 
+import com.gameengine.components.TransformComponent;
 import com.gameengine.graphics.IRenderer;
 import com.gameengine.graphics.RenderBackend;
 import com.gameengine.graphics.RendererFactory;
+import com.gameengine.graphics.SnapshotRenderer;
 import com.gameengine.input.InputManager;
 import com.gameengine.recording.RecordingService;
+import com.gameengine.scene.Camera;
 import com.gameengine.scene.Scene;
 
 
@@ -21,6 +24,28 @@ public class GameEngine {
     private String title;
     // 新录制服务（可选）
     private com.gameengine.recording.RecordingService recordingService;
+    // 碰撞粗筛策略，供场景逻辑创建 Broadphase 时读取
+    private BroadphaseType broadphaseType;
+    // 固定步长模拟：开启后每帧按 tickRate 推进若干个等长模拟步，渲染时按 interpolationAlpha 插值
+    private boolean fixedTimestep;
+    private float tickRate;
+    private int maxCatchUpSteps;
+    private float accumulator;
+    private float interpolationAlpha;
+    private long droppedSteps;
+    private FramePacer framePacer;
+    // 静态场景空闲时单次阻塞等待的上限（秒）
+    private static final double IDLE_WAIT_TIMEOUT = 0.5;
+    // 非空时渲染在独立线程上进行，renderer 即为该快照前端
+    private SnapshotRenderer snapshotRenderer;
+    private boolean renderThreadEnabled;
+    private boolean commandBufferEnabled;
+    // 虚拟时钟：大于 0 时每帧固定前进这么多纳秒，与真实时间无关
+    private long virtualFrameNanos;
+    private long virtualTime;
+    // 运行到指定帧数后自动停止，0 表示不限
+    private long frameLimit;
+    private long frameCount;
     
     public GameEngine(int width, int height, String title) {
         this(width, height, title, RenderBackend.GPU);
@@ -34,7 +59,20 @@ public class GameEngine {
         this.targetFPS = 60.0f;
         this.deltaTime = 0.0f;
         this.lastTime = System.nanoTime();
-        
+        this.broadphaseType = BroadphaseType.fromSystemProperty();
+        this.fixedTimestep = false;
+        this.tickRate = 60.0f;
+        this.maxCatchUpSteps = 5;
+        this.accumulator = 0.0f;
+        this.interpolationAlpha = 1.0f;
+        this.framePacer = new FramePacer(FramePacer.Mode.PARK);
+        // 命令缓冲默认关闭，-Dgameengine.commandBuffer=true 开启
+        if (Boolean.getBoolean("gameengine.commandBuffer")) {
+            setCommandBufferEnabled(true);
+        }
+        if (Boolean.getBoolean("gameengine.renderThread")) {
+            setRenderThreadEnabled(true);
+        }
     }
     
     public boolean initialize() {
@@ -54,70 +92,148 @@ public class GameEngine {
             if (currentScene.getName().equals("MainMenu")) {
                 physicsSystem = null;
             } else {
-                physicsSystem = new PhysicsSystem(currentScene, renderer.getWidth(), renderer.getHeight());
+                physicsSystem = createPhysicsSystem(currentScene);
             }
             
         }
         
-        long lastFrameTime = System.nanoTime();
-        long frameTimeNanos = (long)(1_000_000_000.0 / targetFPS);
+        renderer.setVSync(framePacer.getMode() == FramePacer.Mode.VSYNC);
+        if (renderThreadEnabled) {
+            snapshotRenderer.start();
+        }
+        framePacer.reset();
+        frameCount = 0;
+        virtualTime = 0;
+        lastTime = clockNanos();
+        accumulator = 0.0f;
         
         while (running) {
-            long currentTime = System.nanoTime();
+            if (frameLimit > 0 && frameCount >= frameLimit) {
+                running = false;
+                cleanup();
+                break;
+            }
             
-            if (currentTime - lastFrameTime >= frameTimeNanos) {
-                update();
-                if (running) {
-                    render();
+            Scene frameScene = currentScene;
+            boolean idle = frameScene != null && frameScene.isStatic();
+            if (idle) {
+                long events = inputManager.getEventCount();
+                if (renderer.hasPendingWork()) {
+                    // 占位字形需要在字形就绪后重绘
+                    frameScene.invalidate();
                 }
-                lastFrameTime = currentTime;
+                if (!frameScene.isRedrawRequested()) {
+                    // 静态场景无事可做：阻塞到有输入、被唤醒或超时
+                    renderer.waitEvents(IDLE_WAIT_TIMEOUT);
+                    skipIdleTime();
+                } else {
+                    renderer.pollEvents();
+                }
+                if (inputManager.getEventCount() != events) {
+                    frameScene.invalidate();
+                }
+            } else {
+                renderer.pollEvents();
             }
             
-            renderer.pollEvents();
-            
-            if (renderer.shouldClose()) {
-                running = false;
+            // update 内检测 ESC 与窗口关闭并负责清理
+            update();
+            frameCount++;
+            if (!running) {
+                break;
             }
             
-            try {
-                Thread.sleep(1);
-            } catch (InterruptedException e) {
-                break;
+            // 静态场景没有重绘请求时不绘制也不交换缓冲，切换了场景则照常绘制
+            if (idle && currentScene == frameScene && frameScene.isStatic()
+                    && !frameScene.consumeRedrawRequest()) {
+                continue;
             }
+            render();
+            
+            // targetFPS 每帧重新读取，setTargetFPS 立即生效
+            framePacer.waitForNextFrame(targetFPS);
         }
     }
     
+    // 空闲阻塞的时长不计入模拟与帧节奏，醒来后只推进一步
+    private void skipIdleTime() {
+        float step = fixedTimestep ? 1.0f / tickRate : 1.0f / Math.max(1.0f, targetFPS);
+        long now = clockNanos();
+        // 虚拟时钟在 update 中本来就只前进一帧
+        lastTime = virtualFrameNanos > 0 ? now : now - (long) (step * 1_000_000_000L);
+        accumulator = 0.0f;
+        framePacer.reset();
+    }
+    
+    private long clockNanos() {
+        return virtualFrameNanos > 0 ? virtualTime : System.nanoTime();
+    }
+    
     private void update() {
-        long currentTime = System.nanoTime();
-        deltaTime = (currentTime - lastTime) / 1_000_000_000.0f;
+        if (virtualFrameNanos > 0) {
+            virtualTime += virtualFrameNanos;
+        }
+        long currentTime = clockNanos();
+        float frameDelta = (currentTime - lastTime) / 1_000_000_000.0f;
         lastTime = currentTime;
         
-        renderer.pollEvents();
+        // 事件已在主循环中轮询，这里不再重复调用 pollEvents
+        if (fixedTimestep) {
+            float step = 1.0f / tickRate;
+            accumulator += frameDelta;
+            int steps = 0;
+            while (accumulator >= step && steps < maxCatchUpSteps && running) {
+                savePreviousTransforms();
+                tick(step);
+                accumulator -= step;
+                steps++;
+            }
+            if (accumulator >= step) {
+                // 追赶步数用尽时丢弃积压的时间，避免越追越慢
+                droppedSteps += (long) (accumulator / step);
+                accumulator %= step;
+            }
+            interpolationAlpha = accumulator / step;
+        } else {
+            tick(frameDelta);
+            interpolationAlpha = 1.0f;
+        }
         
+        if (inputManager.isKeyPressed(27)) {
+            running = false;
+            cleanup();
+        }
         
+        if (renderer.shouldClose() && running) {
+            running = false;
+            cleanup();
+        }
+    }
+    
+    // 推进一个模拟步
+    private void tick(float dt) {
+        deltaTime = dt;
         
         if (currentScene != null) {
-            currentScene.update(deltaTime);
+            currentScene.update(dt);
         }
         
         if (physicsSystem != null) {
-            physicsSystem.update(deltaTime);
+            physicsSystem.update(dt);
         }
         
         if (recordingService != null && recordingService.isRecording()) {
-            recordingService.update(deltaTime, currentScene, inputManager);
+            recordingService.update(dt, currentScene, inputManager);
         }
         
+        // 每步清除"刚按下"状态，同一帧内的追赶步不会重复响应一次按键
         inputManager.update();
-        
-        if (inputManager.isKeyPressed(27)) {
-            running = false;
-            cleanup();
-        }
-        
-        if (renderer.shouldClose() && running) {
-            running = false;
-            cleanup();
+    }
+    
+    private void savePreviousTransforms() {
+        if (currentScene == null) return;
+        for (TransformComponent transform : currentScene.getComponents(TransformComponent.class)) {
+            transform.savePrevious();
         }
     }
     
@@ -127,6 +243,12 @@ public class GameEngine {
         renderer.beginFrame();
         
         if (currentScene != null) {
+            currentScene.setRenderer(renderer);
+            Camera camera = currentScene.getCamera();
+            if (camera != null) {
+                renderer.setWorldView(camera.getScale(), camera.getOffsetX(), camera.getOffsetY());
+            }
+            currentScene.setInterpolationAlpha(interpolationAlpha);
             currentScene.render();
         }
         
@@ -146,12 +268,28 @@ public class GameEngine {
             if (running) {
                 scene.initialize();
                 if (!scene.getName().equals("MainMenu") && !scene.getName().equals("Replay")) {
-                    physicsSystem = new PhysicsSystem(scene, renderer.getWidth(), renderer.getHeight());
+                    physicsSystem = createPhysicsSystem(scene);
                 }
             }
         }
     }
     
+    // 物理边界取场景的世界尺寸，未设置时沿用屏幕尺寸
+    private PhysicsSystem createPhysicsSystem(Scene scene) {
+        int worldWidth = scene.getWorldWidth() > 0 ? scene.getWorldWidth() : renderer.getWidth();
+        int worldHeight = scene.getWorldHeight() > 0 ? scene.getWorldHeight() : renderer.getHeight();
+        return new PhysicsSystem(scene, worldWidth, worldHeight);
+    }
+    
+    /** 请求当前场景重绘并唤醒空闲等待中的主循环，可在任意线程调用。 */
+    public void invalidate() {
+        Scene scene = currentScene;
+        if (scene != null) {
+            scene.invalidate();
+        }
+        renderer.wakeUp();
+    }
+    
     public Scene getCurrentScene() {
         return currentScene;
     }
@@ -206,6 +344,7 @@ public class GameEngine {
         return deltaTime;
     }
     
+    /** 目标帧率，运行中修改会在下一帧生效；不大于 0 表示不限帧率。 */
     public void setTargetFPS(float fps) {
         this.targetFPS = fps;
     }
@@ -214,6 +353,145 @@ public class GameEngine {
         return targetFPS;
     }
     
+    /**
+     * 开启或关闭固定步长模拟。关闭时每帧以实际帧间隔推进一次（原行为）。
+     */
+    public void setFixedTimestep(boolean enabled) {
+        this.fixedTimestep = enabled;
+        this.accumulator = 0.0f;
+        this.interpolationAlpha = 1.0f;
+    }
+    
+    public boolean isFixedTimestep() {
+        return fixedTimestep;
+    }
+    
+    /** 每秒模拟步数，仅固定步长模式使用，可以与 targetFPS 不同。 */
+    public void setTickRate(float tickRate) {
+        if (tickRate > 0) {
+            this.tickRate = tickRate;
+        }
+    }
+    
+    public float getTickRate() {
+        return tickRate;
+    }
+    
+    /** 单帧最多追赶的模拟步数，超出的积压时间会被丢弃。 */
+    public void setMaxCatchUpSteps(int maxCatchUpSteps) {
+        this.maxCatchUpSteps = Math.max(1, maxCatchUpSteps);
+    }
+    
+    public int getMaxCatchUpSteps() {
+        return maxCatchUpSteps;
+    }
+    
+    /** 当前帧在上一模拟步与当前模拟步之间的位置，范围 [0, 1)；非固定步长模式恒为 1。 */
+    public float getInterpolationAlpha() {
+        return interpolationAlpha;
+    }
+    
+    /** 因超过追赶上限而丢弃的模拟步数（累计）。 */
+    public long getDroppedSteps() {
+        return droppedSteps;
+    }
+    
+    public void setBroadphaseType(BroadphaseType type) {
+        this.broadphaseType = type != null ? type : BroadphaseType.GRID;
+    }
+    
+    public BroadphaseType getBroadphaseType() {
+        return broadphaseType;
+    }
+    
+    /**
+     * 在独立线程上渲染：模拟线程每帧把绘制命令写入快照并发布，渲染线程持有 GL 上下文回放最新快照。
+     * 组件会缓存 getRenderer() 的返回值，因此需要在创建场景之前调用。
+     * 开启后 VSYNC 只约束渲染线程，模拟线程的节奏仍由 FramePacer 控制（建议使用 PARK）。
+     */
+    public void setRenderThreadEnabled(boolean enabled) {
+        if (running) {
+            throw new IllegalStateException("渲染线程只能在引擎运行前切换");
+        }
+        renderThreadEnabled = enabled;
+        updateSnapshotRenderer();
+    }
+    
+    public boolean isRenderThreadEnabled() {
+        return renderThreadEnabled;
+    }
+    
+    /**
+     * 绘制调用先写入命令缓冲，endFrame 时按层、混合方式、纹理排序后提交，减少状态切换。
+     * 与渲染线程共用同一个 SnapshotRenderer；同样需要在创建场景之前调用。
+     * 注意排序会改变同一层内的绘制顺序：使用字形纹理的文字会排到无纹理的矩形、圆之后，
+     * 原本被后画的图形盖住的文字会浮到上面；需要固定先后时用 IRenderer.setLayer 分层。
+     */
+    public void setCommandBufferEnabled(boolean enabled) {
+        if (running) {
+            throw new IllegalStateException("命令缓冲只能在引擎运行前切换");
+        }
+        commandBufferEnabled = enabled;
+        updateSnapshotRenderer();
+    }
+    
+    public boolean isCommandBufferEnabled() {
+        return commandBufferEnabled;
+    }
+    
+    private void updateSnapshotRenderer() {
+        boolean needed = renderThreadEnabled || commandBufferEnabled;
+        if (needed && snapshotRenderer == null) {
+            snapshotRenderer = new SnapshotRenderer(renderer);
+            renderer = snapshotRenderer;
+        } else if (!needed && snapshotRenderer != null) {
+            renderer = snapshotRenderer.getTarget();
+            snapshotRenderer = null;
+        }
+    }
+    
+    /** 开启渲染线程或命令缓冲时的前端渲染器，可读取每帧命令数与批次数，否则为 null。 */
+    public SnapshotRenderer getSnapshotRenderer() {
+        return snapshotRenderer;
+    }
+    
+    /**
+     * 使用虚拟时钟：每帧模拟时间固定前进 1/fps 秒，与实际耗时无关，结果可复现。
+     * 配合 FramePacer.Mode.UNCAPPED 即可在无窗口环境下尽可能快地推进；fps 不大于 0 时恢复真实时钟。
+     */
+    public void setVirtualClock(float fps) {
+        if (running) {
+            throw new IllegalStateException("时钟只能在引擎运行前切换");
+        }
+        this.virtualFrameNanos = fps > 0 ? (long) (1_000_000_000.0 / fps) : 0L;
+    }
+    
+    public boolean isVirtualClock() {
+        return virtualFrameNanos > 0;
+    }
+    
+    /** 运行指定帧数后自动停止并清理，0 表示不限。 */
+    public void setFrameLimit(long frames) {
+        this.frameLimit = Math.max(0L, frames);
+    }
+    
+    /** 本次 run 已执行的帧数。 */
+    public long getFrameCount() {
+        return frameCount;
+    }
+    
+    public void setFramePacingMode(FramePacer.Mode mode) {
+        framePacer.setMode(mode);
+        if (running) {
+            renderer.setVSync(mode == FramePacer.Mode.VSYNC);
+        }
+    }
+    
+    /** 帧节奏控制器，可读取节奏误差统计。 */
+    public FramePacer getFramePacer() {
+        return framePacer;
+    }
+    
     public boolean isRunning() {
         return running;
     }
@@ -3,18 +3,22 @@ package com.gameengine.core;
 import com.gameengine.components.*;
 import com.gameengine.example.GameObjectFactory;
 import com.gameengine.input.InputManager;
+import com.gameengine.math.SweptCircle;
 import com.gameengine.math.Vector2;
+import com.gameengine.scene.Camera;
+import com.gameengine.scene.CullingIndex;
 import com.gameengine.scene.Scene;
 
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Random;
 import java.util.concurrent.*;
-import java.util.stream.Collectors;
 
-public class GameLogic {
+public class GameLogic implements CullingIndex {
     private Scene scene;
     private InputManager inputManager;
     private Random random;
@@ -31,6 +35,27 @@ public class GameLogic {
     private float lastShotTime = 0;
     private static final float SHOT_COOLDOWN = 0.2f;
     private static final int PLAYER_BULLET_DAMAGE = 25;
+    private static final float BULLET_HIT_RADIUS = 20.0f; // 子弹碰撞半径
+    private static final float PLAYER_HIT_RADIUS = 30.0f; // 玩家与敌人的碰撞阈值
+    private static final int CATEGORY_ENEMY = 1;
+    private static final int CATEGORY_BULLET = 1 << 1;
+
+    // 碰撞粗筛：敌人与子弹作为代理增量维护，策略由 GameEngine 配置决定
+    private Broadphase<GameObject> broadphase;
+    private final Map<GameObject, Proxy> proxies = new IdentityHashMap<>();
+    private int syncStamp = 0;
+    private boolean broadphaseSynced = false;
+    private final List<GameObject> enemyCandidates = new ArrayList<>();
+    private final Map<GameObject, GameObject> bulletTargets = new IdentityHashMap<>();
+    private final Broadphase.PairCallback<GameObject> bulletPairCallback = this::onBulletPair;
+    // 子弹按上一帧到本帧的线段做扫掠检测，避免高速或低帧率时穿过敌人
+    private boolean continuousCollision = true;
+    // 视野剔除：复用碰撞粗筛查询视野矩形，命中的代理打上本帧标记
+    private final List<GameObject> visibleQuery = new ArrayList<>();
+    private int visibleStamp = 0;
+    // getEnemies/getBullets 复用的结果列表
+    private final List<GameObject> enemyBuffer = new ArrayList<>();
+    private final List<GameObject> bulletBuffer = new ArrayList<>();
 
     private int killCount = 0;
     private final Object killCountLock = new Object(); // 用于同步killCount的锁
@@ -47,6 +72,7 @@ public class GameLogic {
         this.avoidanceExecutor = Executors.newFixedThreadPool(threadCount);
         this.physicsExecutor = Executors.newFixedThreadPool(threadCount);
         this.collidersExecutor = Executors.newFixedThreadPool(threadCount);
+        this.broadphase = BroadphaseType.fromSystemProperty().create();
     }
 
     public void cleanup() {
@@ -65,6 +91,8 @@ public class GameLogic {
 
     // 添加一个新的 update 方法来处理独立于其他逻辑的计时
     public void update(float deltaTime) {
+        broadphaseSynced = false;
+        broadphase.getStats().resetTimers();
         if (!gameOver) {
             survivalTime += deltaTime;
         }
@@ -75,6 +103,7 @@ public class GameLogic {
         // 在这里初始化工厂，因为它需要 Renderer
         if (engine != null) {
             this.gameObjectFactory = new GameObjectFactory(this.scene, engine);
+            setBroadphaseType(engine.getBroadphaseType());
         }
     }
 
@@ -83,25 +112,48 @@ public class GameLogic {
     }
 
     public GameObject getUserPlayer() {
-        for (GameObject obj : scene.getGameObjects()) {
-            if (obj.getName().equals("Player") && obj.hasComponent(PhysicsComponent.class)) {
-                return obj;
+        List<PhysicsComponent> physicsComponents = scene.getComponents(PhysicsComponent.class);
+        for (int i = 0, n = physicsComponents.size(); i < n; i++) {
+            GameObject owner = physicsComponents.get(i).getOwner();
+            if ("Player".equals(owner.getName())) {
+                return owner;
             }
         }
         return null;
     }
 
+    /**
+     * 当前存活的敌人（带 HealthComponent 的 "Enemy"）。从类型索引筛选，不复制场景对象列表；
+     * 返回的列表由 GameLogic 复用，下次调用时被覆盖，调用方不应持有或修改。
+     */
     public List<GameObject> getEnemies() {
-        return scene.getGameObjects().stream()
-                .filter(obj -> "Enemy".equals(obj.getName()) && obj.isActive())
-                .collect(Collectors.toList());
+        enemyBuffer.clear();
+        collectActive(scene.getComponents(HealthComponent.class), "Enemy", enemyBuffer);
+        return enemyBuffer;
     }
 
+    /**
+     * 当前存活的子弹（带 DamageComponent 的 "Bullet"），返回的列表同样被复用。
+     */
     public List<GameObject> getBullets() {
-        return scene.getGameObjects().stream()
-                .filter(obj -> "Bullet".equals(obj.getName()))
-                .filter(GameObject::isActive)
-                .collect(Collectors.toList());
+        bulletBuffer.clear();
+        collectActive(scene.getComponents(DamageComponent.class), "Bullet", bulletBuffer);
+        return bulletBuffer;
+    }
+
+    // 在类型索引的实时视图上按名字筛选存活对象，按下标遍历不分配迭代器；out 为 null 时只计数
+    private static int collectActive(List<? extends Component<?>> components, String name, List<GameObject> out) {
+        int count = 0;
+        for (int i = 0, n = components.size(); i < n; i++) {
+            GameObject owner = components.get(i).getOwner();
+            if (owner.isActive() && name.equals(owner.getName())) {
+                if (out != null) {
+                    out.add(owner);
+                }
+                count++;
+            }
+        }
+        return count;
     }
 
     public void handlePlayerInput(float deltaTime) {
@@ -110,8 +162,8 @@ public class GameLogic {
         GameObject player = getUserPlayer();
         if (player == null) return;
 
-        TransformComponent transform = player.getComponent(TransformComponent.class);
-        PhysicsComponent physics = player.getComponent(PhysicsComponent.class);
+        TransformComponent transform = player.getComponent(TransformComponent.TYPE);
+        PhysicsComponent physics = player.getComponent(PhysicsComponent.TYPE);
 
         if (transform == null || physics == null) return;
 
@@ -140,12 +192,12 @@ public class GameLogic {
         }
 
         Vector2 pos = transform.getPosition();
-        int screenW = gameEngine != null && gameEngine.getRenderer() != null ? gameEngine.getRenderer().getWidth() : 1920;
-        int screenH = gameEngine != null && gameEngine.getRenderer() != null ? gameEngine.getRenderer().getHeight() : 1080;
+        int worldW = getWorldWidth();
+        int worldH = getWorldHeight();
         if (pos.x < 0) pos.x = 0;
         if (pos.y < 0) pos.y = 0;
-        if (pos.x > screenW - 20) pos.x = screenW - 20;
-        if (pos.y > screenH - 20) pos.y = screenH - 20;
+        if (pos.x > worldW - 20) pos.x = worldW - 20;
+        if (pos.y > worldH - 20) pos.y = worldH - 20;
         transform.setPosition(pos);
 
         // 处理射击输入
@@ -153,6 +205,11 @@ public class GameLogic {
         if (inputManager.isMouseButtonPressed(1) && lastShotTime >= SHOT_COOLDOWN) {
             Vector2 playerPos = transform.getPosition();
             Vector2 mousePos = inputManager.getMousePosition();
+            // 鼠标位置是屏幕坐标，有相机时换算到世界坐标
+            Camera camera = scene.getCamera();
+            if (camera != null) {
+                mousePos.set(camera.screenToWorldX(mousePos.x), camera.screenToWorldY(mousePos.y));
+            }
             // 使用工厂创建子弹
             gameObjectFactory.createBullet(
                     playerPos,
@@ -213,17 +270,21 @@ public class GameLogic {
     }
 
     private void updateSinglePhysics(PhysicsComponent physics) {
-        TransformComponent transform = physics.getOwner().getComponent(TransformComponent.class);
+        TransformComponent transform = physics.getOwner().getComponent(TransformComponent.TYPE);
         if (transform != null) {
-            Vector2 pos = transform.getPosition();
+            float x = transform.getX();
+            float y = transform.getY();
             Vector2 velocity = physics.getVelocity();
 
             boolean velocityChanged = false;
             String ownerName = physics.getOwner().getName();
 
-            // 子弹飞出屏幕后销毁
+            int worldW = getWorldWidth();
+            int worldH = getWorldHeight();
+
+            // 子弹飞出世界后销毁
             if (ownerName.equals("Bullet")) {
-                if (pos.x < -10 || pos.x > 1930 || pos.y < -10 || pos.y > 1090) {
+                if (x < -10 || x > worldW + 10 || y < -10 || y > worldH + 10) {
                     physics.getOwner().setActive(false);
                     return;
                 }
@@ -235,21 +296,21 @@ public class GameLogic {
                 return;
             }
 
-            if (pos.x <= 0 || pos.x >= 1920 - 15) {
+            if (x <= 0 || x >= worldW - 15) {
                 velocity.x = -velocity.x;
                 velocityChanged = true;
             }
-            if (pos.y <= 0 || pos.y >= 1080 - 15) {
+            if (y <= 0 || y >= worldH - 15) {
                 velocity.y = -velocity.y;
                 velocityChanged = true;
             }
 
-            if (pos.x < 0) pos.x = 0;
-            if (pos.y < 0) pos.y = 0;
-            if (pos.x > 1920 - 15) pos.x = 1920 - 15;
-            if (pos.y > 1080 - 15) pos.y = 1080 - 15;
+            if (x < 0) x = 0;
+            if (y < 0) y = 0;
+            if (x > worldW - 15) x = worldW - 15;
+            if (y > worldH - 15) y = worldH - 15;
 
-            transform.setPosition(pos);
+            transform.setPosition(x, y);
 
             if (velocityChanged) {
                 physics.setVelocity(velocity);
@@ -267,8 +328,8 @@ public class GameLogic {
             return;
         }
 
-        TransformComponent playerTransform = player.getComponent(TransformComponent.class);
-        HealthComponent playerHealth = player.getComponent(HealthComponent.class);
+        TransformComponent playerTransform = player.getComponent(TransformComponent.TYPE);
+        HealthComponent playerHealth = player.getComponent(HealthComponent.TYPE);
         if (playerHealth == null) {
             return;
         }
@@ -277,39 +338,43 @@ public class GameLogic {
             return;
         }
 
-        Vector2 playerPos = playerTransform.getPosition();
-        List<GameObject> enemies = getEnemies();
+        ensureBroadphaseSynced();
+        enemyCandidates.clear();
+        // 只取玩家附近的敌人，再按平方距离精确判断
+        float px = playerTransform.getX();
+        float py = playerTransform.getY();
+        broadphase.queryAabb(px - PLAYER_HIT_RADIUS, py - PLAYER_HIT_RADIUS,
+                px + PLAYER_HIT_RADIUS, py + PLAYER_HIT_RADIUS, enemyCandidates);
 
-        for (GameObject enemy : enemies) {
-            if (!enemy.isActive()) {
+        for (GameObject enemy : enemyCandidates) {
+            if (!enemy.isActive() || !"Enemy".equals(enemy.getName())) {
                 continue;
             }
 
-            TransformComponent enemyTransform = enemy.getComponent(TransformComponent.class);
-            DamageComponent enemyDamage = enemy.getComponent(DamageComponent.class);
-
-            if (enemyTransform != null && enemyDamage != null) {
-                Vector2 enemyPos = enemyTransform.getPosition();
-                // 简单的基于距离的碰撞检测
-                float distance = playerPos.distance(enemyPos);
-                // 碰撞阈值，可根据玩家和敌人的大小调整
-                float collisionThreshold = 30.0f;
-
-                if (distance < collisionThreshold) {
-                    // 玩家受到伤害
-                    playerHealth.takeDamage(enemyDamage.getDamage());
-                    System.out.println("玩家受到攻击！当前生命值: " + playerHealth.getHealth());
-
-                    // 敌人消失
-                    enemy.setActive(false);
-
-                    // 检查玩家是否死亡
-                    if (playerHealth.isDead()) {
-                        gameOver = true;
-                        // System.out.println("游戏结束！");
-                        break; // 游戏结束，停止检测
-                    }
-                }
+            DamageComponent enemyDamage = enemy.getComponent(DamageComponent.TYPE);
+            if (enemyDamage == null) {
+                continue;
+            }
+
+            TransformComponent enemyTransform = enemy.getComponent(TransformComponent.TYPE);
+            float dx = enemyTransform.getX() - px;
+            float dy = enemyTransform.getY() - py;
+            if (dx * dx + dy * dy >= PLAYER_HIT_RADIUS * PLAYER_HIT_RADIUS) {
+                continue;
+            }
+
+            // 玩家受到伤害
+            playerHealth.takeDamage(enemyDamage.getDamage());
+            System.out.println("玩家受到攻击！当前生命值: " + playerHealth.getHealth());
+
+            // 敌人消失
+            enemy.setActive(false);
+
+            // 检查玩家是否死亡
+            if (playerHealth.isDead()) {
+                gameOver = true;
+                // System.out.println("游戏结束！");
+                break; // 游戏结束，停止检测
             }
         }
     }
@@ -322,45 +387,29 @@ public class GameLogic {
     public void checkBulletCollisionsSerial() {
         if (gameOver) return;
 
-        List<GameObject> bullets = getBullets();
-        List<GameObject> enemies = getEnemies();
-
-        for (GameObject bullet : bullets) {
-            if (!bullet.isActive()) continue;
+        if (!collectBulletTargets()) return;
 
-            TransformComponent bulletTransform = bullet.getComponent(TransformComponent.class);
-            DamageComponent bulletDamage = bullet.getComponent(DamageComponent.class);
-            if (bulletTransform == null || bulletDamage == null) continue;
+        // 按场景中的子弹顺序结算，保证结果与候选对的枚举顺序无关
+        for (DamageComponent bulletDamage : scene.getComponents(DamageComponent.class)) {
+            GameObject bullet = bulletDamage.getOwner();
+            if (!bullet.isActive() || !"Bullet".equals(bullet.getName())) continue;
 
-            Vector2 bulletPos = bulletTransform.getPosition();
+            GameObject enemy = bulletTargets.get(bullet);
+            if (enemy == null || !enemy.isActive()) continue;
 
-            for (GameObject enemy : enemies) { // 遍历敌人
-                if (!enemy.isActive()) continue;
+            HealthComponent enemyHealth = enemy.getComponent(HealthComponent.TYPE);
+            // 敌人受到伤害
+            enemyHealth.takeDamage(bulletDamage.getDamage());
+            System.out.println(enemy.getName() + " 被击中！剩余生命: " + enemyHealth.getHealth());
 
-                TransformComponent enemyTransform = enemy.getComponent(TransformComponent.class);
-                HealthComponent enemyHealth = enemy.getComponent(HealthComponent.class);
-                if (enemyTransform == null || enemyHealth == null) continue;
+            // 子弹击中后消失（一颗子弹只击中一个目标）
+            bullet.setActive(false);
 
-                // 简单的基于距离的碰撞检测
-                float distance = bulletPos.distance(enemyTransform.getPosition());
-                float collisionThreshold = 20.0f; // 碰撞半径
-
-                if (distance < collisionThreshold) {
-                    // 敌人受到伤害
-                    enemyHealth.takeDamage(bulletDamage.getDamage());
-                    System.out.println(enemy.getName() + " 被击中！剩余生命: " + enemyHealth.getHealth());
-
-                    // 子弹击中后消失
-                    bullet.setActive(false);
-
-                    // 检查敌人是否死亡
-                    if (enemyHealth.isDead()) {
-                        System.out.println(enemy.getName() + " 已被消灭。");
-                        enemy.setActive(false); // 敌人死亡后消失
-                        killCount++; // 记录击杀敌人数
-                    }
-                    break; // 一颗子弹只击中一个目标
-                }
+            // 检查敌人是否死亡
+            if (enemyHealth.isDead()) {
+                System.out.println(enemy.getName() + " 已被消灭。");
+                enemy.setActive(false); // 敌人死亡后消失
+                killCount++; // 记录击杀敌人数
             }
         }
     }
@@ -368,13 +417,10 @@ public class GameLogic {
     public void checkBulletCollisionsParallel() {
         if (gameOver) return;
 
-        List<GameObject> bullets = getBullets();
-        List<GameObject> enemies = getEnemies();
-
-        if (bullets.isEmpty() || enemies.isEmpty()) {
-            return;
-        }
+        // broadphase 不是线程安全的，候选对在当前线程收集，结算再分批并行
+        if (!collectBulletTargets()) return;
 
+        List<GameObject> bullets = new ArrayList<>(bulletTargets.keySet());
         int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
         int batchSize = Math.max(1, bullets.size() / threadCount + 1);
 
@@ -389,37 +435,22 @@ public class GameLogic {
                 for (GameObject bullet : bulletSublist) {
                     if (!bullet.isActive()) continue;
 
-                    TransformComponent bulletTransform = bullet.getComponent(TransformComponent.class);
-                    DamageComponent bulletDamage = bullet.getComponent(DamageComponent.class);
-                    if (bulletTransform == null || bulletDamage == null) continue;
-
-                    Vector2 bulletPos = bulletTransform.getPosition();
-                    float collisionThreshold = 20.0f;
+                    DamageComponent bulletDamage = bullet.getComponent(DamageComponent.TYPE);
+                    GameObject enemy = bulletTargets.get(bullet);
+                    if (bulletDamage == null || enemy == null) continue;
 
-                    for (GameObject enemy : enemies) {
-                        if (!enemy.isActive()) continue;
+                    HealthComponent enemyHealth = enemy.getComponent(HealthComponent.TYPE);
+                    synchronized (enemy) {
+                        if (enemy.isActive()) {
+                            enemyHealth.takeDamage(bulletDamage.getDamage());
+                            bullet.setActive(false);
 
-                        TransformComponent enemyTransform = enemy.getComponent(TransformComponent.class);
-                        if (enemyTransform == null) continue;
-
-                        if (bulletPos.distance(enemyTransform.getPosition()) < collisionThreshold) {
-                            HealthComponent enemyHealth = enemy.getComponent(HealthComponent.class);
-                            if (enemyHealth == null) continue;
-
-                            synchronized (enemy) {
-                                if (enemy.isActive()) {
-                                    enemyHealth.takeDamage(bulletDamage.getDamage());
-                                    bullet.setActive(false);
-
-                                    if (enemyHealth.isDead()) {
-                                        enemy.setActive(false);
-                                        synchronized (killCountLock) {
-                                            killCount++;
-                                        }
-                                    }
+                            if (enemyHealth.isDead()) {
+                                enemy.setActive(false);
+                                synchronized (killCountLock) {
+                                    killCount++;
                                 }
                             }
-                            break; // 一颗子弹只击中一个敌人
                         }
                     }
                 }
@@ -435,6 +466,170 @@ public class GameLogic {
         }
     }
 
+    /**
+     * 切换碰撞粗筛策略，已有代理会在下一次碰撞检测时重新插入。
+     */
+    public void setBroadphaseType(BroadphaseType type) {
+        if (type == null || (broadphase != null && broadphase.getType() == type)) return;
+        this.broadphase = type.create();
+        this.proxies.clear();
+        this.broadphaseSynced = false;
+    }
+
+    public BroadphaseType getBroadphaseType() {
+        return broadphase.getType();
+    }
+
+    public Broadphase<GameObject> getBroadphase() {
+        return broadphase;
+    }
+
+    @Override
+    public void markVisible(float minX, float minY, float maxX, float maxY) {
+        visibleStamp++;
+        visibleQuery.clear();
+        broadphase.queryAabb(minX, minY, maxX, maxY, visibleQuery);
+        for (int i = 0; i < visibleQuery.size(); i++) {
+            Proxy proxy = proxies.get(visibleQuery.get(i));
+            if (proxy != null) {
+                proxy.visibleStamp = visibleStamp;
+            }
+        }
+        visibleQuery.clear();
+    }
+
+    // 代理位置在每帧碰撞检测时同步，新建而尚未同步的对象返回 UNTRACKED，由 Scene 按位置判断
+    @Override
+    public int visibility(GameObject obj) {
+        Proxy proxy = proxies.get(obj);
+        if (proxy == null) {
+            return UNTRACKED;
+        }
+        return proxy.visibleStamp == visibleStamp ? VISIBLE : HIDDEN;
+    }
+
+    // 世界尺寸：优先取场景设置，其次是屏幕尺寸
+    private int getWorldWidth() {
+        if (scene.getWorldWidth() > 0) return scene.getWorldWidth();
+        return gameEngine != null && gameEngine.getRenderer() != null ? gameEngine.getRenderer().getWidth() : 1920;
+    }
+
+    private int getWorldHeight() {
+        if (scene.getWorldHeight() > 0) return scene.getWorldHeight();
+        return gameEngine != null && gameEngine.getRenderer() != null ? gameEngine.getRenderer().getHeight() : 1080;
+    }
+
+    public BroadphaseStats getBroadphaseStats() {
+        return broadphase.getStats();
+    }
+
+    public void setContinuousCollision(boolean enabled) {
+        this.continuousCollision = enabled;
+    }
+
+    public boolean isContinuousCollision() {
+        return continuousCollision;
+    }
+
+    // 每帧只同步一次：插入新对象、移动已有代理、删除失效的代理
+    private void ensureBroadphaseSynced() {
+        if (broadphaseSynced) return;
+        broadphaseSynced = true;
+        long start = System.nanoTime();
+        syncStamp++;
+
+        for (HealthComponent health : scene.getComponents(HealthComponent.class)) {
+            GameObject owner = health.getOwner();
+            if (owner.isActive() && "Enemy".equals(owner.getName())) {
+                syncProxy(owner, 0.0f, CATEGORY_ENEMY, 0, false);
+            }
+        }
+        for (DamageComponent damage : scene.getComponents(DamageComponent.class)) {
+            GameObject owner = damage.getOwner();
+            if (owner.isActive() && "Bullet".equals(owner.getName())) {
+                syncProxy(owner, BULLET_HIT_RADIUS, CATEGORY_BULLET, CATEGORY_ENEMY, continuousCollision);
+            }
+        }
+
+        Iterator<Map.Entry<GameObject, Proxy>> it = proxies.entrySet().iterator();
+        while (it.hasNext()) {
+            Proxy proxy = it.next().getValue();
+            if (proxy.stamp != syncStamp) {
+                broadphase.remove(proxy.id);
+                it.remove();
+            }
+        }
+        broadphase.getStats().addUpdateNanos(System.nanoTime() - start);
+    }
+
+    // swept 为 true 时代理包围盒覆盖上次同步位置到当前位置的整段线段
+    private void syncProxy(GameObject obj, float radius, int categoryBits, int maskBits, boolean swept) {
+        TransformComponent transform = obj.getComponent(TransformComponent.TYPE);
+        if (transform == null) return;
+        float x = transform.getX();
+        float y = transform.getY();
+        Proxy proxy = proxies.get(obj);
+        if (proxy == null) {
+            int id = broadphase.insert(obj, x - radius, y - radius, x + radius, y + radius, categoryBits, maskBits);
+            proxy = new Proxy(id);
+            proxy.prevX = x;
+            proxy.prevY = y;
+            proxies.put(obj, proxy);
+        } else {
+            proxy.prevX = swept ? proxy.x : x;
+            proxy.prevY = swept ? proxy.y : y;
+            broadphase.move(proxy.id,
+                    Math.min(proxy.prevX, x) - radius, Math.min(proxy.prevY, y) - radius,
+                    Math.max(proxy.prevX, x) + radius, Math.max(proxy.prevY, y) + radius);
+        }
+        proxy.x = x;
+        proxy.y = y;
+        proxy.stamp = syncStamp;
+    }
+
+    // 枚举子弹-敌人候选对，为每颗子弹记录最先接触的敌人；没有命中时返回 false
+    private boolean collectBulletTargets() {
+        ensureBroadphaseSynced();
+        bulletTargets.clear();
+        broadphase.findPairs(bulletPairCallback);
+        return !bulletTargets.isEmpty();
+    }
+
+    private void onBulletPair(GameObject bullet, GameObject enemy) {
+        if (!bullet.isActive() || !enemy.isActive() || enemy.getComponent(HealthComponent.TYPE) == null) return;
+        Proxy bp = proxies.get(bullet);
+        Proxy ep = proxies.get(enemy);
+        float toi = SweptCircle.timeOfImpact(bp.prevX, bp.prevY, bp.x, bp.y, ep.x, ep.y, BULLET_HIT_RADIUS);
+        if (toi < 0) return;
+        float dx = ep.x - bp.x;
+        float dy = ep.y - bp.y;
+        float distSq = dx * dx + dy * dy;
+        // 先比较接触时刻，同时接触（如起点已重叠）时取离子弹当前位置最近的敌人
+        if (!bulletTargets.containsKey(bullet) || toi < bp.targetToi
+                || (toi == bp.targetToi && distSq < bp.targetDistSq)) {
+            bulletTargets.put(bullet, enemy);
+            bp.targetToi = toi;
+            bp.targetDistSq = distSq;
+        }
+    }
+
+    // broadphase 代理及其上次同步的位置
+    private static final class Proxy {
+        final int id;
+        int stamp;
+        int visibleStamp;
+        float x;
+        float y;
+        float prevX;
+        float prevY;
+        float targetToi;
+        float targetDistSq;
+
+        Proxy(int id) {
+            this.id = id;
+        }
+    }
+
     // getter
     public int getKillCount() {
         synchronized (killCountLock) {
@@ -447,6 +642,6 @@ public class GameLogic {
     }
 
     public int getEnemyCount() {
-        return getEnemies().size();
+        return collectActive(scene.getComponents(HealthComponent.class), "Enemy", null);
     }
 }
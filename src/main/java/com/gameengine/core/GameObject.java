@@ -1,16 +1,23 @@
 package com.gameengine.core;
 
+import com.gameengine.scene.Scene;
+
 import java.util.*;
 
 public class GameObject {
     protected boolean active;
     protected String name;
     protected final List<Component<?>> components;
+    // 按组件类型 ID 下标存放的组件（含其父类型），查询只需一次数组访问
+    private Component<?>[] componentSlots;
+    // 所属场景，由 Scene 在对象正式加入/移除时维护，用于同步组件类型索引
+    private Scene scene;
     
     public GameObject() {
         this.active = true;
         this.name = "GameObject";
         this.components = new ArrayList<>();
+        this.componentSlots = new Component<?>[16];
     }
     
     public GameObject(String name) {
@@ -32,35 +39,69 @@ public class GameObject {
     public void destroy() {
         this.active = false;
         for (Component<?> component : components) {
+            if (scene != null) {
+                scene.unindexComponent(component);
+            }
             component.destroy();
         }
         components.clear();
+        Arrays.fill(componentSlots, null);
     }
     
     public <T extends Component<T>> T addComponent(T component) {
         component.setOwner(this);
         components.add(component);
+        fillSlots(component);
+        if (scene != null) {
+            scene.indexComponent(component);
+        }
         component.initialize();
         return component;
     }
     
     @SuppressWarnings("unchecked")
     public <T extends Component<T>> T getComponent(Class<T> componentType) {
-        for (Component<?> component : components) {
-            if (componentType.isInstance(component)) {
-                return (T) component;
-            }
-        }
-        return null;
+        int id = Component.typeId(componentType);
+        return id < componentSlots.length ? (T) componentSlots[id] : null;
     }
     
     public <T extends Component<T>> boolean hasComponent(Class<T> componentType) {
-        for (Component<?> component : components) {
-            if (componentType.isInstance(component)) {
-                return true;
+        return getComponent(componentType) != null;
+    }
+    
+    /** 按类型键查找：ID 已在键中，查询只是一次数组读取。 */
+    @SuppressWarnings("unchecked")
+    public <T extends Component<T>> T getComponent(ComponentType<T> componentType) {
+        int id = componentType.getId();
+        return id < componentSlots.length ? (T) componentSlots[id] : null;
+    }
+    
+    public <T extends Component<T>> boolean hasComponent(ComponentType<T> componentType) {
+        return getComponent(componentType) != null;
+    }
+    
+    // 为组件的具体类型及其各级父类型占位；同一类型已有组件时保留先添加的（与线性查找的结果一致）
+    private void fillSlots(Component<?> component) {
+        int id = component.getTypeId();
+        ensureSlotCapacity(id);
+        if (componentSlots[id] == null) {
+            componentSlots[id] = component;
+        }
+        Class<?> type = component.getClass().getSuperclass();
+        while (type != null && type != Component.class) {
+            int superId = Component.typeId(type);
+            ensureSlotCapacity(superId);
+            if (componentSlots[superId] == null) {
+                componentSlots[superId] = component;
             }
+            type = type.getSuperclass();
+        }
+    }
+    
+    private void ensureSlotCapacity(int id) {
+        if (id >= componentSlots.length) {
+            componentSlots = Arrays.copyOf(componentSlots, Math.max(id + 1, componentSlots.length * 2));
         }
-        return false;
     }
     
     public void updateComponents(float deltaTime) {
@@ -87,6 +128,18 @@ public class GameObject {
         this.active = active;
     }
     
+    public Scene getScene() {
+        return scene;
+    }
+    
+    public void setScene(Scene scene) {
+        this.scene = scene;
+    }
+    
+    public List<Component<?>> getComponentList() {
+        return Collections.unmodifiableList(components);
+    }
+    
     public String getName() {
         return name;
     }
@@ -0,0 +1,233 @@
+package com.gameengine.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 均匀哈希网格 broadphase：每个代理按 AABB 中心挂在一个单元的链表上，
+ * insert/move/remove 时增量维护（move 只在跨单元时重新挂链），findPairs 与 queryAabb 都直接查询网格。
+ * 查询范围向外扩展“最大半尺寸”，保证中心落在范围外的代理不会与查询框相交。适合尺寸相近、分布均匀的物体。
+ */
+public class GridBroadphase<T> extends ProxyArrayBroadphase<T> {
+    private final float invCellSize;
+
+    // 哈希槽 -> 链表头（代理 ID），-1 表示空；链表为双向，删除与跨单元移动 O(1)
+    private int[] heads;
+    private int slotMask;
+    private int[] cellXs;
+    private int[] cellYs;
+    private int[] next;
+    private int[] prev;
+
+    // 代理的最大半宽/半高：插入与移动时只增不减，findPairs 遍历时重新取精确值
+    private float maxHalfW;
+    private float maxHalfH;
+    private int[] candidates = new int[64];
+    private int candidateCount;
+
+    public GridBroadphase() {
+        this(64f);
+    }
+
+    public GridBroadphase(float cellSize) {
+        this.invCellSize = 1.0f / cellSize;
+        this.cellXs = new int[capacity];
+        this.cellYs = new int[capacity];
+        this.next = new int[capacity];
+        this.prev = new int[capacity];
+        resizeTable(capacity * 2);
+    }
+
+    @Override
+    protected void onInsert(int id) {
+        link(id);
+    }
+
+    @Override
+    public void move(int proxyId, float minX, float minY, float maxX, float maxY) {
+        super.move(proxyId, minX, minY, maxX, maxY);
+        if (!alive[proxyId]) return;
+        int cx = cellOf((minX + maxX) * 0.5f);
+        int cy = cellOf((minY + maxY) * 0.5f);
+        if (cx == cellXs[proxyId] && cy == cellYs[proxyId]) {
+            growExtents(proxyId);
+            return;
+        }
+        unlink(proxyId);
+        link(proxyId);
+    }
+
+    @Override
+    protected void onRemove(int id) {
+        unlink(id);
+    }
+
+    @Override
+    protected void onClear() {
+        Arrays.fill(heads, -1);
+        maxHalfW = 0;
+        maxHalfH = 0;
+    }
+
+    @Override
+    protected void onGrow(int newCapacity) {
+        cellXs = Arrays.copyOf(cellXs, newCapacity);
+        cellYs = Arrays.copyOf(cellYs, newCapacity);
+        next = Arrays.copyOf(next, newCapacity);
+        prev = Arrays.copyOf(prev, newCapacity);
+        resizeTable(newCapacity * 2);
+        // 槽数变化，按已记录的单元重新挂链
+        for (int i = 0; i < highWater; i++) {
+            if (alive[i]) {
+                pushFront(i, slot(cellXs[i], cellYs[i]));
+            }
+        }
+    }
+
+    @Override
+    public void queryAabb(float qMinX, float qMinY, float qMaxX, float qMaxY, List<T> out) {
+        gather(qMinX, qMinY, qMaxX, qMaxY);
+        for (int k = 0; k < candidateCount; k++) {
+            int id = candidates[k];
+            if (overlaps(id, qMinX, qMinY, qMaxX, qMaxY)) {
+                out.add(getItem(id));
+            }
+        }
+    }
+
+    @Override
+    public void findPairs(PairCallback<T> callback) {
+        long start = System.nanoTime();
+        // 收紧最大半尺寸：只增不减的估计在大物体离开后会让查询范围偏大
+        float halfW = 0;
+        float halfH = 0;
+        for (int i = 0; i < highWater; i++) {
+            if (!alive[i]) continue;
+            halfW = Math.max(halfW, (maxX[i] - minX[i]) * 0.5f);
+            halfH = Math.max(halfH, (maxY[i] - minY[i]) * 0.5f);
+        }
+        maxHalfW = halfW;
+        maxHalfH = halfH;
+
+        int pairs = 0;
+        long tests = 0;
+        for (int a = 0; a < highWater; a++) {
+            if (!alive[a] || mask[a] == 0) continue;
+            gather(minX[a], minY[a], maxX[a], maxY[a]);
+            for (int k = 0; k < candidateCount; k++) {
+                int b = candidates[k];
+                if (b == a || (mask[a] & category[b]) == 0) continue;
+                // 双方互相关注时由 ID 较小的一方报告
+                if ((mask[b] & category[a]) != 0 && b < a) continue;
+                tests++;
+                if (overlaps(b, minX[a], minY[a], maxX[a], maxY[a])) {
+                    callback.onPair(getItem(a), getItem(b));
+                    pairs++;
+                }
+            }
+        }
+        stats.recordPairs(pairs, tests, System.nanoTime() - start);
+    }
+
+    @Override
+    public BroadphaseType getType() {
+        return BroadphaseType.GRID;
+    }
+
+    // 把中心单元落在查询框扩展范围内的存活代理写入 candidates（粗筛，调用方再做 AABB 测试）
+    private void gather(float qMinX, float qMinY, float qMaxX, float qMaxY) {
+        candidateCount = 0;
+        int c0x = cellOf(qMinX - maxHalfW);
+        int c1x = cellOf(qMaxX + maxHalfW);
+        int c0y = cellOf(qMinY - maxHalfH);
+        int c1y = cellOf(qMaxY + maxHalfH);
+        long cellsX = (long) c1x - c0x + 1;
+        long cellsY = (long) c1y - c0y + 1;
+        if (cellsX > heads.length || cellsY > heads.length || cellsX * cellsY > heads.length) {
+            // 覆盖的单元比哈希槽还多（如整屏或无界的剔除查询）：改为逐槽遍历，按单元坐标范围过滤
+            for (int slot = 0; slot < heads.length; slot++) {
+                for (int i = heads[slot]; i >= 0; i = next[i]) {
+                    if (cellXs[i] >= c0x && cellXs[i] <= c1x && cellYs[i] >= c0y && cellYs[i] <= c1y) {
+                        addCandidate(i);
+                    }
+                }
+            }
+            return;
+        }
+        // 按偏移计数遍历，单元坐标靠近 int 边界时也不会溢出
+        for (int dy = 0; dy < cellsY; dy++) {
+            int cy = c0y + dy;
+            for (int dx = 0; dx < cellsX; dx++) {
+                int cx = c0x + dx;
+                for (int i = heads[slot(cx, cy)]; i >= 0; i = next[i]) {
+                    // 不同单元可能落在同一哈希槽，按单元坐标过滤，避免重复
+                    if (cellXs[i] == cx && cellYs[i] == cy) {
+                        addCandidate(i);
+                    }
+                }
+            }
+        }
+    }
+
+    private void addCandidate(int id) {
+        if (candidateCount == candidates.length) {
+            candidates = Arrays.copyOf(candidates, candidateCount * 2);
+        }
+        candidates[candidateCount++] = id;
+    }
+
+    private void link(int id) {
+        int cx = cellOf((minX[id] + maxX[id]) * 0.5f);
+        int cy = cellOf((minY[id] + maxY[id]) * 0.5f);
+        cellXs[id] = cx;
+        cellYs[id] = cy;
+        growExtents(id);
+        pushFront(id, slot(cx, cy));
+    }
+
+    private void pushFront(int id, int slot) {
+        int head = heads[slot];
+        next[id] = head;
+        prev[id] = -1;
+        if (head >= 0) {
+            prev[head] = id;
+        }
+        heads[slot] = id;
+    }
+
+    private void unlink(int id) {
+        int n = next[id];
+        int p = prev[id];
+        if (p >= 0) {
+            next[p] = n;
+        } else {
+            heads[slot(cellXs[id], cellYs[id])] = n;
+        }
+        if (n >= 0) {
+            prev[n] = p;
+        }
+    }
+
+    private void growExtents(int id) {
+        float halfW = (maxX[id] - minX[id]) * 0.5f;
+        float halfH = (maxY[id] - minY[id]) * 0.5f;
+        if (halfW > maxHalfW) maxHalfW = halfW;
+        if (halfH > maxHalfH) maxHalfH = halfH;
+    }
+
+    private int cellOf(float v) {
+        return (int) Math.floor(v * invCellSize);
+    }
+
+    private int slot(int cx, int cy) {
+        int h = cx * 0x9E3779B1 ^ cy * 0x85EBCA77;
+        return (h ^ (h >>> 16)) & slotMask;
+    }
+
+    private void resizeTable(int minSlots) {
+        int slots = Integer.highestOneBit(Math.max(16, minSlots - 1)) << 1;
+        heads = new int[slots];
+        Arrays.fill(heads, -1);
+        slotMask = slots - 1;
+    }
+}
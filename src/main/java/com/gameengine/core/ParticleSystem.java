@@ -2,6 +2,7 @@ package com.gameengine.core;
 
 import com.gameengine.graphics.IRenderer;
 import com.gameengine.math.Vector2;
+import com.gameengine.scene.Camera;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Iterator;
@@ -15,6 +16,7 @@ public class ParticleSystem {
     private float timeSinceLastSpawn;
     private Vector2 position;
     private boolean active;
+    private int lastCulledCount;
     
     private Config config;
     
@@ -39,12 +41,12 @@ public class ParticleSystem {
         }
         
         public void update(float deltaTime) {
-            position = position.add(velocity.multiply(deltaTime));
+            position.addLocal(velocity.x * deltaTime, velocity.y * deltaTime);
             life -= deltaTime;
             
             if (life > 0) {
                 a = life / maxLife;
-                velocity = velocity.multiply(0.98f);
+                velocity.scaleLocal(0.98f);
             }
         }
         
@@ -56,6 +58,14 @@ public class ParticleSystem {
             return new Vector2(position);
         }
         
+        public float getX() {
+            return position.x;
+        }
+        
+        public float getY() {
+            return position.y;
+        }
+        
         public float getSize() {
             return size;
         }
@@ -165,10 +175,14 @@ public class ParticleSystem {
     
     public void setPosition(Vector2 position) {
         if (position != null) {
-            this.position = new Vector2(position);
+            this.position.set(position);
         }
     }
     
+    public void setPosition(float x, float y) {
+        this.position.set(x, y);
+    }
+    
     public void update(float deltaTime) {
         if (active) {
             timeSinceLastSpawn += deltaTime;
@@ -212,7 +226,7 @@ public class ParticleSystem {
             g = config.g + random.nextFloat() * 0.2f;
         }
         
-        Particle particle = new Particle(new Vector2(position), velocity, life, size, r, g, b);
+        Particle particle = new Particle(position, velocity, life, size, r, g, b);
         particles.add(particle);
     }
     
@@ -221,24 +235,48 @@ public class ParticleSystem {
     }
     
     public void render() {
+        render(null);
+    }
+    
+    /**
+     * 按相机视野剔除后绘制；camera 为 null 时以屏幕矩形为视野。
+     * 先做位置判断，视野外的粒子不计算颜色。
+     */
+    public void render(Camera camera) {
         if (renderer == null) return;
         
+        float minX, minY, maxX, maxY;
+        if (camera != null) {
+            minX = camera.getViewLeft() - 50;
+            minY = camera.getViewTop() - 50;
+            maxX = camera.getViewRight() + 50;
+            maxY = camera.getViewBottom() + 50;
+        } else {
+            minX = -50;
+            minY = -50;
+            maxX = renderer.getWidth() + 50;
+            maxY = renderer.getHeight() + 50;
+        }
+        
+        int culled = 0;
         for (Particle particle : particles) {
-            Vector2 pos = particle.getPosition();
-            float size = particle.getSize();
+            float px = particle.getX();
+            float py = particle.getY();
+            if (px < minX || px > maxX || py < minY || py > maxY) {
+                culled++;
+                continue;
+            }
             
-            float r = Math.min(1.0f, Math.max(0.0f, particle.getR()));
-            float g = Math.min(1.0f, Math.max(0.0f, particle.getG()));
-            float b = Math.min(1.0f, Math.max(0.0f, particle.getB()));
             float a = Math.min(1.0f, Math.max(0.0f, particle.getA())) * config.opacityMultiplier;
-            
-            float maxW = renderer != null ? renderer.getWidth() : 1920;
-            float maxH = renderer != null ? renderer.getHeight() : 1080;
-            if (a > 0.01f && pos.x >= -50 && pos.x <= maxW + 50 && pos.y >= -50 && pos.y <= maxH + 50) {
+            if (a > 0.01f) {
+                float r = Math.min(1.0f, Math.max(0.0f, particle.getR()));
+                float g = Math.min(1.0f, Math.max(0.0f, particle.getG()));
+                float b = Math.min(1.0f, Math.max(0.0f, particle.getB()));
+                float size = particle.getSize();
                 float renderSize = Math.max(config.minRenderSize, size * a);
                 try {
                     renderer.drawRect(
-                        pos.x - renderSize * 0.5f, pos.y - renderSize * 0.5f, 
+                        px - renderSize * 0.5f, py - renderSize * 0.5f, 
                         renderSize, renderSize,
                         r, g, b, a
                     );
@@ -246,6 +284,12 @@ public class ParticleSystem {
                 }
             }
         }
+        lastCulledCount = culled;
+    }
+    
+    /** 上一次 render 中因在视野外而跳过的粒子数 */
+    public int getLastCulledCount() {
+        return lastCulledCount;
     }
     
     public void burst(int count) {
@@ -264,7 +308,7 @@ public class ParticleSystem {
             float g = config.burstGMin + random.nextFloat() * (config.burstGMax - config.burstGMin);
             float b = config.burstB;
             
-            Particle particle = new Particle(new Vector2(position), velocity, life, size, r, g, b);
+            Particle particle = new Particle(position, velocity, life, size, r, g, b);
             particles.add(particle);
         }
     }
@@ -13,24 +13,46 @@ import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 
 public class PhysicsSystem {
+    // 并行批次各自使用的临时向量，避免每个物体分配
+    private static final ThreadLocal<Vector2> GRAVITY_SCRATCH = ThreadLocal.withInitial(Vector2::new);
     private Scene scene;
     private ExecutorService physicsExecutor;
-    private int screenWidth;
-    private int screenHeight;
+    // 世界边界：物体在其中反弹，子弹飞出后销毁；可以大于屏幕
+    private int worldWidth;
+    private int worldHeight;
     
     public PhysicsSystem(Scene scene) {
         this(scene, 1920, 1080);
     }
     
-    public PhysicsSystem(Scene scene, int screenWidth, int screenHeight) {
+    public PhysicsSystem(Scene scene, int worldWidth, int worldHeight) {
         this.scene = scene;
-        this.screenWidth = screenWidth;
-        this.screenHeight = screenHeight;
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
         int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
         this.physicsExecutor = Executors.newFixedThreadPool(threadCount);
     }
     
+    public void setWorldBounds(int worldWidth, int worldHeight) {
+        this.worldWidth = worldWidth;
+        this.worldHeight = worldHeight;
+    }
+    
+    public int getWorldWidth() {
+        return worldWidth;
+    }
+    
+    public int getWorldHeight() {
+        return worldHeight;
+    }
+    
     public void update(float deltaTime) {
+        ArchetypeStore store = scene.getArchetypeStore();
+        if (store != null) {
+            updateArchetype(store.getArchetype(ArchetypeStore.TRANSFORM | ArchetypeStore.PHYSICS), deltaTime);
+            return;
+        }
+        
         List<PhysicsComponent> physicsComponents = scene.getComponents(PhysicsComponent.class);
         if (physicsComponents.isEmpty()) return;
         
@@ -66,46 +88,136 @@ public class PhysicsSystem {
         }
     }
     
+    // 列式存储路径：按行区间分批并行，直接在 float 数组上积分，不产生 Vector2
+    private void updateArchetype(Archetype bodies, float deltaTime) {
+        int count = bodies.size();
+        if (count == 0) return;
+        
+        int threadCount = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
+        int batchSize = Math.max(1024, count / threadCount + 1);
+        if (count <= batchSize) {
+            integrateRows(bodies, 0, count, deltaTime);
+            return;
+        }
+        
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < count; i += batchSize) {
+            final int start = i;
+            final int end = Math.min(i + batchSize, count);
+            futures.add(physicsExecutor.submit(() -> integrateRows(bodies, start, end, deltaTime)));
+        }
+        
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (Exception e) {
+                e.printStackTrace();
+            }
+        }
+    }
+    
+    private void integrateRows(Archetype bodies, int start, int end, float deltaTime) {
+        float[] posX = bodies.posX;
+        float[] posY = bodies.posY;
+        float[] velX = bodies.velX;
+        float[] velY = bodies.velY;
+        float[] accX = bodies.accX;
+        float[] accY = bodies.accY;
+        float[] gravX = bodies.gravX;
+        float[] gravY = bodies.gravY;
+        float[] friction = bodies.friction;
+        
+        for (int i = start; i < end; i++) {
+            if (!bodies.getPhysics(i).isEnabled()) continue;
+            float vx = (velX[i] + (accX[i] + gravX[i]) * deltaTime) * friction[i];
+            float vy = (velY[i] + (accY[i] + gravY[i]) * deltaTime) * friction[i];
+            velX[i] = vx;
+            velY[i] = vy;
+            posX[i] += vx * deltaTime;
+            posY[i] += vy * deltaTime;
+            accX[i] = 0;
+            accY[i] = 0;
+        }
+        
+        for (int i = start; i < end; i++) {
+            PhysicsComponent physics = bodies.getPhysics(i);
+            if (physics.isEnabled()) {
+                handleBoundary(bodies, i, physics.getOwner());
+            }
+        }
+    }
+    
+    private void handleBoundary(Archetype bodies, int row, GameObject owner) {
+        if (owner == null) return;
+        float posX = bodies.posX[row];
+        float posY = bodies.posY[row];
+        
+        String ownerName = owner.getName();
+        // 子弹飞出世界后销毁
+        if (ownerName.equals("Bullet")) {
+            if (posX < -10 || posX > worldWidth + 10 || posY < -10 || posY > worldHeight + 10) {
+                owner.setActive(false);
+            }
+            return; // 子弹不反弹
+        }
+        
+        // 追踪型敌人不受边界反弹影响
+        if ("Enemy".equals(ownerName)) {
+            return;
+        }
+        
+        if (posX <= 0 || posX >= worldWidth - 15) {
+            bodies.velX[row] = -bodies.velX[row];
+        }
+        if (posY <= 0 || posY >= worldHeight - 15) {
+            bodies.velY[row] = -bodies.velY[row];
+        }
+        
+        bodies.posX[row] = Math.max(0, Math.min(worldWidth - 15, posX));
+        bodies.posY[row] = Math.max(0, Math.min(worldHeight - 15, posY));
+    }
+    
     private void updatePhysics(PhysicsComponent physics, float deltaTime) {
         GameObject owner = physics.getOwner();
         if (owner == null) return;
         
-        TransformComponent transform = owner.getComponent(TransformComponent.class);
+        TransformComponent transform = owner.getComponent(TransformComponent.TYPE);
         if (transform == null) return;
         
-        Vector2 acceleration = physics.getAcceleration();
+        float ax = physics.getAccelerationX();
+        float ay = physics.getAccelerationY();
         
         if (physics.isUseGravity()) {
-            acceleration = acceleration.add(physics.getGravity());
-            physics.setAcceleration(acceleration);
+            Vector2 gravity = physics.getGravity(GRAVITY_SCRATCH.get());
+            ax += gravity.x;
+            ay += gravity.y;
         }
         
-        Vector2 velocity = physics.getVelocity();
-        velocity = velocity.add(acceleration.multiply(deltaTime));
-        velocity = velocity.multiply(physics.getFriction());
-        physics.setVelocity(velocity);
+        float friction = physics.getFriction();
+        float vx = (physics.getVelocityX() + ax * deltaTime) * friction;
+        float vy = (physics.getVelocityY() + ay * deltaTime) * friction;
+        physics.setVelocity(vx, vy);
         
-        Vector2 deltaPosition = velocity.multiply(deltaTime);
-        transform.translate(deltaPosition);
+        transform.translate(vx * deltaTime, vy * deltaTime);
         
-        physics.setAcceleration(new Vector2());
+        physics.setAcceleration(0, 0);
     }
     
     private void handleBoundary(PhysicsComponent physics) {
         GameObject owner = physics.getOwner();
         if (owner == null) return;
         
-        TransformComponent transform = owner.getComponent(TransformComponent.class);
+        TransformComponent transform = owner.getComponent(TransformComponent.TYPE);
         if (transform == null) return;
         
-        Vector2 pos = transform.getPosition();
-        Vector2 velocity = physics.getVelocity();
+        float posX = transform.getX();
+        float posY = transform.getY();
 
-        String ownerName = physics.getOwner().getName();
-        // 子弹飞出屏幕后销毁
+        String ownerName = owner.getName();
+        // 子弹飞出世界后销毁
         if (ownerName.equals("Bullet")) {
-            if (pos.x < -10 || pos.x > 1930 || pos.y < -10 || pos.y > 1090) {
-                physics.getOwner().setActive(false);
+            if (posX < -10 || posX > worldWidth + 10 || posY < -10 || posY > worldHeight + 10) {
+                owner.setActive(false);
                 return;
             }
             return; // 子弹不反弹
@@ -117,29 +229,27 @@ public class PhysicsSystem {
         }
         
         boolean velocityChanged = false;
-        float velX = velocity.x;
-        float velY = velocity.y;
-        float posX = pos.x;
-        float posY = pos.y;
+        float velX = physics.getVelocityX();
+        float velY = physics.getVelocityY();
         
-        if (posX <= 0 || posX >= screenWidth - 15) {
+        if (posX <= 0 || posX >= worldWidth - 15) {
             velX = -velX;
             velocityChanged = true;
         }
-        if (posY <= 0 || posY >= screenHeight - 15) {
+        if (posY <= 0 || posY >= worldHeight - 15) {
             velY = -velY;
             velocityChanged = true;
         }
         
         if (posX < 0) posX = 0;
         if (posY < 0) posY = 0;
-        if (posX > screenWidth - 15) posX = screenWidth - 15;
-        if (posY > screenHeight - 15) posY = screenHeight - 15;
+        if (posX > worldWidth - 15) posX = worldWidth - 15;
+        if (posY > worldHeight - 15) posY = worldHeight - 15;
         
-        transform.setPosition(new Vector2(posX, posY));
+        transform.setPosition(posX, posY);
         
         if (velocityChanged) {
-            physics.setVelocity(new Vector2(velX, velY));
+            physics.setVelocity(velX, velY);
         }
     }
     
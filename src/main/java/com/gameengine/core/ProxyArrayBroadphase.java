@@ -0,0 +1,165 @@
+package com.gameengine.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 以并行数组保存代理的 broadphase 公共部分（网格与扫掠剪枝共用）。
+ * 代理 ID 即数组下标，删除后的下标进入空闲链表复用。
+ */
+abstract class ProxyArrayBroadphase<T> implements Broadphase<T> {
+    protected Object[] items;
+    protected float[] minX;
+    protected float[] minY;
+    protected float[] maxX;
+    protected float[] maxY;
+    protected int[] category;
+    protected int[] mask;
+    protected boolean[] alive;
+    protected int capacity;
+    protected int highWater;
+    protected int proxyCount;
+    private int[] freeIds;
+    private int freeCount;
+    protected final BroadphaseStats stats;
+
+    protected ProxyArrayBroadphase() {
+        this.capacity = 64;
+        this.items = new Object[capacity];
+        this.minX = new float[capacity];
+        this.minY = new float[capacity];
+        this.maxX = new float[capacity];
+        this.maxY = new float[capacity];
+        this.category = new int[capacity];
+        this.mask = new int[capacity];
+        this.alive = new boolean[capacity];
+        this.freeIds = new int[capacity];
+        this.stats = new BroadphaseStats();
+    }
+
+    @Override
+    public int insert(T item, float minX, float minY, float maxX, float maxY, int categoryBits, int maskBits) {
+        int id;
+        if (freeCount > 0) {
+            id = freeIds[--freeCount];
+        } else {
+            if (highWater == capacity) {
+                grow();
+            }
+            id = highWater++;
+        }
+        items[id] = item;
+        this.minX[id] = minX;
+        this.minY[id] = minY;
+        this.maxX[id] = maxX;
+        this.maxY[id] = maxY;
+        category[id] = categoryBits;
+        mask[id] = maskBits;
+        alive[id] = true;
+        proxyCount++;
+        stats.setProxyCount(proxyCount);
+        stats.countStructuralUpdate();
+        onInsert(id);
+        return id;
+    }
+
+    @Override
+    public void move(int proxyId, float minX, float minY, float maxX, float maxY) {
+        this.minX[proxyId] = minX;
+        this.minY[proxyId] = minY;
+        this.maxX[proxyId] = maxX;
+        this.maxY[proxyId] = maxY;
+    }
+
+    @Override
+    public void remove(int proxyId) {
+        if (!alive[proxyId]) return;
+        alive[proxyId] = false;
+        items[proxyId] = null;
+        onRemove(proxyId);
+        freeIds[freeCount++] = proxyId;
+        proxyCount--;
+        stats.setProxyCount(proxyCount);
+        stats.countStructuralUpdate();
+    }
+
+    @Override
+    public void queryAabb(float qMinX, float qMinY, float qMaxX, float qMaxY, List<T> out) {
+        for (int i = 0; i < highWater; i++) {
+            if (alive[i] && overlaps(i, qMinX, qMinY, qMaxX, qMaxY)) {
+                out.add(getItem(i));
+            }
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public T getItem(int proxyId) {
+        return (T) items[proxyId];
+    }
+
+    @Override
+    public int getProxyCount() {
+        return proxyCount;
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(items, 0, highWater, null);
+        Arrays.fill(alive, 0, highWater, false);
+        highWater = 0;
+        freeCount = 0;
+        proxyCount = 0;
+        stats.setProxyCount(0);
+        onClear();
+    }
+
+    @Override
+    public BroadphaseStats getStats() {
+        return stats;
+    }
+
+    protected void onInsert(int id) {
+    }
+
+    protected void onRemove(int id) {
+    }
+
+    protected void onClear() {
+    }
+
+    protected void onGrow(int newCapacity) {
+    }
+
+    protected final boolean overlaps(int id, float qMinX, float qMinY, float qMaxX, float qMaxY) {
+        return minX[id] <= qMaxX && maxX[id] >= qMinX && minY[id] <= qMaxY && maxY[id] >= qMinY;
+    }
+
+    // 按掩码规则报告 a、b 间的候选对；双方互相关注时只报告一次
+    protected final boolean reportPair(int a, int b, PairCallback<T> callback) {
+        if ((mask[a] & category[b]) != 0) {
+            callback.onPair(getItem(a), getItem(b));
+            return true;
+        }
+        if ((mask[b] & category[a]) != 0) {
+            callback.onPair(getItem(b), getItem(a));
+            return true;
+        }
+        return false;
+    }
+
+    private void grow() {
+        int newCapacity = capacity * 2;
+        items = Arrays.copyOf(items, newCapacity);
+        minX = Arrays.copyOf(minX, newCapacity);
+        minY = Arrays.copyOf(minY, newCapacity);
+        maxX = Arrays.copyOf(maxX, newCapacity);
+        maxY = Arrays.copyOf(maxY, newCapacity);
+        category = Arrays.copyOf(category, newCapacity);
+        mask = Arrays.copyOf(mask, newCapacity);
+        alive = Arrays.copyOf(alive, newCapacity);
+        freeIds = Arrays.copyOf(freeIds, newCapacity);
+        capacity = newCapacity;
+        onGrow(newCapacity);
+    }
+}
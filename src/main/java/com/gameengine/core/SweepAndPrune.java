@@ -0,0 +1,159 @@
+package com.gameengine.core;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 扫掠剪枝（sort and sweep）：代理按 minX 保持有序，findPairs 与 queryAabb 先用插入排序修正顺序。
+ * 物体逐帧移动量小时顺序几乎不变，插入排序接近 O(n)；然后沿 X 轴扫描，只在 X 区间重叠时再比 Y。
+ * 区域查询在有序表上二分定位起点，扫到 minX 超出查询范围为止。
+ */
+public class SweepAndPrune<T> extends ProxyArrayBroadphase<T> {
+    private int[] order;
+    private int orderSize;
+    // 该 ID 是否仍在顺序表中（删除后尚未剔除的 ID 被复用时无需再次追加）
+    private boolean[] inOrder;
+    private boolean hasRemoved;
+    // 上次排序后有插入、移动或删除，顺序表可能失序
+    private boolean dirty;
+    // 排序时记录的最大 X 宽度：minX 小于 qMinX - maxWidth 的代理不可能与查询框相交
+    private float maxWidth;
+
+    public SweepAndPrune() {
+        this.order = new int[capacity];
+        this.inOrder = new boolean[capacity];
+    }
+
+    @Override
+    protected void onInsert(int id) {
+        if (inOrder[id]) return;
+        if (orderSize == order.length) {
+            order = Arrays.copyOf(order, order.length * 2);
+        }
+        order[orderSize++] = id;
+        inOrder[id] = true;
+        dirty = true;
+    }
+
+    @Override
+    public void move(int proxyId, float minX, float minY, float maxX, float maxY) {
+        super.move(proxyId, minX, minY, maxX, maxY);
+        dirty = true;
+    }
+
+    @Override
+    protected void onGrow(int newCapacity) {
+        inOrder = Arrays.copyOf(inOrder, newCapacity);
+    }
+
+    @Override
+    protected void onRemove(int id) {
+        // 延迟到下一次排序时从顺序表中剔除
+        hasRemoved = true;
+        dirty = true;
+    }
+
+    @Override
+    protected void onClear() {
+        Arrays.fill(inOrder, false);
+        orderSize = 0;
+        hasRemoved = false;
+        dirty = false;
+        maxWidth = 0;
+    }
+
+    @Override
+    public void findPairs(PairCallback<T> callback) {
+        long start = System.nanoTime();
+        ensureSorted();
+
+        int pairs = 0;
+        long tests = 0;
+        for (int i = 0; i < orderSize; i++) {
+            int a = order[i];
+            float aMaxX = maxX[a];
+            for (int j = i + 1; j < orderSize; j++) {
+                int b = order[j];
+                if (minX[b] > aMaxX) break;
+                if ((mask[a] & category[b]) == 0 && (mask[b] & category[a]) == 0) continue;
+                tests++;
+                if (minY[b] <= maxY[a] && maxY[b] >= minY[a] && reportPair(a, b, callback)) {
+                    pairs++;
+                }
+            }
+        }
+        stats.recordPairs(pairs, tests, System.nanoTime() - start);
+    }
+
+    @Override
+    public void queryAabb(float qMinX, float qMinY, float qMaxX, float qMaxY, List<T> out) {
+        ensureSorted();
+        // 第一个 minX >= qMinX - maxWidth 的位置
+        float from = qMinX - maxWidth;
+        int lo = 0;
+        int hi = orderSize;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (minX[order[mid]] < from) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        for (int i = lo; i < orderSize; i++) {
+            int id = order[i];
+            if (minX[id] > qMaxX) break;
+            if (overlaps(id, qMinX, qMinY, qMaxX, qMaxY)) {
+                out.add(getItem(id));
+            }
+        }
+    }
+
+    private void ensureSorted() {
+        if (!dirty) return;
+        if (hasRemoved) {
+            compactOrder();
+        }
+        sortByMinX();
+        dirty = false;
+    }
+
+    private void compactOrder() {
+        int write = 0;
+        for (int i = 0; i < orderSize; i++) {
+            int id = order[i];
+            if (alive[id]) {
+                order[write++] = id;
+            } else {
+                inOrder[id] = false;
+            }
+        }
+        orderSize = write;
+        hasRemoved = false;
+    }
+
+    // 插入排序：利用帧间连贯性，顺序基本不变时代价接近线性；顺带求最大 X 宽度
+    private void sortByMinX() {
+        float width = orderSize > 0 ? maxX[order[0]] - minX[order[0]] : 0;
+        for (int i = 1; i < orderSize; i++) {
+            int id = order[i];
+            float key = minX[id];
+            width = Math.max(width, maxX[id] - key);
+            int j = i - 1;
+            while (j >= 0 && minX[order[j]] > key) {
+                order[j + 1] = order[j];
+                j--;
+            }
+            if (j + 1 != i) {
+                order[j + 1] = id;
+                stats.countStructuralUpdate();
+            }
+        }
+        maxWidth = width;
+    }
+
+    @Override
+    public BroadphaseType getType() {
+        return BroadphaseType.SWEEP_AND_PRUNE;
+    }
+}
@@ -11,16 +11,19 @@ public final class EntityFactory {
 
     public static GameObject createPlayerVisual(IRenderer renderer) {
         return new GameObject("Player") {
-            private Vector2 basePosition;
+            private final Vector2 basePosition = new Vector2();
+            private boolean hasPosition;
             @Override
             public void update(float dt) {
                 super.update(dt);
-                TransformComponent tc = getComponent(TransformComponent.class);
-                if (tc != null) basePosition = tc.getPosition();
+                hasPosition = getComponent(TransformComponent.TYPE) != null;
             }
             @Override
             public void render() {
-                if (basePosition == null) return;
+                if (!hasPosition) return;
+                TransformComponent tc = getComponent(TransformComponent.TYPE);
+                float alpha = getScene() != null ? getScene().getInterpolationAlpha() : 1.0f;
+                basePosition.set(tc.getRenderX(alpha), tc.getRenderY(alpha));
                 renderer.drawRect(basePosition.x - 8, basePosition.y - 10, 16, 20, 1.0f, 0.0f, 0.0f, 1.0f);
                 renderer.drawRect(basePosition.x - 6, basePosition.y - 22, 12, 12, 1.0f, 0.5f, 0.0f, 1.0f);
                 renderer.drawRect(basePosition.x - 13, basePosition.y - 5, 6, 12, 1.0f, 0.8f, 0.0f, 1.0f);
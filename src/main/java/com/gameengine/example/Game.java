@@ -11,6 +11,9 @@ public class Game {
         try {
             System.out.println("使用渲染后端: GPU");
             engine = new GameEngine(1024, 768, "游戏引擎", RenderBackend.GPU);
+            // 以固定 60Hz 推进模拟，渲染帧率与模拟解耦
+            engine.setFixedTimestep(true);
+            engine.setTickRate(60.0f);
 
             MenuScene menuScene = new MenuScene(engine, "MainMenu");
             engine.setScene(menuScene);
@@ -92,8 +92,9 @@ public class GameObjectFactory {
         // 添加生命值组件
         enemy.addComponent(new HealthComponent(health));
 
-        // 添加血条组件
-        enemy.addComponent(new HealthBarComponent(engine.getRenderer()));
+        // 添加血条组件（满血的敌人不显示血条）
+        HealthBarComponent healthBar = enemy.addComponent(new HealthBarComponent(engine.getRenderer()));
+        healthBar.setHideWhenFull(true);
 
         // 添加新的AI追踪组件
         enemy.addComponent(new EnemyAIComponent(scene, speed));
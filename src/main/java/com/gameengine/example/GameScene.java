@@ -7,6 +7,7 @@ import com.gameengine.core.GameObject;
 import com.gameengine.core.ParticleSystem;
 import com.gameengine.graphics.IRenderer;
 import com.gameengine.math.Vector2;
+import com.gameengine.scene.Camera;
 import com.gameengine.scene.Scene;
 
 import java.awt.image.BufferedImage;
@@ -46,6 +47,8 @@ public class GameScene extends Scene {
     @Override
     public void initialize() {
         super.initialize();
+        // 子弹与敌人数量大，Transform/Physics 使用列式存储以便批量积分
+        enableArchetypeStorage();
         this.renderer = engine.getRenderer();
         this.random = new Random();
         this.time = 0;
@@ -55,6 +58,14 @@ public class GameScene extends Scene {
         this.waitInputTimer = 0f;
         this.freezeTimer = 0f;
 
+        // 相机覆盖整个屏幕，世界与屏幕同大；敌人与子弹的视野剔除复用碰撞粗筛
+        setWorldSize(renderer.getWidth(), renderer.getHeight());
+        setCamera(new Camera(renderer.getWidth(), renderer.getHeight()));
+        setCullingIndex(gameLogic);
+
+        // 背景与装饰物不会变化，放在静态层，只绘制一次进离屏缓存
+        setLayerStatic(IRenderer.LAYER_BACKGROUND, true);
+        createBackground();
         createPlayer();
         createEnemies(10);
         createDecorations();
@@ -88,7 +99,7 @@ public class GameScene extends Scene {
         if (gameLogic.isGameOver() && !wasGameOver) {
             GameObject player = gameLogic.getUserPlayer();
             if (player != null) {
-                TransformComponent transform = player.getComponent(TransformComponent.class);
+                TransformComponent transform = player.getComponent(TransformComponent.TYPE);
                 if (transform != null) {
                     ParticleSystem.Config cfg = new ParticleSystem.Config();
                     cfg.initialCount = 0;
@@ -141,10 +152,9 @@ public class GameScene extends Scene {
         if (playerParticles != null && !freeze) {
             GameObject player = gameLogic.getUserPlayer();
             if (player != null) {
-                TransformComponent transform = player.getComponent(TransformComponent.class);
+                TransformComponent transform = player.getComponent(TransformComponent.TYPE);
                 if (transform != null) {
-                    Vector2 playerPos = transform.getPosition();
-                    playerParticles.setPosition(playerPos);
+                    playerParticles.setPosition(transform.getX(), transform.getY());
                 }
             }
             playerParticles.update(deltaTime);
@@ -156,7 +166,7 @@ public class GameScene extends Scene {
                 if (enemy != null && enemy.isActive()) {
                     ParticleSystem particles = aiPlayerParticles.get(enemy);
                     if (particles == null) {
-                        TransformComponent transform = enemy.getComponent(TransformComponent.class);
+                        TransformComponent transform = enemy.getComponent(TransformComponent.TYPE);
                         if (transform != null) {
                             particles = new ParticleSystem(renderer, transform.getPosition(), ParticleSystem.Config.light());
                             particles.setActive(true);
@@ -164,9 +174,9 @@ public class GameScene extends Scene {
                         }
                     }
                     if (particles != null) {
-                        TransformComponent transform = enemy.getComponent(TransformComponent.class);
+                        TransformComponent transform = enemy.getComponent(TransformComponent.TYPE);
                         if (transform != null) {
-                            particles.setPosition(transform.getPosition());
+                            particles.setPosition(transform.getX(), transform.getY());
                         }
                         particles.update(deltaTime);
                     }
@@ -196,8 +206,6 @@ public class GameScene extends Scene {
 
     @Override
     public void render() {
-        renderer.drawRect(0, 0, renderer.getWidth(), renderer.getHeight(), 0.1f, 0.1f, 0.2f, 1.0f);
-
         super.render();
 
         renderParticles();
@@ -205,10 +213,13 @@ public class GameScene extends Scene {
         if (gameLogic.isGameOver()) {
             float cx = renderer.getWidth() / 2.0f;
             float cy = renderer.getHeight() / 2.0f;
+            // 结束遮罩盖住 HUD
+            renderer.setLayer(IRenderer.LAYER_OVERLAY);
             renderer.drawRect(0, 0, renderer.getWidth(), renderer.getHeight(), 0.0f, 0.0f, 0.0f, 0.35f);
             renderer.drawRect(cx - 200, cy - 60, 400, 120, 0.0f, 0.0f, 0.0f, 0.7f);
             renderer.drawText(cx - 100, cy - 10, "GAME OVER", 1.0f, 1.0f, 1.0f, 1.0f);
             renderer.drawText(cx - 180, cy + 30, "PRESS ANY KEY TO RETURN", 0.8f, 0.8f, 0.8f, 1.0f);
+            renderer.setLayer(IRenderer.LAYER_WORLD);
         }
     }
 
@@ -216,19 +227,19 @@ public class GameScene extends Scene {
         if (playerParticles != null) {
             int count = playerParticles.getParticleCount();
             if (count > 0) {
-                playerParticles.render();
+                playerParticles.render(getCamera());
             }
         }
 
         for (ParticleSystem ps : aiPlayerParticles.values()) {
             if (ps != null && ps.getParticleCount() > 0) {
-                ps.render();
+                ps.render(getCamera());
             }
         }
 
         for (ParticleSystem ps : collisionParticles) {
             if (ps != null && ps.getParticleCount() > 0) {
-                ps.render();
+                ps.render(getCamera());
             }
         }
     }
@@ -250,9 +261,12 @@ public class GameScene extends Scene {
             }
 
             private void updateBodyParts() {
-                TransformComponent transform = getComponent(TransformComponent.class);
+                TransformComponent transform = getComponent(TransformComponent.TYPE);
                 if (transform != null) {
-                    basePosition = transform.getPosition();
+                    if (basePosition == null) {
+                        basePosition = new Vector2();
+                    }
+                    transform.getPosition(basePosition);
                 }
             }
 
@@ -308,6 +322,20 @@ public class GameScene extends Scene {
             );
         }
     }
+    private void createBackground() {
+        GameObject background = new GameObject("Background");
+        background.addComponent(new TransformComponent(new Vector2(0, 0)));
+        RenderComponent render = background.addComponent(new RenderComponent(
+                RenderComponent.RenderType.RECTANGLE,
+                new Vector2(getWorldWidth(), getWorldHeight()),
+                new RenderComponent.Color(0.1f, 0.1f, 0.2f, 1.0f)
+        ));
+        render.setRenderer(renderer);
+        render.setLayer(IRenderer.LAYER_BACKGROUND);
+        render.setZOrder(-1);
+        addGameObject(background);
+    }
+
     private void createDecorations() {
         for (int i = 0; i < 5; i++) {
             createDecoration();
@@ -341,6 +369,7 @@ public class GameScene extends Scene {
                 new RenderComponent.Color(0.5f, 0.5f, 1.0f, 0.8f)
         ));
         render.setRenderer(renderer);
+        render.setLayer(IRenderer.LAYER_BACKGROUND);
 
         addGameObject(decoration);
     }
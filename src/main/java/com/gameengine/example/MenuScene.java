@@ -46,6 +46,11 @@ public class MenuScene extends Scene {
     
     private void loadReplayFiles() {}
     
+    @Override
+    public boolean isStatic() {
+        return true;
+    }
+    
     @Override
     public void initialize() {
         super.initialize();
@@ -64,6 +64,12 @@ public class ReplayScene extends Scene {
         }
     }
 
+    // 文件列表模式只随输入变化，回放播放时需要持续重绘
+    @Override
+    public boolean isStatic() {
+        return recordingPath == null;
+    }
+
     @Override
     public void update(float deltaTime) {
         super.update(deltaTime);
@@ -201,6 +207,8 @@ public class ReplayScene extends Scene {
 
     private void updateInterpolatedPositions(Keyframe a, Keyframe b, float u) {
         int n = Math.min(a.entities.size(), b.entities.size());
+        // 新建的对象从原点瞬移到首个位置，不做插值
+        int existing = objectList.size();
         ensureObjectCount(n);
         for (int i = 0; i < n; i++) {
             Vector2 pa = a.entities.get(i).pos;
@@ -208,8 +216,10 @@ public class ReplayScene extends Scene {
             float x = (float) ((1.0 - u) * pa.x + u * pb.x);
             float y = (float) ((1.0 - u) * pa.y + u * pb.y);
             GameObject obj = objectList.get(i);
-            TransformComponent tc = obj.getComponent(TransformComponent.class);
-            if (tc != null) tc.setPosition(new Vector2(x, y));
+            TransformComponent tc = obj.getComponent(TransformComponent.TYPE);
+            if (tc == null) continue;
+            if (i < existing) tc.setPosition(x, y);
+            else tc.teleport(x, y);
         }
     }
 
@@ -247,9 +257,9 @@ public class ReplayScene extends Scene {
             }
             obj.setName(ei.id == null ? ("Obj#" + index) : ei.id);
         }
-        TransformComponent tc = obj.getComponent(TransformComponent.class);
+        TransformComponent tc = obj.getComponent(TransformComponent.TYPE);
         if (tc == null) obj.addComponent(new TransformComponent(new Vector2(ei.pos)));
-        else tc.setPosition(new Vector2(ei.pos));
+        else tc.teleport(ei.pos);
         return obj;
     }
 
@@ -0,0 +1,8 @@
+package com.gameengine.graphics;
+
+public enum BlendMode {
+    // 常规透明混合：SRC_ALPHA, ONE_MINUS_SRC_ALPHA
+    ALPHA,
+    // 叠加发光：SRC_ALPHA, ONE
+    ADDITIVE
+}
@@ -0,0 +1,842 @@
+package com.gameengine.graphics;
+
+import com.gameengine.input.InputManager;
+import org.lwjgl.BufferUtils;
+import org.lwjgl.glfw.GLFW;
+import org.lwjgl.glfw.GLFWErrorCallback;
+import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL13;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+import org.lwjgl.opengl.GL31;
+import org.lwjgl.opengl.GL33;
+import org.lwjgl.opengl.GLCapabilities;
+import org.lwjgl.system.MemoryUtil;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.FloatBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * OpenGL 3.3 核心模式渲染器：不使用固定管线，所有图元都是同一个单位四边形的实例。
+ * 每个实例携带位置、尺寸、颜色与图元类型，矩形、SDF 圆、线段、血条和文字字形
+ * 在一次 glDrawArraysInstanced 中按提交顺序绘制；实例缓冲每次提交前孤立（orphan）重分配。
+ * 静态层可缓存到离屏纹理，之后每帧用一个纹理实例合成。
+ * 开关、绑定、混合函数与视口都经由 GLStateCache 设置，与当前状态相同的调用不进入驱动。
+ * 与固定管线渲染器一样支持动态分辨率：世界层按 GPU 帧时间缩放后画进离屏目标，进入 HUD 层前放大到窗口。
+ */
+public class CoreProfileRenderer implements IRenderer {
+    // 实例布局：rect(4) + color(4) + color2(4) + params(4)
+    private static final int INSTANCE_FLOATS = 16;
+    private static final int INSTANCE_BYTES = INSTANCE_FLOATS * 4;
+    private static final int MAX_INSTANCES = 16384;
+
+    private static final float KIND_RECT = 0;
+    private static final float KIND_CIRCLE = 1;
+    private static final float KIND_HEALTH_BAR = 2;
+    private static final float KIND_LINE = 3;
+    private static final float KIND_GLYPH = 4;
+    private static final float KIND_TEXTURE = 5;
+
+    private static final float LINE_HALF_WIDTH = 1.25f;
+    private static final boolean DEBUG_GL = Boolean.getBoolean("gameengine.glDebug");
+
+    private static final int FONT_SIZE = 32;
+
+    private static final String VERTEX_SHADER =
+        "#version 330 core\n" +
+        "layout(location = 0) in vec2 aCorner;\n" +
+        "layout(location = 1) in vec4 iRect;\n" +
+        "layout(location = 2) in vec4 iColor;\n" +
+        "layout(location = 3) in vec4 iColor2;\n" +
+        "layout(location = 4) in vec4 iParams;\n" +
+        "uniform vec2 uScreen;\n" +
+        "out vec2 vCorner;\n" +
+        "out vec2 vLocal;\n" +
+        "out vec4 vColor;\n" +
+        "out vec4 vColor2;\n" +
+        "flat out vec4 vParams;\n" +
+        "void main() {\n" +
+        "    int kind = int(iParams.x + 0.5);\n" +
+        "    vec2 pos;\n" +
+        "    vLocal = vec2(0.0);\n" +
+        "    if (kind == 1) {\n" +
+        // 圆：iRect.xy 为圆心，外扩 1 像素留给边缘抗锯齿
+        "        float extent = iParams.y + 1.0;\n" +
+        "        vLocal = (aCorner * 2.0 - 1.0) * extent;\n" +
+        "        pos = iRect.xy + vLocal;\n" +
+        "    } else if (kind == 3) {\n" +
+        // 线段：iRect 为两个端点，iParams.y 为半宽
+        "        vec2 d = iRect.zw - iRect.xy;\n" +
+        "        float len = length(d);\n" +
+        "        vec2 dir = len > 0.0001 ? d / len : vec2(1.0, 0.0);\n" +
+        "        vec2 n = vec2(-dir.y, dir.x) * iParams.y;\n" +
+        "        pos = iRect.xy + d * aCorner.x + n * (aCorner.y * 2.0 - 1.0);\n" +
+        "    } else {\n" +
+        "        pos = iRect.xy + aCorner * iRect.zw;\n" +
+        "    }\n" +
+        "    vCorner = aCorner;\n" +
+        "    vColor = iColor;\n" +
+        "    vColor2 = iColor2;\n" +
+        "    vParams = iParams;\n" +
+        "    gl_Position = vec4(pos.x / uScreen.x * 2.0 - 1.0, 1.0 - pos.y / uScreen.y * 2.0, 0.0, 1.0);\n" +
+        "}\n";
+
+    private static final String FRAGMENT_SHADER =
+        "#version 330 core\n" +
+        "in vec2 vCorner;\n" +
+        "in vec2 vLocal;\n" +
+        "in vec4 vColor;\n" +
+        "in vec4 vColor2;\n" +
+        "flat in vec4 vParams;\n" +
+        "uniform sampler2D uAtlas;\n" +
+        "out vec4 fragColor;\n" +
+        "void main() {\n" +
+        "    int kind = int(vParams.x + 0.5);\n" +
+        "    vec4 c = vColor;\n" +
+        "    if (kind == 1) {\n" +
+        "        float d = length(vLocal) - vParams.y;\n" +
+        "        c.a *= clamp(0.5 - d, 0.0, 1.0);\n" +
+        "    } else if (kind == 2) {\n" +
+        // 血条：前景区域按 over 规则叠在背景上，与两次 drawRect 的混合结果一致
+        "        if (vCorner.x <= clamp(vParams.y, 0.0, 1.0)) {\n" +
+        "            float a = vColor.a + vColor2.a * (1.0 - vColor.a);\n" +
+        "            vec3 rgb = vColor.rgb * vColor.a + vColor2.rgb * vColor2.a * (1.0 - vColor.a);\n" +
+        "            c = vec4(a > 0.0 ? rgb / a : rgb, a);\n" +
+        "        } else {\n" +
+        "            c = vColor2;\n" +
+        "        }\n" +
+        "    } else if (kind == 4) {\n" +
+        "        c.a *= texture(uAtlas, mix(vColor2.xy, vColor2.zw, vCorner)).r;\n" +
+        "    } else if (kind == 5) {\n" +
+        // 整张纹理（预乘 alpha），uAtlas 此时绑定的是离屏缓存
+        "        c = texture(uAtlas, mix(vColor2.xy, vColor2.zw, vCorner));\n" +
+        "    }\n" +
+        "    if (c.a <= 0.0) discard;\n" +
+        "    fragColor = c;\n" +
+        "}\n";
+
+    private final int width;
+    private final int height;
+    private final String title;
+    private final InputManager inputManager;
+    private long window;
+    private GLCapabilities capabilities;
+    private boolean initialized;
+
+    private int program;
+    private int screenUniform;
+    private int vao;
+    private int quadVbo;
+    private int instanceVbo;
+    private GlyphAtlas glyphAtlas;
+    private TextLayoutCache textLayouts;
+    private static final int TEXT_LAYOUT_CACHE_SIZE = 256;
+
+    private final FloatBuffer instances = BufferUtils.createFloatBuffer(MAX_INSTANCES * INSTANCE_FLOATS);
+    private int instanceCount;
+    private BlendMode blendMode = BlendMode.ALPHA;
+    private final GLStateCache state = new GLStateCache();
+    private final ViewTransform view = new ViewTransform();
+    private final Map<Integer, OffscreenTarget> layerCaches = new HashMap<>();
+    private OffscreenTarget activeLayerCache;
+    // 动态分辨率：LAYER_HUD 以下的层按缩放画进离屏目标的左下角区域，第一次画 HUD 前（或帧末）放大到窗口；
+    // uScreen 不变，只缩小视口。-Dgameengine.dynamicResolution=false 关闭
+    private static final boolean DYNAMIC_RESOLUTION =
+        !"false".equalsIgnoreCase(System.getProperty("gameengine.dynamicResolution"));
+    private static final float RESOLUTION_TARGET_MILLIS =
+        Long.getLong("gameengine.dynamicResolution.targetMicros", 14000L) / 1000f;
+    private final DynamicResolutionController resolution =
+        new DynamicResolutionController(RESOLUTION_TARGET_MILLIS, 0.5f, 1.0f);
+    private GpuFrameTimer gpuTimer;
+    private OffscreenTarget worldTarget;
+    private boolean worldOffscreen;
+    private int worldPixelWidth;
+    private int worldPixelHeight;
+    private float lastGpuFrameMillis = -1f;
+    // 帧捕获：PBO 环异步读回，后台线程编码 PNG；-Dgameengine.captureDir=<目录> 启动时开始
+    private PixelReadback readback;
+    private FrameCapture frameCapture;
+
+    private int drawCalls;
+    private int instancesDrawn;
+    private int lastDrawCalls;
+    private int lastInstancesDrawn;
+
+    /**
+     * 尝试创建核心模式渲染器；驱动不支持 3.3 核心模式时返回 null，并已释放创建过程中的窗口。
+     */
+    public static CoreProfileRenderer tryCreate(int width, int height, String title) {
+        CoreProfileRenderer renderer = new CoreProfileRenderer(width, height, title);
+        try {
+            if (renderer.createContext()) {
+                renderer.initializePipeline();
+                return renderer;
+            }
+        } catch (RuntimeException e) {
+            System.err.println("核心模式渲染器初始化失败: " + e.getMessage());
+        }
+        renderer.cleanup();
+        return null;
+    }
+
+    private CoreProfileRenderer(int width, int height, String title) {
+        this.width = width;
+        this.height = height;
+        this.title = title;
+        this.inputManager = InputManager.getInstance();
+        this.window = MemoryUtil.NULL;
+    }
+
+    private boolean createContext() {
+        System.setProperty("java.awt.headless", "true");
+        GLFWErrorCallback.createPrint(System.err).set();
+
+        if (!GLFW.glfwInit()) {
+            throw new RuntimeException("无法初始化GLFW");
+        }
+
+        GLFW.glfwDefaultWindowHints();
+        GLFW.glfwWindowHint(GLFW.GLFW_VISIBLE, GLFW.GLFW_FALSE);
+        GLFW.glfwWindowHint(GLFW.GLFW_RESIZABLE, GLFW.GLFW_FALSE);
+        GLFW.glfwWindowHint(GLFW.GLFW_CONTEXT_VERSION_MAJOR, 3);
+        GLFW.glfwWindowHint(GLFW.GLFW_CONTEXT_VERSION_MINOR, 3);
+        GLFW.glfwWindowHint(GLFW.GLFW_OPENGL_PROFILE, GLFW.GLFW_OPENGL_CORE_PROFILE);
+        GLFW.glfwWindowHint(GLFW.GLFW_OPENGL_FORWARD_COMPAT, GLFW.GLFW_TRUE);
+
+        window = GLFW.glfwCreateWindow(width, height, title, MemoryUtil.NULL, MemoryUtil.NULL);
+        if (window == MemoryUtil.NULL) {
+            return false;
+        }
+
+        GLFW.glfwMakeContextCurrent(window);
+        capabilities = GL.createCapabilities();
+        if (capabilities == null || !capabilities.OpenGL33) {
+            return false;
+        }
+
+        GlfwWindows.centerOnPrimaryMonitor(window);
+        GlfwWindows.installInputCallbacks(window, inputManager);
+        GLFW.glfwSwapInterval(1);
+        GLFW.glfwShowWindow(window);
+        return true;
+    }
+
+    private void initializePipeline() {
+        program = linkProgram(compileShader(GL20.GL_VERTEX_SHADER, VERTEX_SHADER),
+                              compileShader(GL20.GL_FRAGMENT_SHADER, FRAGMENT_SHADER));
+        GL20.glUseProgram(program);
+        screenUniform = GL20.glGetUniformLocation(program, "uScreen");
+        GL20.glUniform1i(GL20.glGetUniformLocation(program, "uAtlas"), 0);
+
+        vao = GL30.glGenVertexArrays();
+        GL30.glBindVertexArray(vao);
+
+        // 单位四边形，按 TRIANGLE_STRIP 顺序
+        FloatBuffer corners = BufferUtils.createFloatBuffer(8);
+        corners.put(new float[] {0, 0, 1, 0, 0, 1, 1, 1}).flip();
+        quadVbo = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, quadVbo);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, corners, GL15.GL_STATIC_DRAW);
+        GL20.glEnableVertexAttribArray(0);
+        GL20.glVertexAttribPointer(0, 2, GL11.GL_FLOAT, false, 8, 0);
+
+        instanceVbo = GL15.glGenBuffers();
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, instanceVbo);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, (long) MAX_INSTANCES * INSTANCE_BYTES, GL15.GL_STREAM_DRAW);
+        for (int i = 0; i < 4; i++) {
+            int location = i + 1;
+            GL20.glEnableVertexAttribArray(location);
+            GL20.glVertexAttribPointer(location, 4, GL11.GL_FLOAT, false, INSTANCE_BYTES, i * 16L);
+            GL33.glVertexAttribDivisor(location, 1);
+        }
+
+        GL13.glActiveTexture(GL13.GL_TEXTURE0);
+        glyphAtlas = new GlyphAtlas(FONT_SIZE, true);
+        glyphAtlas.create();
+        textLayouts = new TextLayoutCache(glyphAtlas, FONT_SIZE * 0.6f, 1.0f, TEXT_LAYOUT_CACHE_SIZE);
+
+        // 初始化时直接改过程序、顶点数组、缓冲与纹理绑定，状态缓存从未知开始
+        state.invalidate();
+        state.useProgram(program);
+        state.bindVertexArray(vao);
+        state.bindArrayBuffer(instanceVbo);
+        state.viewport(0, 0, width, height);
+        state.enable(GL11.GL_BLEND);
+        state.blendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        state.disable(GL11.GL_DEPTH_TEST);
+        GL20.glUniform2f(screenUniform, width, height);
+
+        // 3.3 核心模式总有计时查询与帧缓冲
+        gpuTimer = new GpuFrameTimer();
+        resolution.setEnabled(DYNAMIC_RESOLUTION);
+
+        initialized = true;
+        System.out.println("GPU渲染器初始化成功！(OpenGL 3.3 核心模式)");
+        System.out.println("OpenGL版本: " + GL11.glGetString(GL11.GL_VERSION));
+        System.out.println("渲染器: " + GL11.glGetString(GL11.GL_RENDERER));
+        startCaptureFromProperties();
+    }
+
+    private static int compileShader(int type, String source) {
+        int shader = GL20.glCreateShader(type);
+        GL20.glShaderSource(shader, source);
+        GL20.glCompileShader(shader);
+        if (GL20.glGetShaderi(shader, GL20.GL_COMPILE_STATUS) == GL11.GL_FALSE) {
+            String log = GL20.glGetShaderInfoLog(shader);
+            GL20.glDeleteShader(shader);
+            throw new RuntimeException("着色器编译失败: " + log);
+        }
+        return shader;
+    }
+
+    private static int linkProgram(int vertexShader, int fragmentShader) {
+        int program = GL20.glCreateProgram();
+        GL20.glAttachShader(program, vertexShader);
+        GL20.glAttachShader(program, fragmentShader);
+        GL20.glLinkProgram(program);
+        GL20.glDetachShader(program, vertexShader);
+        GL20.glDetachShader(program, fragmentShader);
+        GL20.glDeleteShader(vertexShader);
+        GL20.glDeleteShader(fragmentShader);
+        if (GL20.glGetProgrami(program, GL20.GL_LINK_STATUS) == GL11.GL_FALSE) {
+            String log = GL20.glGetProgramInfoLog(program);
+            GL20.glDeleteProgram(program);
+            throw new RuntimeException("着色器链接失败: " + log);
+        }
+        return program;
+    }
+
+    @Override
+    public void beginFrame() {
+        if (!initialized) return;
+
+        state.beginFrame();
+        lastDrawCalls = drawCalls;
+        lastInstancesDrawn = instancesDrawn;
+        drawCalls = 0;
+        instancesDrawn = 0;
+        instances.clear();
+        instanceCount = 0;
+        view.reset();
+
+        gpuTimer.begin();
+        beginWorldTarget();
+        state.clearColor(0.2f, 0.2f, 0.2f, 1.0f);
+        if (worldOffscreen) {
+            // 只清除本帧使用的区域
+            state.enable(GL11.GL_SCISSOR_TEST);
+            GL11.glScissor(0, 0, worldPixelWidth, worldPixelHeight);
+            GL11.glClear(GL11.GL_COLOR_BUFFER_BIT);
+            state.disable(GL11.GL_SCISSOR_TEST);
+        } else {
+            GL11.glClear(GL11.GL_COLOR_BUFFER_BIT);
+        }
+        blendMode = BlendMode.ALPHA;
+        applyBlendFunc();
+
+        // 程序、顶点数组与 uScreen 在初始化时设置，此后不变；只用 GL_TEXTURE0 一个纹理单元
+        state.useProgram(program);
+        state.bindVertexArray(vao);
+        if (glyphAtlas.uploadPending() > 0) {
+            state.invalidateTexture();
+        }
+        state.bindTexture(glyphAtlas.getTexture());
+    }
+
+    @Override
+    public void endFrame() {
+        if (!initialized) return;
+        endLayerCache();
+        compositeWorld();
+        flush();
+        gpuTimer.end();
+        if (readback != null) {
+            readback.captureFrame(width, height);
+        }
+        GLFW.glfwSwapBuffers(window);
+        updateResolution();
+    }
+
+    // 缩放小于 1 时把世界层画进离屏目标
+    private void beginWorldTarget() {
+        float scale = resolution.getScale();
+        worldOffscreen = scale < 1f;
+        if (!worldOffscreen) return;
+        if (worldTarget == null) {
+            worldTarget = createTarget();
+        }
+        worldPixelWidth = Math.max(1, Math.round(width * scale));
+        worldPixelHeight = Math.max(1, Math.round(height * scale));
+        bindTarget(worldTarget, worldPixelWidth, worldPixelHeight);
+    }
+
+    private OffscreenTarget createTarget() {
+        OffscreenTarget target = OffscreenTarget.create(width, height);
+        // 创建时直接绑定过纹理与帧缓冲
+        state.invalidateTexture();
+        state.invalidateFramebuffer();
+        return target;
+    }
+
+    private void bindTarget(OffscreenTarget target, int viewportWidth, int viewportHeight) {
+        state.bindFramebuffer(target.getFramebuffer());
+        state.viewport(0, 0, viewportWidth, viewportHeight);
+    }
+
+    private void bindWindow() {
+        state.bindFramebuffer(0);
+        state.viewport(0, 0, width, height);
+    }
+
+    // 把缩放后的世界层线性放大到窗口；之后本帧的绘制直接进入窗口
+    private void compositeWorld() {
+        if (!worldOffscreen) return;
+        worldOffscreen = false;
+
+        flush();
+        bindWindow();
+        state.disable(GL11.GL_BLEND);
+        state.bindTexture(worldTarget.getTexture());
+        float u1 = worldPixelWidth / (float) worldTarget.getWidth();
+        float v0 = worldPixelHeight / (float) worldTarget.getHeight();
+        instance(0, 0, width, height, 1f, 1f, 1f, 1f, 0f, v0, u1, 0f, KIND_TEXTURE, 0);
+        flush();
+        state.bindTexture(glyphAtlas.getTexture());
+        state.enable(GL11.GL_BLEND);
+    }
+
+    // 当前帧的绘制目标：世界层尚未合成时是离屏目标，否则是窗口
+    private void bindCurrentTarget() {
+        if (worldOffscreen) {
+            bindTarget(worldTarget, worldPixelWidth, worldPixelHeight);
+        } else {
+            bindWindow();
+        }
+    }
+
+    private void updateResolution() {
+        long nanos = gpuTimer.poll();
+        if (nanos >= 0) {
+            lastGpuFrameMillis = nanos / 1e6f;
+            resolution.update(lastGpuFrameMillis);
+        }
+    }
+
+    /**
+     * 提交累积的实例：孤立实例缓冲后整体上传，一次实例化绘制。
+     */
+    private void flush() {
+        if (instanceCount == 0) return;
+
+        instances.flip();
+        state.bindArrayBuffer(instanceVbo);
+        GL15.glBufferData(GL15.GL_ARRAY_BUFFER, (long) MAX_INSTANCES * INSTANCE_BYTES, GL15.GL_STREAM_DRAW);
+        GL15.glBufferSubData(GL15.GL_ARRAY_BUFFER, 0, instances);
+        GL31.glDrawArraysInstanced(GL11.GL_TRIANGLE_STRIP, 0, 4, instanceCount);
+
+        if (DEBUG_GL) {
+            int err = GL11.glGetError();
+            if (err != GL11.GL_NO_ERROR) {
+                System.err.println("[CoreProfileRenderer] flush GL error: 0x" + Integer.toHexString(err)
+                    + " (instances=" + instanceCount + ")");
+            }
+        }
+
+        drawCalls++;
+        instancesDrawn += instanceCount;
+        instances.clear();
+        instanceCount = 0;
+    }
+
+    private void instance(float x, float y, float z, float w,
+                          float r, float g, float b, float a,
+                          float r2, float g2, float b2, float a2,
+                          float kind, float param) {
+        if (instanceCount == MAX_INSTANCES) {
+            flush();
+        }
+        instances.put(x).put(y).put(z).put(w)
+                 .put(r).put(g).put(b).put(a)
+                 .put(r2).put(g2).put(b2).put(a2)
+                 .put(kind).put(param).put(0f).put(0f);
+        instanceCount++;
+    }
+
+    @Override
+    public void setBlendMode(BlendMode mode) {
+        if (!initialized || mode == null || mode == blendMode) return;
+        flush();
+        blendMode = mode;
+        applyBlendFunc();
+    }
+
+    private void applyBlendFunc() {
+        int dst = blendMode == BlendMode.ADDITIVE ? GL11.GL_ONE : GL11.GL_ONE_MINUS_SRC_ALPHA;
+        if (activeLayerCache != null) {
+            // 层缓存保存预乘 alpha 的颜色
+            state.blendFuncSeparate(GL11.GL_SRC_ALPHA, dst, GL11.GL_ONE, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        } else {
+            state.blendFunc(GL11.GL_SRC_ALPHA, dst);
+        }
+    }
+
+    @Override
+    public boolean supportsLayerCache() {
+        return initialized;
+    }
+
+    @Override
+    public void beginLayerCache(int layer) {
+        if (!initialized || activeLayerCache != null) return;
+        flush();
+        OffscreenTarget cache = layerCaches.get(layer);
+        if (cache == null) {
+            cache = createTarget();
+            layerCaches.put(layer, cache);
+            // 创建时改动了纹理绑定，恢复字形图集
+            state.bindTexture(glyphAtlas.getTexture());
+        }
+        bindTarget(cache, cache.getWidth(), cache.getHeight());
+        state.clearColor(0f, 0f, 0f, 0f);
+        GL11.glClear(GL11.GL_COLOR_BUFFER_BIT);
+        activeLayerCache = cache;
+        applyBlendFunc();
+    }
+
+    @Override
+    public void endLayerCache() {
+        if (activeLayerCache == null) return;
+        flush();
+        bindCurrentTarget();
+        activeLayerCache = null;
+        applyBlendFunc();
+    }
+
+    @Override
+    public void drawLayerCache(int layer) {
+        OffscreenTarget cache = layerCaches.get(layer);
+        if (!initialized || cache == null || activeLayerCache != null) return;
+        flush();
+        state.bindTexture(cache.getTexture());
+        state.blendFunc(GL11.GL_ONE, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        // 帧缓冲纹理原点在左下，纵向翻转纹理坐标
+        instance(0, 0, width, height, 1f, 1f, 1f, 1f, 0f, 1f, 1f, 0f, KIND_TEXTURE, 0);
+        flush();
+        state.bindTexture(glyphAtlas.getTexture());
+        applyBlendFunc();
+    }
+
+    @Override
+    public void setLayer(int layer) {
+        view.setLayer(layer);
+        if (layer >= LAYER_HUD && activeLayerCache == null) {
+            compositeWorld();
+        }
+    }
+
+    @Override
+    public void setWorldView(float scale, float offsetX, float offsetY) {
+        view.set(scale, offsetX, offsetY);
+    }
+
+    @Override
+    public void drawRect(float x, float y, float w, float h, float r, float g, float b, float a) {
+        if (!initialized) return;
+        if (view.isActive()) {
+            x = view.x(x);
+            y = view.y(y);
+            w = view.length(w);
+            h = view.length(h);
+        }
+        instance(x, y, w, h, r, g, b, a, 0, 0, 0, 0, KIND_RECT, 0);
+    }
+
+    @Override
+    public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
+        if (!initialized) return;
+        if (view.isActive()) {
+            x = view.x(x);
+            y = view.y(y);
+            radius = view.length(radius);
+        }
+        // segments 对 SDF 圆无意义，边缘由片元着色器按距离抗锯齿
+        instance(x, y, 0, 0, r, g, b, a, 0, 0, 0, 0, KIND_CIRCLE, radius);
+    }
+
+    @Override
+    public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
+        if (!initialized) return;
+        if (view.isActive()) {
+            x1 = view.x(x1);
+            y1 = view.y(y1);
+            x2 = view.x(x2);
+            y2 = view.y(y2);
+        }
+        instance(x1, y1, x2, y2, r, g, b, a, 0, 0, 0, 0, KIND_LINE, LINE_HALF_WIDTH);
+    }
+
+    @Override
+    public void drawHealthBar(float x, float y, float width, float height, float fraction,
+                              float r, float g, float b, float a,
+                              float bgR, float bgG, float bgB, float bgA) {
+        if (!initialized) return;
+        if (view.isActive()) {
+            x = view.x(x);
+            y = view.y(y);
+            width = view.length(width);
+            height = view.length(height);
+        }
+        instance(x, y, width, height, r, g, b, a, bgR, bgG, bgB, bgA, KIND_HEALTH_BAR, fraction);
+    }
+
+    @Override
+    public void drawHealthBars(HealthBarBatch bars) {
+        if (!initialized) return;
+        float[] d = bars.data();
+        int end = bars.size() * HealthBarBatch.STRIDE;
+        boolean transform = view.isActive();
+        for (int i = 0; i < end; i += HealthBarBatch.STRIDE) {
+            float x = d[i];
+            float y = d[i + 1];
+            float w = d[i + 2];
+            float h = d[i + 3];
+            if (transform) {
+                x = view.x(x);
+                y = view.y(y);
+                w = view.length(w);
+                h = view.length(h);
+            }
+            instance(x, y, w, h, d[i + 5], d[i + 6], d[i + 7], d[i + 8],
+                     d[i + 9], d[i + 10], d[i + 11], d[i + 12], KIND_HEALTH_BAR, d[i + 4]);
+        }
+    }
+
+    @Override
+    public void drawText(float x, float y, String text, float r, float g, float b, float a) {
+        if (!initialized || text == null || text.isEmpty()) return;
+        if (view.isActive()) {
+            x = view.x(x);
+            y = view.y(y);
+        }
+
+        TextLayoutCache.TextLayout layout = textLayouts.get(text);
+        float[] quads = layout.quads;
+        for (int q = 0; q < quads.length; q += TextLayoutCache.QUAD_FLOATS) {
+            instance(x + quads[q], y, quads[q + 1] - quads[q], FONT_SIZE, r, g, b, a,
+                     quads[q + 2], quads[q + 3], quads[q + 4], quads[q + 5], KIND_GLYPH, 0);
+        }
+    }
+
+    @Override
+    public boolean hasPendingWork() {
+        return glyphAtlas != null && glyphAtlas.getOutstanding() > 0;
+    }
+
+    /**
+     * 文字排版缓存命中次数
+     */
+    public long getTextLayoutHits() {
+        return textLayouts != null ? textLayouts.getHits() : 0;
+    }
+
+    /**
+     * 文字排版缓存未命中次数（含因占位字形而未缓存的排版）
+     */
+    public long getTextLayoutMisses() {
+        return textLayouts != null ? textLayouts.getMisses() : 0;
+    }
+
+    /**
+     * 动态分辨率控制器：当前缩放、平滑后的 GPU 帧时间、最近的判断与调整次数
+     */
+    public DynamicResolutionController getResolutionController() {
+        return resolution;
+    }
+
+    /**
+     * 当前世界层渲染缩放（按边长），1 为原生分辨率
+     */
+    public float getResolutionScale() {
+        return resolution.getScale();
+    }
+
+    /**
+     * 最近一次读到的 GPU 帧时间（毫秒），尚无结果时为 -1
+     */
+    public float getLastGpuFrameMillis() {
+        return lastGpuFrameMillis;
+    }
+
+    /**
+     * 上一帧实际下发的 GL 状态调用次数（开关、绑定、混合函数、视口）
+     */
+    public int getLastFrameStateChanges() {
+        return state.getLastFrameChanges();
+    }
+
+    /**
+     * 上一帧因与当前状态相同而被跳过的状态调用次数
+     */
+    public int getLastFrameStateChangesSkipped() {
+        return state.getLastFrameSkipped();
+    }
+
+    /**
+     * 上一帧的实例化绘制次数
+     */
+    public int getLastFrameDrawCalls() {
+        return lastDrawCalls;
+    }
+
+    /**
+     * 上一帧提交的实例数
+     */
+    public int getLastFrameInstances() {
+        return lastInstancesDrawn;
+    }
+
+    private void startCaptureFromProperties() {
+        String dir = System.getProperty("gameengine.captureDir");
+        if (dir == null || dir.isEmpty()) return;
+        try {
+            startCapture(new File(dir), Integer.getInteger("gameengine.captureEvery", 1));
+        } catch (IOException e) {
+            System.err.println("无法开始帧捕获: " + e.getMessage());
+        }
+    }
+
+    /**
+     * 开始把窗口画面捕获为 PNG 序列，每 everyNFrames 帧一张；编码跟不上时丢帧而不阻塞渲染。在渲染线程调用。
+     */
+    public boolean startCapture(File outputDir, int everyNFrames) throws IOException {
+        if (!initialized || readback != null) return false;
+        FrameCapture capture = new FrameCapture(outputDir);
+        capture.start();
+        frameCapture = capture;
+        readback = new PixelReadback(capabilities, capture, everyNFrames);
+        System.out.println("帧捕获已开始: " + outputDir.getAbsolutePath());
+        return true;
+    }
+
+    /**
+     * 停止捕获：取出尚在 GPU 上的读回，等待编码线程写完队列。在渲染线程调用。
+     */
+    public void stopCapture() {
+        if (readback == null) return;
+        readback.drain(true);
+        readback.delete();
+        readback = null;
+        frameCapture.stop();
+        System.out.println("帧捕获结束: 写入 " + frameCapture.getWrittenFrames()
+            + " 帧，丢弃 " + frameCapture.getDroppedFrames() + " 帧");
+    }
+
+    public boolean isCapturing() {
+        return readback != null;
+    }
+
+    /**
+     * 当前或最近一次捕获（写入、丢弃、排队帧数），从未捕获时为 null
+     */
+    public FrameCapture getFrameCapture() {
+        return frameCapture;
+    }
+
+    @Override
+    public void bindContext() {
+        if (!initialized) return;
+        GLFW.glfwMakeContextCurrent(window);
+        GL.setCapabilities(capabilities);
+    }
+
+    @Override
+    public void releaseContext() {
+        if (!initialized) return;
+        GLFW.glfwMakeContextCurrent(MemoryUtil.NULL);
+        GL.setCapabilities(null);
+    }
+
+    @Override
+    public void setVSync(boolean enabled) {
+        if (!initialized) return;
+        GLFW.glfwSwapInterval(enabled ? 1 : 0);
+    }
+
+    @Override
+    public boolean shouldClose() {
+        if (!initialized) return false;
+        return GLFW.glfwWindowShouldClose(window);
+    }
+
+    @Override
+    public void pollEvents() {
+        if (initialized) {
+            GLFW.glfwPollEvents();
+        }
+    }
+
+    @Override
+    public void waitEvents(double timeoutSeconds) {
+        if (initialized) {
+            GLFW.glfwWaitEventsTimeout(timeoutSeconds);
+        }
+    }
+
+    @Override
+    public void wakeUp() {
+        if (initialized) {
+            GLFW.glfwPostEmptyEvent();
+        }
+    }
+
+    @Override
+    public void cleanup() {
+        if (initialized) {
+            stopCapture();
+            glyphAtlas.cleanup();
+            for (OffscreenTarget cache : layerCaches.values()) {
+                cache.delete();
+            }
+            layerCaches.clear();
+            if (worldTarget != null) {
+                worldTarget.delete();
+                worldTarget = null;
+            }
+            gpuTimer.delete();
+            GL15.glDeleteBuffers(instanceVbo);
+            GL15.glDeleteBuffers(quadVbo);
+            GL30.glDeleteVertexArrays(vao);
+            GL20.glDeleteProgram(program);
+            initialized = false;
+        }
+        if (window != MemoryUtil.NULL) {
+            GLFW.glfwDestroyWindow(window);
+            window = MemoryUtil.NULL;
+        }
+        GLFW.glfwTerminate();
+        GLFWErrorCallback prev = GLFW.glfwSetErrorCallback(null);
+        if (prev != null) {
+            prev.free();
+        }
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+}
@@ -0,0 +1,167 @@
+package com.gameengine.graphics;
+
+/**
+ * 动态分辨率控制器：根据 GPU 帧时间调整世界层的渲染缩放（0~1，按边长计）。
+ *
+ * 帧时间先做指数平滑，再与目标比较：连续若干帧高于目标就降低缩放，连续更多帧低于目标的
+ * RAISE_THRESHOLD 倍才升高，两个阈值之间保持不变（滞回），避免在临界点来回切换。
+ * 每次调整后等待若干帧让新的测量稳定（计时查询结果有几帧延迟）。不依赖 GL，可单独测试。
+ */
+public final class DynamicResolutionController {
+    /** 最近一次 update 的判断结果 */
+    public enum Decision {
+        /** 没有 GPU 计时或已关闭，保持当前缩放 */
+        DISABLED,
+        /** 刚调整过，等待测量稳定 */
+        SETTLING,
+        /** 帧时间在滞回区间内 */
+        HOLD,
+        /** 超出目标，正在累计降低所需的帧数 */
+        OVER_BUDGET,
+        /** 明显低于目标，正在累计升高所需的帧数 */
+        UNDER_BUDGET,
+        LOWERED,
+        RAISED
+    }
+
+    private static final float SMOOTHING = 0.1f;
+    // 低于目标的这个比例才考虑升高，留出余量避免升高后立刻超标
+    private static final float RAISE_THRESHOLD = 0.75f;
+    private static final int LOWER_AFTER_FRAMES = 10;
+    private static final int RAISE_AFTER_FRAMES = 60;
+    private static final int SETTLE_FRAMES = 20;
+    private static final float RAISE_STEP = 0.05f;
+    private static final float MIN_LOWER_STEP = 0.05f;
+    private static final float MAX_LOWER_STEP = 0.25f;
+
+    private boolean enabled;
+    private float targetMillis;
+    private float minScale;
+    private float maxScale;
+    private float scale;
+
+    private float smoothedMillis = -1f;
+    private int overFrames;
+    private int underFrames;
+    private int settleFrames;
+    private Decision lastDecision = Decision.DISABLED;
+    private long lowerCount;
+    private long raiseCount;
+
+    public DynamicResolutionController(float targetMillis, float minScale, float maxScale) {
+        this.targetMillis = targetMillis;
+        this.minScale = minScale;
+        this.maxScale = maxScale;
+        this.scale = maxScale;
+        this.enabled = true;
+    }
+
+    /**
+     * 提交一帧的 GPU 耗时（毫秒），返回调整后的缩放。
+     */
+    public float update(float gpuMillis) {
+        if (!enabled) {
+            lastDecision = Decision.DISABLED;
+            return scale;
+        }
+        smoothedMillis = smoothedMillis < 0 ? gpuMillis : smoothedMillis + (gpuMillis - smoothedMillis) * SMOOTHING;
+
+        if (settleFrames > 0) {
+            settleFrames--;
+            lastDecision = Decision.SETTLING;
+            return scale;
+        }
+
+        if (smoothedMillis > targetMillis && scale > minScale) {
+            underFrames = 0;
+            if (++overFrames >= LOWER_AFTER_FRAMES) {
+                // 填充开销约与像素数即缩放的平方成正比，按超出比例估算一步的幅度
+                float wanted = scale * (float) Math.sqrt(targetMillis / smoothedMillis);
+                float step = Math.max(MIN_LOWER_STEP, Math.min(MAX_LOWER_STEP, scale - wanted));
+                applyScale(scale - step);
+                lowerCount++;
+                lastDecision = Decision.LOWERED;
+            } else {
+                lastDecision = Decision.OVER_BUDGET;
+            }
+        } else if (smoothedMillis < targetMillis * RAISE_THRESHOLD && scale < maxScale) {
+            overFrames = 0;
+            if (++underFrames >= RAISE_AFTER_FRAMES) {
+                applyScale(scale + RAISE_STEP);
+                raiseCount++;
+                lastDecision = Decision.RAISED;
+            } else {
+                lastDecision = Decision.UNDER_BUDGET;
+            }
+        } else {
+            overFrames = 0;
+            underFrames = 0;
+            lastDecision = Decision.HOLD;
+        }
+        return scale;
+    }
+
+    private void applyScale(float newScale) {
+        scale = Math.max(minScale, Math.min(maxScale, newScale));
+        overFrames = 0;
+        underFrames = 0;
+        settleFrames = SETTLE_FRAMES;
+    }
+
+    /** 关闭后回到最大缩放，不再调整。 */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+        if (!enabled) {
+            scale = maxScale;
+            lastDecision = Decision.DISABLED;
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setTargetMillis(float targetMillis) {
+        this.targetMillis = targetMillis;
+    }
+
+    public float getTargetMillis() {
+        return targetMillis;
+    }
+
+    public void setScaleRange(float minScale, float maxScale) {
+        this.minScale = minScale;
+        this.maxScale = maxScale;
+        this.scale = Math.max(minScale, Math.min(maxScale, scale));
+    }
+
+    public float getMinScale() {
+        return minScale;
+    }
+
+    public float getMaxScale() {
+        return maxScale;
+    }
+
+    /** 当前世界层缩放，1 为原生分辨率 */
+    public float getScale() {
+        return scale;
+    }
+
+    /** 平滑后的 GPU 帧时间（毫秒），还没有测量时为 -1 */
+    public float getSmoothedMillis() {
+        return smoothedMillis;
+    }
+
+    public Decision getLastDecision() {
+        return lastDecision;
+    }
+
+    public long getLowerCount() {
+        return lowerCount;
+    }
+
+    public long getRaiseCount() {
+        return raiseCount;
+    }
+}
@@ -0,0 +1,195 @@
+package com.gameengine.graphics;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 帧捕获：把渲染线程读回的 RGBA 像素交给后台线程编码成 PNG 序列（frame_000000.png ...）。
+ *
+ * 渲染线程只做一次内存拷贝：像素复制进池中的缓冲后放入有界队列，缓冲池用完（编码跟不上）时
+ * 丢弃该帧并计数，从不等待编码线程。文件名是捕获开始后的帧号，丢弃的帧在序列中留下空号。不依赖 GL。
+ */
+public final class FrameCapture {
+    public static final int DEFAULT_QUEUE_CAPACITY = 8;
+
+    // 一帧像素：自下而上的行，每像素 RGBA 4 字节（glReadPixels 的布局）
+    private static final class Frame {
+        byte[] pixels;
+        int width;
+        int height;
+        long index;
+    }
+
+    private final File outputDir;
+    private final BlockingQueue<Frame> queue;
+    // 编码完成后归还的缓冲；总数不超过 队列容量 + 编码线程数，所以入队不会失败
+    private final BlockingQueue<Frame> freeFrames;
+    private final int frameLimit;
+    private int allocatedFrames;
+    private final Thread[] workers;
+    private volatile boolean running;
+
+    private volatile long submittedFrames;
+    private volatile long droppedFrames;
+    private final AtomicLong writtenFrames = new AtomicLong();
+    private final AtomicLong failedFrames = new AtomicLong();
+
+    public FrameCapture(File outputDir) {
+        this(outputDir, DEFAULT_QUEUE_CAPACITY, Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() / 2)));
+    }
+
+    public FrameCapture(File outputDir, int queueCapacity, int workerCount) {
+        this.outputDir = outputDir;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.workers = new Thread[Math.max(1, workerCount)];
+        this.frameLimit = Math.max(1, queueCapacity) + workers.length;
+        this.freeFrames = new ArrayBlockingQueue<>(frameLimit);
+    }
+
+    public void start() throws IOException {
+        if (running) return;
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            throw new IOException("无法创建捕获目录: " + outputDir);
+        }
+        running = true;
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(new Encoder(), "capture-encoder-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    /**
+     * 停止接收新帧，等待编码线程写完队列中的帧（最多约 2 秒）。
+     */
+    public void stop() {
+        if (!running) return;
+        running = false;
+        for (Thread worker : workers) {
+            try { worker.join(2000); } catch (InterruptedException ignored) {}
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /**
+     * 复制一帧像素（glReadPixels 的 RGBA 布局）并排队编码；编码跟不上时丢弃，返回 false。
+     * 只在渲染线程调用。
+     */
+    public boolean submit(ByteBuffer rgba, int width, int height, long frameIndex) {
+        if (!running) return false;
+        Frame frame = freeFrames.poll();
+        if (frame == null) {
+            if (allocatedFrames >= frameLimit) {
+                droppedFrames++;
+                return false;
+            }
+            frame = new Frame();
+            allocatedFrames++;
+        }
+        int bytes = width * height * 4;
+        if (frame.pixels == null || frame.pixels.length != bytes) {
+            frame.pixels = new byte[bytes];
+        }
+        rgba.position(0);
+        rgba.get(frame.pixels, 0, bytes);
+        frame.width = width;
+        frame.height = height;
+        frame.index = frameIndex;
+        if (!queue.offer(frame)) {
+            freeFrames.offer(frame);
+            droppedFrames++;
+            return false;
+        }
+        submittedFrames++;
+        return true;
+    }
+
+    /** 记一帧丢弃（例如读回环已满，像素没能读出）。只在渲染线程调用。 */
+    public void drop() {
+        droppedFrames++;
+    }
+
+    public File getOutputDir() {
+        return outputDir;
+    }
+
+    /** 已排队编码的帧数 */
+    public long getSubmittedFrames() {
+        return submittedFrames;
+    }
+
+    /** 因编码或读回跟不上而丢弃的帧数 */
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public long getWrittenFrames() {
+        return writtenFrames.get();
+    }
+
+    public long getFailedFrames() {
+        return failedFrames.get();
+    }
+
+    public int getQueuedFrames() {
+        return queue.size();
+    }
+
+    private final class Encoder implements Runnable {
+        // 每个编码线程复用一张图像
+        private BufferedImage image;
+
+        @Override
+        public void run() {
+            while (running || !queue.isEmpty()) {
+                Frame frame;
+                try {
+                    frame = queue.poll(50, TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (frame == null) continue;
+                try {
+                    encode(frame);
+                    writtenFrames.incrementAndGet();
+                } catch (IOException | RuntimeException e) {
+                    if (failedFrames.getAndIncrement() == 0) {
+                        System.err.println("帧捕获写入失败: " + e.getMessage());
+                    }
+                } finally {
+                    freeFrames.offer(frame);
+                }
+            }
+        }
+
+        private void encode(Frame frame) throws IOException {
+            int w = frame.width;
+            int h = frame.height;
+            if (image == null || image.getWidth() != w || image.getHeight() != h) {
+                image = new BufferedImage(w, h, BufferedImage.TYPE_INT_RGB);
+            }
+            int[] dst = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+            byte[] src = frame.pixels;
+            // 读回的行自下而上，翻转成图像的自上而下；窗口的 alpha 没有意义，丢弃
+            for (int y = 0; y < h; y++) {
+                int s = (h - 1 - y) * w * 4;
+                int d = y * w;
+                for (int x = 0; x < w; x++, s += 4) {
+                    dst[d + x] = (src[s] & 0xFF) << 16 | (src[s + 1] & 0xFF) << 8 | (src[s + 2] & 0xFF);
+                }
+            }
+            ImageIO.write(image, "png", new File(outputDir, String.format("frame_%06d.png", frame.index)));
+        }
+    }
+}
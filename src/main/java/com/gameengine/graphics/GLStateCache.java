@@ -0,0 +1,286 @@
+package com.gameengine.graphics;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL14;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL20;
+import org.lwjgl.opengl.GL30;
+
+/**
+ * 渲染器的 GL 状态缓存：记录当前的开关、客户端数组、混合函数、纹理与帧缓冲绑定、视口、清屏色，
+ * 固定管线的投影矩阵，以及核心模式的着色器程序、顶点数组与数组缓冲绑定，
+ * 与记录值相同的调用直接跳过，不再进入驱动。
+ *
+ * 所有状态都必须经由这里修改；其他代码直接改动状态后（如字形图集上传时绑定纹理），
+ * 要调用对应的 invalidate 方法，下一次设置会无条件下发。只能在 GL 线程使用。
+ */
+final class GLStateCache {
+    private static final byte UNKNOWN = -1;
+    private static final byte OFF = 0;
+    private static final byte ON = 1;
+
+    // glEnable 与 glEnableClientState 的开关，各自一张小表，按枚举值线性查找
+    private static final class Flags {
+        private final int[] names = new int[16];
+        private final byte[] states = new byte[16];
+        private int count;
+
+        int slot(int name) {
+            for (int i = 0; i < count; i++) {
+                if (names[i] == name) return i;
+            }
+            names[count] = name;
+            states[count] = UNKNOWN;
+            return count++;
+        }
+
+        void invalidate() {
+            for (int i = 0; i < count; i++) {
+                states[i] = UNKNOWN;
+            }
+        }
+    }
+
+    private final Flags capabilities = new Flags();
+    private final Flags clientArrays = new Flags();
+
+    private int blendSrcRgb;
+    private int blendDstRgb;
+    private int blendSrcAlpha;
+    private int blendDstAlpha;
+    private int texture;
+    private int texEnvMode;
+    private int framebuffer;
+    private int viewportX;
+    private int viewportY;
+    private int viewportWidth;
+    private int viewportHeight;
+    private boolean clearColorValid;
+    private float clearR;
+    private float clearG;
+    private float clearB;
+    private float clearA;
+    // 投影为 glOrtho(0, w, h, 0, -1, 1)、模型视图为单位阵、矩阵模式为 MODELVIEW 时有效
+    private int orthoWidth;
+    private int orthoHeight;
+    private int program;
+    private int vertexArray;
+    private int arrayBuffer;
+
+    // 统计：本帧实际下发与跳过的状态调用
+    private int changes;
+    private int skipped;
+    private int lastChanges;
+    private int lastSkipped;
+
+    GLStateCache() {
+        invalidate();
+    }
+
+    /** 忘记所有记录的状态，例如上下文刚创建或被外部代码大量修改之后。 */
+    void invalidate() {
+        capabilities.invalidate();
+        clientArrays.invalidate();
+        blendSrcRgb = -1;
+        invalidateTexture();
+        texEnvMode = -1;
+        invalidateFramebuffer();
+        clearColorValid = false;
+        orthoWidth = -1;
+        program = -1;
+        vertexArray = -1;
+        arrayBuffer = -1;
+    }
+
+    void invalidateTexture() {
+        texture = -1;
+    }
+
+    /** 帧缓冲与视口一起失效：绑定离屏目标的代码通常也会设置视口。 */
+    void invalidateFramebuffer() {
+        framebuffer = -1;
+        viewportWidth = -1;
+    }
+
+    void beginFrame() {
+        lastChanges = changes;
+        lastSkipped = skipped;
+        changes = 0;
+        skipped = 0;
+    }
+
+    void enable(int cap) {
+        setFlag(capabilities, cap, true, false);
+    }
+
+    void disable(int cap) {
+        setFlag(capabilities, cap, false, false);
+    }
+
+    void enableClientState(int array) {
+        setFlag(clientArrays, array, true, true);
+    }
+
+    void disableClientState(int array) {
+        setFlag(clientArrays, array, false, true);
+    }
+
+    private void setFlag(Flags flags, int name, boolean on, boolean client) {
+        int slot = flags.slot(name);
+        byte wanted = on ? ON : OFF;
+        if (flags.states[slot] == wanted) {
+            skipped++;
+            return;
+        }
+        if (client) {
+            if (on) GL11.glEnableClientState(name); else GL11.glDisableClientState(name);
+        } else {
+            if (on) GL11.glEnable(name); else GL11.glDisable(name);
+        }
+        flags.states[slot] = wanted;
+        changes++;
+    }
+
+    void blendFunc(int src, int dst) {
+        if (src == blendSrcRgb && dst == blendDstRgb && src == blendSrcAlpha && dst == blendDstAlpha) {
+            skipped++;
+            return;
+        }
+        GL11.glBlendFunc(src, dst);
+        recordBlend(src, dst, src, dst);
+    }
+
+    void blendFuncSeparate(int srcRgb, int dstRgb, int srcAlpha, int dstAlpha) {
+        if (srcRgb == blendSrcRgb && dstRgb == blendDstRgb && srcAlpha == blendSrcAlpha && dstAlpha == blendDstAlpha) {
+            skipped++;
+            return;
+        }
+        GL14.glBlendFuncSeparate(srcRgb, dstRgb, srcAlpha, dstAlpha);
+        recordBlend(srcRgb, dstRgb, srcAlpha, dstAlpha);
+    }
+
+    private void recordBlend(int srcRgb, int dstRgb, int srcAlpha, int dstAlpha) {
+        blendSrcRgb = srcRgb;
+        blendDstRgb = dstRgb;
+        blendSrcAlpha = srcAlpha;
+        blendDstAlpha = dstAlpha;
+        changes++;
+    }
+
+    void bindTexture(int id) {
+        if (id == texture) {
+            skipped++;
+            return;
+        }
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, id);
+        texture = id;
+        changes++;
+    }
+
+    void texEnvMode(int mode) {
+        if (mode == texEnvMode) {
+            skipped++;
+            return;
+        }
+        GL11.glTexEnvi(GL11.GL_TEXTURE_ENV, GL11.GL_TEXTURE_ENV_MODE, mode);
+        texEnvMode = mode;
+        changes++;
+    }
+
+    /** 绑定帧缓冲（0 为窗口），需要 OpenGL 3.0。 */
+    void bindFramebuffer(int id) {
+        if (id == framebuffer) {
+            skipped++;
+            return;
+        }
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, id);
+        framebuffer = id;
+        changes++;
+    }
+
+    void viewport(int x, int y, int width, int height) {
+        if (x == viewportX && y == viewportY && width == viewportWidth && height == viewportHeight) {
+            skipped++;
+            return;
+        }
+        GL11.glViewport(x, y, width, height);
+        viewportX = x;
+        viewportY = y;
+        viewportWidth = width;
+        viewportHeight = height;
+        changes++;
+    }
+
+    void clearColor(float r, float g, float b, float a) {
+        if (clearColorValid && r == clearR && g == clearG && b == clearB && a == clearA) {
+            skipped++;
+            return;
+        }
+        GL11.glClearColor(r, g, b, a);
+        clearR = r;
+        clearG = g;
+        clearB = b;
+        clearA = a;
+        clearColorValid = true;
+        changes++;
+    }
+
+    /**
+     * 屏幕坐标投影：原点在左上，y 向下；模型视图为单位阵。与上次相同时整组矩阵调用都跳过。
+     */
+    void ortho2D(int width, int height) {
+        if (width == orthoWidth && height == orthoHeight) {
+            skipped++;
+            return;
+        }
+        GL11.glMatrixMode(GL11.GL_PROJECTION);
+        GL11.glLoadIdentity();
+        GL11.glOrtho(0, width, height, 0, -1, 1);
+        GL11.glMatrixMode(GL11.GL_MODELVIEW);
+        GL11.glLoadIdentity();
+        orthoWidth = width;
+        orthoHeight = height;
+        changes++;
+    }
+
+    void useProgram(int id) {
+        if (id == program) {
+            skipped++;
+            return;
+        }
+        GL20.glUseProgram(id);
+        program = id;
+        changes++;
+    }
+
+    /** 绑定顶点数组对象，需要 OpenGL 3.0。 */
+    void bindVertexArray(int id) {
+        if (id == vertexArray) {
+            skipped++;
+            return;
+        }
+        GL30.glBindVertexArray(id);
+        vertexArray = id;
+        changes++;
+    }
+
+    void bindArrayBuffer(int id) {
+        if (id == arrayBuffer) {
+            skipped++;
+            return;
+        }
+        GL15.glBindBuffer(GL15.GL_ARRAY_BUFFER, id);
+        arrayBuffer = id;
+        changes++;
+    }
+
+    /** 上一帧实际下发的状态调用次数 */
+    int getLastFrameChanges() {
+        return lastChanges;
+    }
+
+    /** 上一帧因与当前状态相同而跳过的调用次数 */
+    int getLastFrameSkipped() {
+        return lastSkipped;
+    }
+}
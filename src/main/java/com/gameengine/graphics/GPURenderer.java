@@ -4,18 +4,18 @@ import com.gameengine.input.InputManager;
 import org.lwjgl.glfw.GLFW;
 import org.lwjgl.glfw.GLFWErrorCallback;
 import org.lwjgl.opengl.GL;
+import org.lwjgl.opengl.GLCapabilities;
 import org.lwjgl.opengl.GL11;
 import org.lwjgl.opengl.GL12;
-import org.lwjgl.system.MemoryStack;
 import org.lwjgl.system.MemoryUtil;
 
-import java.awt.*;
-import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
 import java.nio.ByteBuffer;
 import java.nio.IntBuffer;
-import org.lwjgl.BufferUtils;
 import java.util.HashMap;
 import java.util.Map;
+import org.lwjgl.BufferUtils;
 
 public class GPURenderer implements IRenderer {
     private int width;
@@ -24,11 +24,44 @@ public class GPURenderer implements IRenderer {
     private InputManager inputManager;
     private boolean initialized;
     private long window;
-    private Map<Character, Integer> charTextures;
-    private Font font;
+    private GLCapabilities capabilities;
+    private GlyphAtlas glyphAtlas;
+    private TextLayoutCache textLayouts;
+    private static final int TEXT_LAYOUT_CACHE_SIZE = 256;
     private int fontSize;
-    private boolean texturesPreloaded;
-    private static final String PRELOAD_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZabcdefghijklmnopqrstuvwxyz0123456789!@#$%^&*()_+-=[]{}|;:,.<>?/~` ";
+    // 调试开关：-Dgameengine.glDebug=true 时每次批次提交后检查 glGetError
+    private static final boolean DEBUG_GL = Boolean.getBoolean("gameengine.glDebug");
+    // 单批最多顶点数（约 1 万个矩形），写满即提交
+    private static final int BATCH_VERTICES = 60000;
+    private static final int MAX_CIRCLE_SEGMENTS = 256;
+    private static final float LINE_WIDTH = 2.5f;
+    private VertexBatch batch;
+    // 开关、绑定、混合函数与矩阵都经由状态缓存设置，与当前状态相同的调用不进入驱动
+    private final GLStateCache state = new GLStateCache();
+    private BlendMode blendMode = BlendMode.ALPHA;
+    private final ViewTransform view = new ViewTransform();
+    // 静态层的离屏缓存，按层号索引；需要 OpenGL 3.0 帧缓冲
+    private final Map<Integer, OffscreenTarget> layerCaches = new HashMap<>();
+    private OffscreenTarget activeLayerCache;
+    // 动态分辨率：LAYER_HUD 以下的层按缩放画进离屏目标的左下角区域，第一次画 HUD 前（或帧末）放大到窗口；
+    // HUD 始终原生分辨率。缩放由 GPU 帧时间驱动，-Dgameengine.dynamicResolution=false 关闭
+    private static final boolean DYNAMIC_RESOLUTION =
+        !"false".equalsIgnoreCase(System.getProperty("gameengine.dynamicResolution"));
+    private static final float RESOLUTION_TARGET_MILLIS =
+        Long.getLong("gameengine.dynamicResolution.targetMicros", 14000L) / 1000f;
+    private final DynamicResolutionController resolution =
+        new DynamicResolutionController(RESOLUTION_TARGET_MILLIS, 0.5f, 1.0f);
+    private GpuFrameTimer gpuTimer;
+    private OffscreenTarget worldTarget;
+    private boolean worldOffscreen;
+    private int worldPixelWidth;
+    private int worldPixelHeight;
+    private float lastGpuFrameMillis = -1f;
+    // 帧捕获：PBO 环异步读回，后台线程编码 PNG；-Dgameengine.captureDir=<目录> 启动时开始
+    private PixelReadback readback;
+    private FrameCapture frameCapture;
+    // 按分段数缓存的单位圆 cos/sin 表
+    private final float[][] circleTables = new float[MAX_CIRCLE_SEGMENTS + 1][];
 
     public GPURenderer(int width, int height, String title) {
         this.width = width;
@@ -37,10 +70,7 @@ public class GPURenderer implements IRenderer {
         this.inputManager = InputManager.getInstance();
         this.initialized = false;
         this.window = 0;
-        this.charTextures = new HashMap<>();
-        this.font = new Font(Font.MONOSPACED, Font.BOLD, 32);
         this.fontSize = 32;
-        this.texturesPreloaded = false;
 
         initialize();
     }
@@ -65,27 +95,12 @@ public class GPURenderer implements IRenderer {
                 throw new RuntimeException("无法创建GLFW窗口");
             }
             
-            try (MemoryStack stack = MemoryStack.stackPush()) {
-                IntBuffer pWidth = stack.mallocInt(1);
-                IntBuffer pHeight = stack.mallocInt(1);
-                
-                GLFW.glfwGetWindowSize(window, pWidth, pHeight);
-                
-                org.lwjgl.glfw.GLFWVidMode vidmode = GLFW.glfwGetVideoMode(GLFW.glfwGetPrimaryMonitor());
-                
-                if (vidmode != null) {
-                    GLFW.glfwSetWindowPos(
-                        window,
-                        (vidmode.width() - pWidth.get(0)) / 2,
-                        (vidmode.height() - pHeight.get(0)) / 2
-                    );
-                }
-            }
+            GlfwWindows.centerOnPrimaryMonitor(window);
             
             setupInput();
             
             GLFW.glfwMakeContextCurrent(window);
-            GL.createCapabilities();
+            capabilities = GL.createCapabilities();
             GLFW.glfwSwapInterval(1);
             
             GLFW.glfwShowWindow(window);
@@ -105,6 +120,7 @@ public class GPURenderer implements IRenderer {
                 System.err.println("OpenGL上下文无效：无法获取版本/渲染器字符串");
             }
             
+            batch = new VertexBatch(BATCH_VERTICES, DEBUG_GL, state);
             initialized = true;
             
             int[] maxTex = new int[1];
@@ -117,33 +133,27 @@ public class GPURenderer implements IRenderer {
             System.out.println("渲染器: " + glRenderer);
             System.out.println("最大纹理尺寸: " + maxTex[0]);
             
-            // 仅在上下文确认有效后再预加载纹理
-            preloadTextures();
+            // 仅在上下文确认有效后再创建字形图集
+            glyphAtlas = new GlyphAtlas(fontSize, false);
+            glyphAtlas.create();
+            textLayouts = new TextLayoutCache(glyphAtlas, fontSize * 0.6f, 1.0f, TEXT_LAYOUT_CACHE_SIZE);
+            
+            // 动态分辨率需要帧缓冲与计时查询，缺一则固定原生分辨率
+            if (GpuFrameTimer.isSupported(capabilities)) {
+                gpuTimer = new GpuFrameTimer();
+            }
+            resolution.setEnabled(DYNAMIC_RESOLUTION && gpuTimer != null && capabilities.OpenGL30);
+            startCaptureFromProperties();
+            // 测试纹理与字形图集创建时直接改过绑定和开关，状态缓存从未知开始
+            state.invalidate();
+            System.out.println("字形图集已创建，ASCII 字形在后台栅格化");
         } catch (Exception e) {
             throw new RuntimeException("GPU渲染器初始化失败: " + e.getMessage(), e);
         }
     }
     
     private void setupInput() {
-        GLFW.glfwSetKeyCallback(window, (window, key, scancode, action, mods) -> {
-            if (action == GLFW.GLFW_PRESS) {
-                inputManager.onKeyPressed(key);
-            } else if (action == GLFW.GLFW_RELEASE) {
-                inputManager.onKeyReleased(key);
-            }
-        });
-        
-        GLFW.glfwSetMouseButtonCallback(window, (window, button, action, mods) -> {
-            if (action == GLFW.GLFW_PRESS) {
-                inputManager.onMousePressed(button);
-            } else if (action == GLFW.GLFW_RELEASE) {
-                inputManager.onMouseReleased(button);
-            }
-        });
-        
-        GLFW.glfwSetCursorPosCallback(window, (window, xpos, ypos) -> {
-            inputManager.onMouseMoved((int)xpos, (int)ypos);
-        });
+        GlfwWindows.installInputCallbacks(window, inputManager);
     }
     
     @Override
@@ -151,294 +161,433 @@ public class GPURenderer implements IRenderer {
         if (!initialized) return;
         
         GLFW.glfwMakeContextCurrent(window);
+        state.beginFrame();
         
-        GL11.glMatrixMode(GL11.GL_PROJECTION);
-        GL11.glLoadIdentity();
-        GL11.glOrtho(0, width, height, 0, -1, 1);
+        // 投影只随窗口尺寸变化，之后的帧都会被状态缓存跳过
+        state.ortho2D(width, height);
         
-        GL11.glMatrixMode(GL11.GL_MODELVIEW);
-        GL11.glLoadIdentity();
+        if (gpuTimer != null) {
+            gpuTimer.begin();
+        }
+        beginWorldTarget();
         
-        GL11.glClearColor(0.2f, 0.2f, 0.2f, 1.0f);
-        GL11.glClear(GL11.GL_COLOR_BUFFER_BIT);
+        state.clearColor(0.2f, 0.2f, 0.2f, 1.0f);
+        if (worldOffscreen) {
+            // 只清除本帧使用的区域
+            state.enable(GL11.GL_SCISSOR_TEST);
+            GL11.glScissor(0, 0, worldPixelWidth, worldPixelHeight);
+            GL11.glClear(GL11.GL_COLOR_BUFFER_BIT);
+            state.disable(GL11.GL_SCISSOR_TEST);
+        } else {
+            GL11.glClear(GL11.GL_COLOR_BUFFER_BIT);
+        }
         
-        GL11.glEnable(GL11.GL_BLEND);
-        GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
-        GL11.glDisable(GL11.GL_DEPTH_TEST);
-        GL11.glDisable(GL11.GL_TEXTURE_2D);
-        GL11.glDisable(GL11.GL_LIGHTING);
-        GL11.glDisable(GL11.GL_CULL_FACE);
-        GL11.glDisable(GL11.GL_COLOR_MATERIAL);
+        state.enable(GL11.GL_BLEND);
+        state.disable(GL11.GL_DEPTH_TEST);
+        state.disable(GL11.GL_LIGHTING);
+        state.disable(GL11.GL_CULL_FACE);
+        state.disable(GL11.GL_COLOR_MATERIAL);
         
+        blendMode = BlendMode.ALPHA;
+        applyBlendFunc();
+        view.reset();
+        batch.beginFrame();
+        if (glyphAtlas.uploadPending() > 0) {
+            state.invalidateTexture();
+        }
     }
     
     @Override
     public void endFrame() {
         if (!initialized) return;
+        endLayerCache();
+        compositeWorld();
+        batch.flush();
+        if (gpuTimer != null) {
+            gpuTimer.end();
+        }
+        if (readback != null) {
+            readback.captureFrame(width, height);
+        }
         GLFW.glfwSwapBuffers(window);
+        updateResolution();
     }
     
-    @Override
-    public void drawRect(float x, float y, float w, float h, float r, float g, float b, float a) {
-        if (!initialized) return;
+    // 缩放小于 1 时把世界层画进离屏目标，投影不变，只缩小视口
+    private void beginWorldTarget() {
+        float scale = resolution.getScale();
+        worldOffscreen = scale < 1f;
+        if (!worldOffscreen) return;
+        if (worldTarget == null) {
+            worldTarget = createTarget();
+        }
+        worldPixelWidth = Math.max(1, Math.round(width * scale));
+        worldPixelHeight = Math.max(1, Math.round(height * scale));
+        bindTarget(worldTarget, worldPixelWidth, worldPixelHeight);
+    }
+    
+    private OffscreenTarget createTarget() {
+        OffscreenTarget target = OffscreenTarget.create(width, height);
+        // 创建时直接绑定过纹理与帧缓冲
+        state.invalidateTexture();
+        state.invalidateFramebuffer();
+        return target;
+    }
+    
+    private void bindTarget(OffscreenTarget target, int viewportWidth, int viewportHeight) {
+        state.bindFramebuffer(target.getFramebuffer());
+        state.viewport(0, 0, viewportWidth, viewportHeight);
+    }
+    
+    private void bindWindow() {
+        state.bindFramebuffer(0);
+        state.viewport(0, 0, width, height);
+    }
+    
+    // 把缩放后的世界层线性放大到窗口；之后本帧的绘制直接进入窗口
+    private void compositeWorld() {
+        if (!worldOffscreen) return;
+        worldOffscreen = false;
         
-        GL11.glColor4f(r, g, b, a);
-        GL11.glBegin(GL11.GL_QUADS);
-        GL11.glVertex2f(x, y);
-        GL11.glVertex2f(x + w, y);
-        GL11.glVertex2f(x + w, y + h);
-        GL11.glVertex2f(x, y + h);
-        GL11.glEnd();
-        int err = GL11.glGetError();
-        if (err != GL11.GL_NO_ERROR) {
-            System.err.println("[GPURenderer] drawRect GL error: 0x" + Integer.toHexString(err));
+        batch.flush();
+        bindWindow();
+        state.disable(GL11.GL_BLEND);
+        float u1 = worldPixelWidth / (float) worldTarget.getWidth();
+        float v0 = worldPixelHeight / (float) worldTarget.getHeight();
+        batch.setTexture(worldTarget.getTexture());
+        batch.rect(0, 0, width, height, 0, v0, u1, 0, 1f, 1f, 1f, 1f);
+        batch.flush();
+        state.enable(GL11.GL_BLEND);
+    }
+    
+    // 当前帧的绘制目标：世界层尚未合成时是离屏目标，否则是窗口
+    private void bindCurrentTarget() {
+        if (worldOffscreen) {
+            bindTarget(worldTarget, worldPixelWidth, worldPixelHeight);
+        } else {
+            bindWindow();
+        }
+    }
+    
+    private void updateResolution() {
+        if (gpuTimer == null) return;
+        long nanos = gpuTimer.poll();
+        if (nanos >= 0) {
+            lastGpuFrameMillis = nanos / 1e6f;
+            resolution.update(lastGpuFrameMillis);
+        }
+    }
+    
+    private void startCaptureFromProperties() {
+        String dir = System.getProperty("gameengine.captureDir");
+        if (dir == null || dir.isEmpty()) return;
+        try {
+            startCapture(new File(dir), Integer.getInteger("gameengine.captureEvery", 1));
+        } catch (IOException e) {
+            System.err.println("无法开始帧捕获: " + e.getMessage());
+        }
+    }
+    
+    /**
+     * 开始把窗口画面捕获为 PNG 序列，每 everyNFrames 帧一张；编码跟不上时丢帧而不阻塞渲染。
+     * 需要像素缓冲对象（OpenGL 2.1），不支持时返回 false。在渲染线程调用。
+     */
+    public boolean startCapture(File outputDir, int everyNFrames) throws IOException {
+        if (!initialized || readback != null) return false;
+        if (!PixelReadback.isSupported(capabilities)) {
+            System.err.println("驱动不支持像素缓冲对象，无法异步捕获");
+            return false;
         }
+        FrameCapture capture = new FrameCapture(outputDir);
+        capture.start();
+        frameCapture = capture;
+        readback = new PixelReadback(capabilities, capture, everyNFrames);
+        System.out.println("帧捕获已开始: " + outputDir.getAbsolutePath());
+        return true;
+    }
+    
+    /**
+     * 停止捕获：取出尚在 GPU 上的读回，等待编码线程写完队列。在渲染线程调用。
+     */
+    public void stopCapture() {
+        if (readback == null) return;
+        readback.drain(true);
+        readback.delete();
+        readback = null;
+        frameCapture.stop();
+        System.out.println("帧捕获结束: 写入 " + frameCapture.getWrittenFrames()
+            + " 帧，丢弃 " + frameCapture.getDroppedFrames() + " 帧");
+    }
+    
+    public boolean isCapturing() {
+        return readback != null;
+    }
+    
+    /**
+     * 当前或最近一次捕获（写入、丢弃、排队帧数），从未捕获时为 null
+     */
+    public FrameCapture getFrameCapture() {
+        return frameCapture;
     }
     
     @Override
-    public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
-        if (!initialized) return;
+    public void setBlendMode(BlendMode mode) {
+        if (!initialized || mode == null || mode == blendMode) return;
         
-        GL11.glColor4f(r, g, b, a);
-        GL11.glBegin(GL11.GL_TRIANGLE_FAN);
-        GL11.glVertex2f(x, y);
-        
-        for (int i = 0; i <= segments; i++) {
-            float angle = (float) (i * 2.0 * Math.PI / segments);
-            float px = x + (float) (radius * Math.cos(angle));
-            float py = y + (float) (radius * Math.sin(angle));
-            GL11.glVertex2f(px, py);
+        // 混合方式是批次状态，切换前提交已累积的顶点
+        batch.flush();
+        blendMode = mode;
+        applyBlendFunc();
+    }
+    
+    private void applyBlendFunc() {
+        int dst = blendMode == BlendMode.ADDITIVE ? GL11.GL_ONE : GL11.GL_ONE_MINUS_SRC_ALPHA;
+        if (activeLayerCache != null) {
+            // 写入层缓存时 alpha 单独累积，缓存中保存预乘 alpha 的颜色，合成时不会混入透明底色
+            state.blendFuncSeparate(GL11.GL_SRC_ALPHA, dst, GL11.GL_ONE, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        } else {
+            state.blendFunc(GL11.GL_SRC_ALPHA, dst);
         }
-        GL11.glEnd();
     }
     
     @Override
-    public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
-        if (!initialized) return;
-        
-        GL11.glLineWidth(2.5f);
-        GL11.glColor4f(r, g, b, a);
-        GL11.glBegin(GL11.GL_LINES);
-        GL11.glVertex2f(x1, y1);
-        GL11.glVertex2f(x2, y2);
-        GL11.glEnd();
+    public boolean supportsLayerCache() {
+        return initialized && capabilities != null && capabilities.OpenGL30;
     }
     
     @Override
-    public void drawText(float x, float y, String text, float r, float g, float b, float a) {
-        if (!initialized || text == null || text.isEmpty()) return;
+    public void beginLayerCache(int layer) {
+        if (!supportsLayerCache() || activeLayerCache != null) return;
         
-        if (!texturesPreloaded) {
-            preloadTextures();
+        batch.flush();
+        OffscreenTarget cache = layerCaches.get(layer);
+        if (cache == null) {
+            cache = createTarget();
+            layerCaches.put(layer, cache);
         }
+        bindTarget(cache, cache.getWidth(), cache.getHeight());
+        state.clearColor(0f, 0f, 0f, 0f);
+        GL11.glClear(GL11.GL_COLOR_BUFFER_BIT);
+        activeLayerCache = cache;
+        applyBlendFunc();
+    }
+    
+    @Override
+    public void endLayerCache() {
+        if (activeLayerCache == null) return;
         
-        GL11.glEnable(GL11.GL_TEXTURE_2D);
-        GL11.glEnable(GL11.GL_BLEND);
-        GL11.glBlendFunc(GL11.GL_SRC_ALPHA, GL11.GL_ONE_MINUS_SRC_ALPHA);
-        
-        float currentX = x;
-        float charHeight = fontSize;
-        float charWidth = fontSize * 0.6f;
-        float spacing = 1.0f;
+        batch.flush();
+        bindCurrentTarget();
+        activeLayerCache = null;
+        applyBlendFunc();
+    }
+    
+    @Override
+    public void drawLayerCache(int layer) {
+        OffscreenTarget cache = layerCaches.get(layer);
+        if (cache == null || activeLayerCache != null) return;
         
-        for (int i = 0; i < text.length(); i++) {
-            char c = text.charAt(i);
-            if (c == ' ') {
-                currentX += charWidth * 0.5f;
-                continue;
-            }
-            
-            int textureId = getCharTexture(c);
-            if (textureId > 0) {
-                GL11.glBindTexture(GL11.GL_TEXTURE_2D, textureId);
-                GL11.glTexEnvi(GL11.GL_TEXTURE_ENV, GL11.GL_TEXTURE_ENV_MODE, GL11.GL_MODULATE);
-                GL11.glColor4f(r, g, b, a);
-                GL11.glBegin(GL11.GL_QUADS);
-                GL11.glTexCoord2f(0.0f, 0.0f);
-                GL11.glVertex2f(currentX, y);
-                GL11.glTexCoord2f(1.0f, 0.0f);
-                GL11.glVertex2f(currentX + charWidth, y);
-                GL11.glTexCoord2f(1.0f, 1.0f);
-                GL11.glVertex2f(currentX + charWidth, y + charHeight);
-                GL11.glTexCoord2f(0.0f, 1.0f);
-                GL11.glVertex2f(currentX, y + charHeight);
-                GL11.glEnd();
-            }
-            
-            currentX += charWidth + spacing;
+        // 缓存是预乘 alpha；帧缓冲纹理原点在左下，纵向翻转纹理坐标
+        batch.flush();
+        state.blendFunc(GL11.GL_ONE, GL11.GL_ONE_MINUS_SRC_ALPHA);
+        batch.setTexture(cache.getTexture());
+        batch.rect(0, 0, width, height, 0, 1, 1, 0, 1f, 1f, 1f, 1f);
+        batch.flush();
+        applyBlendFunc();
+    }
+    
+    @Override
+    public void setLayer(int layer) {
+        view.setLayer(layer);
+        if (layer >= LAYER_HUD && activeLayerCache == null) {
+            compositeWorld();
         }
-        
-        GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
-        GL11.glDisable(GL11.GL_TEXTURE_2D);
     }
     
-    private void preloadTextures() {
-        if (!initialized || texturesPreloaded) return;
-        
-        GLFW.glfwMakeContextCurrent(window);
-        
-        int loaded = 0;
-        int failed = 0;
-        
-        for (int i = 0; i < PRELOAD_CHARS.length(); i++) {
-            char c = PRELOAD_CHARS.charAt(i);
-            if (c == ' ') continue;
-            
-            if (!charTextures.containsKey(c)) {
-                int error = GL11.glGetError();
-                while (error != GL11.GL_NO_ERROR) {
-                    error = GL11.glGetError();
-                }
-                
-                int textureId = createCharTexture(c);
-                if (textureId > 0) {
-                    charTextures.put(c, textureId);
-                    loaded++;
-                } else {
-                    failed++;
-                }
-            }
+    @Override
+    public void setWorldView(float scale, float offsetX, float offsetY) {
+        view.set(scale, offsetX, offsetY);
+    }
+    
+    @Override
+    public void drawRect(float x, float y, float w, float h, float r, float g, float b, float a) {
+        if (!initialized) return;
+        if (view.isActive()) {
+            x = view.x(x);
+            y = view.y(y);
+            w = view.length(w);
+            h = view.length(h);
         }
         
-        texturesPreloaded = true;
-        System.out.println("预加载字符纹理完成: " + loaded + " 成功, " + failed + " 失败");
+        batch.setTexture(0);
+        batch.rect(x, y, x + w, y + h, 0, 0, 0, 0, r, g, b, a);
     }
     
-    private int getCharTexture(char c) {
-        if (charTextures.containsKey(c)) {
-            return charTextures.get(c);
+    @Override
+    public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
+        if (!initialized) return;
+        if (view.isActive()) {
+            x = view.x(x);
+            y = view.y(y);
+            radius = view.length(radius);
         }
         
-        if (!texturesPreloaded) {
-            preloadTextures();
-            if (charTextures.containsKey(c)) {
-                return charTextures.get(c);
+        int n = Math.max(3, Math.min(MAX_CIRCLE_SEGMENTS, segments));
+        float[] table = getCircleTable(n);
+        batch.setTexture(0);
+        batch.ensureCapacity(n * 3);
+        float prevX = x + radius * table[0];
+        float prevY = y + radius * table[1];
+        for (int i = 1; i <= n; i++) {
+            float px = x + radius * table[i * 2];
+            float py = y + radius * table[i * 2 + 1];
+            batch.vertex(x, y, 0, 0, r, g, b, a);
+            batch.vertex(prevX, prevY, 0, 0, r, g, b, a);
+            batch.vertex(px, py, 0, 0, r, g, b, a);
+            prevX = px;
+            prevY = py;
+        }
+    }
+    
+    private float[] getCircleTable(int segments) {
+        float[] table = circleTables[segments];
+        if (table == null) {
+            table = new float[(segments + 1) * 2];
+            for (int i = 0; i <= segments; i++) {
+                double angle = i * 2.0 * Math.PI / segments;
+                table[i * 2] = (float) Math.cos(angle);
+                table[i * 2 + 1] = (float) Math.sin(angle);
             }
+            circleTables[segments] = table;
         }
-        
-        if (!initialized) {
-            return 0;
+        return table;
+    }
+    
+    @Override
+    public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
+        if (!initialized) return;
+        if (view.isActive()) {
+            x1 = view.x(x1);
+            y1 = view.y(y1);
+            x2 = view.x(x2);
+            y2 = view.y(y2);
         }
         
-        GLFW.glfwMakeContextCurrent(window);
-        
-        int error = GL11.glGetError();
-        while (error != GL11.GL_NO_ERROR) {
-            error = GL11.glGetError();
+        // 线段展开为四边形，与矩形、圆共用同一批次
+        drawThickLine(x1, y1, x2, y2, LINE_WIDTH, r, g, b, a);
+    }
+    
+    @Override
+    public void drawHealthBars(HealthBarBatch bars) {
+        if (!initialized || bars.isEmpty()) return;
+        float[] d = bars.data();
+        int end = bars.size() * HealthBarBatch.STRIDE;
+        boolean transform = view.isActive();
+        // 整批血条只切换一次纹理状态，背景与前景连续写入同一批次
+        batch.setTexture(0);
+        for (int i = 0; i < end; i += HealthBarBatch.STRIDE) {
+            float x = d[i];
+            float y = d[i + 1];
+            float w = d[i + 2];
+            float h = d[i + 3];
+            if (transform) {
+                x = view.x(x);
+                y = view.y(y);
+                w = view.length(w);
+                h = view.length(h);
+            }
+            batch.rect(x, y, x + w, y + h, 0, 0, 0, 0, d[i + 9], d[i + 10], d[i + 11], d[i + 12]);
+            batch.rect(x, y, x + w * d[i + 4], y + h, 0, 0, 0, 0, d[i + 5], d[i + 6], d[i + 7], d[i + 8]);
+        }
+    }
+    
+    @Override
+    public void drawText(float x, float y, String text, float r, float g, float b, float a) {
+        if (!initialized || text == null || text.isEmpty()) return;
+        if (view.isActive()) {
+            x = view.x(x);
+            y = view.y(y);
         }
         
-        int textureId = createCharTexture(c);
-        if (textureId > 0) {
-            charTextures.put(c, textureId);
+        TextLayoutCache.TextLayout layout = textLayouts.get(text);
+        float[] quads = layout.quads;
+        float charHeight = fontSize;
+        batch.setTexture(glyphAtlas.getTexture());
+        batch.ensureCapacity(layout.glyphCount * 6);
+        for (int q = 0; q < quads.length; q += TextLayoutCache.QUAD_FLOATS) {
+            batch.rect(x + quads[q], y, x + quads[q + 1], y + charHeight,
+                       quads[q + 2], quads[q + 3], quads[q + 4], quads[q + 5], r, g, b, a);
         }
-        return textureId;
     }
     
-    private int createCharTexture(char c) {
-        try {
-            BufferedImage img = new BufferedImage(fontSize, fontSize, BufferedImage.TYPE_INT_ARGB);
-            Graphics2D g2d = img.createGraphics();
-            
-            g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-            g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
-            g2d.setComposite(AlphaComposite.Clear);
-            g2d.fillRect(0, 0, fontSize, fontSize);
-            
-            g2d.setComposite(AlphaComposite.SrcOver);
-            g2d.setColor(new Color(255, 255, 255, 255));
-            g2d.setFont(font);
-            FontMetrics fm = g2d.getFontMetrics();
-            int x = (fontSize - fm.charWidth(c)) / 2;
-            int y = (fontSize - fm.getHeight()) / 2 + fm.getAscent();
-            g2d.drawString(String.valueOf(c), x, y);
-            g2d.dispose();
-            
-            int[] pixels = new int[fontSize * fontSize];
-            img.getRGB(0, 0, fontSize, fontSize, pixels, 0, fontSize);
-            
-            ByteBuffer buffer = ByteBuffer.allocateDirect(fontSize * fontSize * 4);
-            for (int i = 0; i < pixels.length; i++) {
-                int pixel = pixels[i];
-                buffer.put((byte) ((pixel >> 16) & 0xFF));
-                buffer.put((byte) ((pixel >> 8) & 0xFF));
-                buffer.put((byte) (pixel & 0xFF));
-                buffer.put((byte) ((pixel >> 24) & 0xFF));
-            }
-            buffer.flip();
-            
-            GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
-            GL11.glEnable(GL11.GL_TEXTURE_2D);
-            GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
-            
-            int prevError = GL11.glGetError();
-            while (prevError != GL11.GL_NO_ERROR) {
-                System.err.println("Clearing OpenGL error before genTextures for '" + c + "': " + Integer.toHexString(prevError));
-                prevError = GL11.glGetError();
-            }
-            
-            int textureId;
-            try {
-                IntBuffer ids = BufferUtils.createIntBuffer(1);
-                GL11.glGenTextures(ids);
-                textureId = ids.get(0);
-            } catch (Throwable t) {
-                textureId = GL11.glGenTextures();
-            }
-            
-            if (textureId <= 0) {
-                int genError = GL11.glGetError();
-                System.err.println("glGenTextures returned 0 or negative for char '" + c + "'");
-                if (genError != GL11.GL_NO_ERROR) {
-                    System.err.println("OpenGL error code: 0x" + Integer.toHexString(genError));
-                } else {
-                    System.err.println("No OpenGL error reported, but textureId is invalid. Possible causes:");
-                    System.err.println("  - OpenGL context not properly initialized");
-                    System.err.println("  - Reached texture limit");
-                    System.err.println("  - Graphics driver issue");
-                }
-                return 0;
-            }
-            
-            int genError = GL11.glGetError();
-            if (genError != GL11.GL_NO_ERROR) {
-                System.err.println("OpenGL error after glGenTextures for '" + c + "': 0x" + Integer.toHexString(genError));
-                GL11.glDeleteTextures(textureId);
-                return 0;
-            }
-            
-            GL11.glBindTexture(GL11.GL_TEXTURE_2D, textureId);
-            
-            int bindError = GL11.glGetError();
-            if (bindError != GL11.GL_NO_ERROR) {
-                System.err.println("OpenGL error binding texture for '" + c + "': " + Integer.toHexString(bindError));
-                GL11.glDeleteTextures(textureId);
-                return 0;
-            }
-            
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
-            GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
-            GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL11.GL_RGBA, fontSize, fontSize, 0, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, buffer);
-            
-            int texError = GL11.glGetError();
-            if (texError != GL11.GL_NO_ERROR) {
-                System.err.println("OpenGL error uploading texture data for '" + c + "': " + Integer.toHexString(texError));
-                GL11.glDeleteTextures(textureId);
-                return 0;
-            }
-            
-            GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
-            GL11.glDisable(GL11.GL_TEXTURE_2D);
-            
-            return textureId;
-        } catch (Exception e) {
-            System.err.println("Exception creating texture for char '" + c + "': " + e.getMessage());
-            e.printStackTrace();
-            return 0;
-        }
+    @Override
+    public boolean hasPendingWork() {
+        return glyphAtlas != null && glyphAtlas.getOutstanding() > 0;
     }
-
+    
+    /**
+     * 文字排版缓存命中次数
+     */
+    public long getTextLayoutHits() {
+        return textLayouts != null ? textLayouts.getHits() : 0;
+    }
+    
+    /**
+     * 文字排版缓存未命中次数（含因占位字形而未缓存的排版）
+     */
+    public long getTextLayoutMisses() {
+        return textLayouts != null ? textLayouts.getMisses() : 0;
+    }
+    
+    /**
+     * 动态分辨率控制器：当前缩放、平滑后的 GPU 帧时间、最近的判断与调整次数
+     */
+    public DynamicResolutionController getResolutionController() {
+        return resolution;
+    }
+    
+    /**
+     * 当前世界层渲染缩放（按边长），1 为原生分辨率
+     */
+    public float getResolutionScale() {
+        return resolution.getScale();
+    }
+    
+    /**
+     * 最近一次读到的 GPU 帧时间（毫秒），不支持计时查询时为 -1
+     */
+    public float getLastGpuFrameMillis() {
+        return lastGpuFrameMillis;
+    }
+    
+    /**
+     * 上一帧实际下发的 GL 状态调用次数（开关、绑定、混合函数、视口、矩阵）
+     */
+    public int getLastFrameStateChanges() {
+        return state.getLastFrameChanges();
+    }
+    
+    /**
+     * 上一帧因与当前状态相同而被跳过的状态调用次数
+     */
+    public int getLastFrameStateChangesSkipped() {
+        return state.getLastFrameSkipped();
+    }
+    
+    /**
+     * 上一帧的 glDrawArrays 次数
+     */
+    public int getLastFrameDrawCalls() {
+        return batch != null ? batch.getLastDrawCalls() : 0;
+    }
+    
+    /**
+     * 上一帧提交的顶点数
+     */
+    public int getLastFrameVertices() {
+        return batch != null ? batch.getLastVerticesDrawn() : 0;
+    }
+    
     private int createTestTexture() {
         try {
             ByteBuffer buf = BufferUtils.createByteBuffer(4 * 4);
@@ -495,18 +644,8 @@ public class GPURenderer implements IRenderer {
             ny = dx * invLen * halfThick;
         }
         
-        GL11.glPushMatrix();
-        GL11.glLoadIdentity();
-        GL11.glDisable(GL11.GL_TEXTURE_2D);
-        GL11.glDisable(GL11.GL_LIGHTING);
-        GL11.glColor4f(r, g, b, a);
-        GL11.glBegin(GL11.GL_TRIANGLE_STRIP);
-        GL11.glVertex2f(x1 - nx, y1 - ny);
-        GL11.glVertex2f(x1 + nx, y1 + ny);
-        GL11.glVertex2f(x2 - nx, y2 - ny);
-        GL11.glVertex2f(x2 + nx, y2 + ny);
-        GL11.glEnd();
-        GL11.glPopMatrix();
+        batch.setTexture(0);
+        batch.quad(x1 - nx, y1 - ny, x1 + nx, y1 + ny, x2 + nx, y2 + ny, x2 - nx, y2 - ny, r, g, b, a);
     }
     
     
@@ -517,6 +656,26 @@ public class GPURenderer implements IRenderer {
         return GLFW.glfwWindowShouldClose(window);
     }
     
+    @Override
+    public void bindContext() {
+        if (!initialized) return;
+        GLFW.glfwMakeContextCurrent(window);
+        GL.setCapabilities(capabilities);
+    }
+    
+    @Override
+    public void releaseContext() {
+        if (!initialized) return;
+        GLFW.glfwMakeContextCurrent(MemoryUtil.NULL);
+        GL.setCapabilities(null);
+    }
+    
+    @Override
+    public void setVSync(boolean enabled) {
+        if (!initialized) return;
+        GLFW.glfwSwapInterval(enabled ? 1 : 0);
+    }
+    
     @Override
     public void pollEvents() {
         if (initialized && window != MemoryUtil.NULL) {
@@ -527,14 +686,38 @@ public class GPURenderer implements IRenderer {
         }
     }
     
+    @Override
+    public void waitEvents(double timeoutSeconds) {
+        if (initialized && window != MemoryUtil.NULL) {
+            GLFW.glfwWaitEventsTimeout(timeoutSeconds);
+        }
+    }
+    
+    @Override
+    public void wakeUp() {
+        if (initialized) {
+            GLFW.glfwPostEmptyEvent();
+        }
+    }
+    
     @Override
     public void cleanup() {
-        for (Integer textureId : charTextures.values()) {
-            if (textureId > 0) {
-                GL11.glDeleteTextures(textureId);
-            }
+        stopCapture();
+        if (glyphAtlas != null) {
+            glyphAtlas.cleanup();
+        }
+        for (OffscreenTarget cache : layerCaches.values()) {
+            cache.delete();
+        }
+        layerCaches.clear();
+        if (worldTarget != null) {
+            worldTarget.delete();
+            worldTarget = null;
+        }
+        if (gpuTimer != null) {
+            gpuTimer.delete();
+            gpuTimer = null;
         }
-        charTextures.clear();
         
         if (window != MemoryUtil.NULL) {
             GLFW.glfwDestroyWindow(window);
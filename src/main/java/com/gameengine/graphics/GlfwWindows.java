@@ -0,0 +1,58 @@
+package com.gameengine.graphics;
+
+import com.gameengine.input.InputManager;
+import org.lwjgl.glfw.GLFW;
+import org.lwjgl.glfw.GLFWVidMode;
+import org.lwjgl.system.MemoryStack;
+
+import java.nio.IntBuffer;
+
+/**
+ * GLFW 窗口的公共设置：居中显示、把键鼠回调转发给 InputManager。
+ * 供 GPURenderer 与 CoreProfileRenderer 共用。
+ */
+final class GlfwWindows {
+    private GlfwWindows() {
+    }
+
+    static void centerOnPrimaryMonitor(long window) {
+        try (MemoryStack stack = MemoryStack.stackPush()) {
+            IntBuffer pWidth = stack.mallocInt(1);
+            IntBuffer pHeight = stack.mallocInt(1);
+
+            GLFW.glfwGetWindowSize(window, pWidth, pHeight);
+
+            GLFWVidMode vidmode = GLFW.glfwGetVideoMode(GLFW.glfwGetPrimaryMonitor());
+
+            if (vidmode != null) {
+                GLFW.glfwSetWindowPos(
+                    window,
+                    (vidmode.width() - pWidth.get(0)) / 2,
+                    (vidmode.height() - pHeight.get(0)) / 2
+                );
+            }
+        }
+    }
+
+    static void installInputCallbacks(long window, InputManager inputManager) {
+        GLFW.glfwSetKeyCallback(window, (w, key, scancode, action, mods) -> {
+            if (action == GLFW.GLFW_PRESS) {
+                inputManager.onKeyPressed(key);
+            } else if (action == GLFW.GLFW_RELEASE) {
+                inputManager.onKeyReleased(key);
+            }
+        });
+
+        GLFW.glfwSetMouseButtonCallback(window, (w, button, action, mods) -> {
+            if (action == GLFW.GLFW_PRESS) {
+                inputManager.onMousePressed(button);
+            } else if (action == GLFW.GLFW_RELEASE) {
+                inputManager.onMouseReleased(button);
+            }
+        });
+
+        GLFW.glfwSetCursorPosCallback(window, (w, xpos, ypos) -> {
+            inputManager.onMouseMoved((int)xpos, (int)ypos);
+        });
+    }
+}
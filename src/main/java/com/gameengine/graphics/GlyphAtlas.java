@@ -0,0 +1,332 @@
+package com.gameengine.graphics;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL12;
+import org.lwjgl.opengl.GL30;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 字形图集：所有字符共用一张单通道覆盖率纹理，按等大格子排布。
+ * 字形由后台线程池栅格化成像素缓冲，GL 线程在每帧开始时按时间预算把完成的字形
+ * 写入空闲格子；尚未就绪的字符先用占位格子（空心方框）绘制。
+ * 除栅格化任务外只能在持有 GL 上下文的线程使用，上传后图集纹理保持绑定。
+ */
+final class GlyphAtlas {
+    static final int ATLAS_SIZE = 1024;
+    // 格子四周各留 1 像素空白，避免线性过滤采样到相邻字形
+    private static final int PADDING = 1;
+    private static final char FIRST_ASCII = 33;
+    private static final char LAST_ASCII = 126;
+
+    // 字符状态：未请求 / 栅格化中 / 图集已满无法收录，其余非负值为格子下标
+    private static final int UNREQUESTED = -1;
+    private static final int PENDING = -2;
+    private static final int FAILED = -3;
+    static final int PLACEHOLDER_CELL = 0;
+
+    // -Dgameengine.glyphUploadBudgetMicros 调整每帧上传预算，默认 1 毫秒
+    private static final long UPLOAD_BUDGET_NANOS =
+        Long.getLong("gameengine.glyphUploadBudgetMicros", 1000L) * 1000L;
+
+    private final int fontSize;
+    private final int cellSize;
+    private final int columns;
+    private final int capacity;
+    private final boolean coreProfile;
+    private final Font font;
+
+    private final int[] asciiCells = new int[128];
+    private final Map<Character, Integer> cells = new HashMap<>();
+    private final float[] uvs;
+    private int used;
+    private int texture;
+    private boolean fullReported;
+
+    private final ExecutorService rasterizer;
+    private final ThreadLocal<BufferedImage> scratch;
+    private final ConcurrentLinkedQueue<RasterizedGlyph> ready = new ConcurrentLinkedQueue<>();
+    // 已请求但尚未上传的字形数，主循环据此判断是否还需要重绘
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final ByteBuffer cellPixels;
+    private int insertions;
+    private int lastUploads;
+    private long lastUploadNanos;
+
+    private static final class RasterizedGlyph {
+        final char c;
+        final byte[] coverage;
+
+        RasterizedGlyph(char c, byte[] coverage) {
+            this.c = c;
+            this.coverage = coverage;
+        }
+    }
+
+    /**
+     * @param coreProfile 核心模式使用 GL_R8/GL_RED（着色器读 r 通道），
+     *                    固定管线使用 GL_ALPHA，配合 GL_MODULATE 直接调制顶点颜色
+     */
+    GlyphAtlas(int fontSize, boolean coreProfile) {
+        this.fontSize = fontSize;
+        this.cellSize = fontSize + PADDING * 2;
+        this.columns = ATLAS_SIZE / cellSize;
+        this.capacity = columns * columns;
+        this.coreProfile = coreProfile;
+        this.font = new Font(Font.MONOSPACED, Font.BOLD, fontSize);
+        this.uvs = new float[capacity * 4];
+        this.cellPixels = BufferUtils.createByteBuffer(cellSize * cellSize);
+        this.scratch = ThreadLocal.withInitial(
+            () -> new BufferedImage(fontSize, fontSize, BufferedImage.TYPE_INT_ARGB));
+        Arrays.fill(asciiCells, UNREQUESTED);
+
+        int threads = Math.max(1, Math.min(4, Runtime.getRuntime().availableProcessors() - 1));
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.rasterizer = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "glyph-raster-" + threadIndex.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    /**
+     * 创建纹理（只含占位格子），并把 ASCII 可见字符提交给后台栅格化，不阻塞启动。
+     */
+    void create() {
+        int cell = allocate();
+        ByteBuffer pixels = BufferUtils.createByteBuffer(ATLAS_SIZE * ATLAS_SIZE);
+        byte[] placeholder = placeholderCoverage();
+        int originX = (cell % columns) * cellSize + PADDING;
+        int originY = (cell / columns) * cellSize + PADDING;
+        for (int row = 0; row < fontSize; row++) {
+            pixels.position((originY + row) * ATLAS_SIZE + originX);
+            pixels.put(placeholder, row * fontSize, fontSize);
+        }
+        pixels.clear();
+
+        texture = GL11.glGenTextures();
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, texture);
+        GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
+        GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, coreProfile ? GL30.GL_R8 : GL11.GL_ALPHA,
+            ATLAS_SIZE, ATLAS_SIZE, 0, pixelFormat(), GL11.GL_UNSIGNED_BYTE, pixels);
+
+        for (char c = FIRST_ASCII; c <= LAST_ASCII; c++) {
+            request(c);
+        }
+    }
+
+    /**
+     * 返回字符所在格子；尚未就绪的字符提交栅格化并返回占位格子，图集已满时返回 -1。
+     */
+    int cellFor(char c) {
+        int state = state(c);
+        if (state >= 0) {
+            return state;
+        }
+        if (state == FAILED) {
+            return -1;
+        }
+        if (state == UNREQUESTED) {
+            request(c);
+        }
+        return PLACEHOLDER_CELL;
+    }
+
+    private int state(char c) {
+        if (c < 128) {
+            return asciiCells[c];
+        }
+        Integer state = cells.get(c);
+        return state != null ? state : UNREQUESTED;
+    }
+
+    private void setState(char c, int state) {
+        if (c < 128) {
+            asciiCells[c] = state;
+        } else {
+            cells.put(c, state);
+        }
+    }
+
+    private void request(char c) {
+        setState(c, PENDING);
+        outstanding.incrementAndGet();
+        try {
+            rasterizer.execute(() -> ready.add(new RasterizedGlyph(c, rasterize(c))));
+        } catch (RejectedExecutionException e) {
+            // 已 cleanup，不再收录新字形
+            setState(c, FAILED);
+            outstanding.decrementAndGet();
+        }
+    }
+
+    /**
+     * 在 GL 线程上传已栅格化完成的字形，耗时达到预算即停止，剩余的留到下一帧；
+     * 每次至少上传一个，保证在预算很小时也能推进。返回本次上传的字形数。
+     */
+    int uploadPending() {
+        long start = System.nanoTime();
+        int uploaded = 0;
+        RasterizedGlyph glyph;
+        while ((glyph = ready.poll()) != null) {
+            upload(glyph);
+            uploaded++;
+            if (System.nanoTime() - start >= UPLOAD_BUDGET_NANOS) {
+                break;
+            }
+        }
+        lastUploads = uploaded;
+        lastUploadNanos = uploaded > 0 ? System.nanoTime() - start : 0;
+        return uploaded;
+    }
+
+    private void upload(RasterizedGlyph glyph) {
+        outstanding.decrementAndGet();
+        if (used == capacity) {
+            if (!fullReported) {
+                System.err.println("字形图集已满（" + capacity + " 个字形），字符 '" + glyph.c + "' 将不显示");
+                fullReported = true;
+            }
+            setState(glyph.c, FAILED);
+            return;
+        }
+        int cell = allocate();
+
+        cellPixels.clear();
+        for (int row = 0; row < cellSize; row++) {
+            for (int col = 0; col < cellSize; col++) {
+                int gx = col - PADDING;
+                int gy = row - PADDING;
+                boolean inside = gx >= 0 && gy >= 0 && gx < fontSize && gy < fontSize;
+                cellPixels.put(inside ? glyph.coverage[gy * fontSize + gx] : 0);
+            }
+        }
+        cellPixels.flip();
+
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, texture);
+        GL11.glPixelStorei(GL11.GL_UNPACK_ALIGNMENT, 1);
+        GL11.glTexSubImage2D(GL11.GL_TEXTURE_2D, 0, (cell % columns) * cellSize, (cell / columns) * cellSize,
+            cellSize, cellSize, pixelFormat(), GL11.GL_UNSIGNED_BYTE, cellPixels);
+        setState(glyph.c, cell);
+        insertions++;
+    }
+
+    private int allocate() {
+        int cell = used++;
+        float u0 = (float) ((cell % columns) * cellSize + PADDING) / ATLAS_SIZE;
+        float v0 = (float) ((cell / columns) * cellSize + PADDING) / ATLAS_SIZE;
+        float extent = (float) fontSize / ATLAS_SIZE;
+        uvs[cell * 4] = u0;
+        uvs[cell * 4 + 1] = v0;
+        uvs[cell * 4 + 2] = u0 + extent;
+        uvs[cell * 4 + 3] = v0 + extent;
+        return cell;
+    }
+
+    /**
+     * 与原先逐字符纹理相同的字形绘制方式：字符居中于 fontSize 见方的格子，只保留覆盖率。
+     * 在栅格化线程上执行，每个线程使用自己的临时图像。
+     */
+    private byte[] rasterize(char c) {
+        BufferedImage img = scratch.get();
+        Graphics2D g2d = img.createGraphics();
+        g2d.setComposite(AlphaComposite.Clear);
+        g2d.fillRect(0, 0, fontSize, fontSize);
+        g2d.setComposite(AlphaComposite.SrcOver);
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(font);
+        FontMetrics fm = g2d.getFontMetrics();
+        int x = (fontSize - fm.charWidth(c)) / 2;
+        int y = (fontSize - fm.getHeight()) / 2 + fm.getAscent();
+        g2d.drawString(String.valueOf(c), x, y);
+        g2d.dispose();
+
+        int[] argb = img.getRGB(0, 0, fontSize, fontSize, null, 0, fontSize);
+        byte[] out = new byte[argb.length];
+        for (int i = 0; i < argb.length; i++) {
+            out[i] = (byte) (argb[i] >>> 24);
+        }
+        return out;
+    }
+
+    // 占位字形：半透明空心方框，宽度与等宽字符的可见区域相当
+    private byte[] placeholderCoverage() {
+        byte[] out = new byte[fontSize * fontSize];
+        int left = fontSize / 5;
+        int right = fontSize - left - 1;
+        int top = fontSize / 6;
+        int bottom = fontSize - top - 1;
+        int thickness = Math.max(1, fontSize / 16);
+        for (int y = top; y <= bottom; y++) {
+            for (int x = left; x <= right; x++) {
+                boolean edge = x < left + thickness || x > right - thickness
+                    || y < top + thickness || y > bottom - thickness;
+                if (edge) {
+                    out[y * fontSize + x] = (byte) 128;
+                }
+            }
+        }
+        return out;
+    }
+
+    private int pixelFormat() {
+        return coreProfile ? GL11.GL_RED : GL11.GL_ALPHA;
+    }
+
+    int getTexture() {
+        return texture;
+    }
+
+    /** 按格子下标 * 4 排列的纹理坐标 u0, v0, u1, v1 */
+    float[] uvs() {
+        return uvs;
+    }
+
+    int getGlyphCount() {
+        return used - 1;
+    }
+
+    /** 已上传的字形数（不含占位格子） */
+    int getInsertions() {
+        return insertions;
+    }
+
+    /** 已请求但尚未上传的字形数，可在任意线程读取 */
+    int getOutstanding() {
+        return outstanding.get();
+    }
+
+    int getLastUploads() {
+        return lastUploads;
+    }
+
+    long getLastUploadNanos() {
+        return lastUploadNanos;
+    }
+
+    void cleanup() {
+        rasterizer.shutdownNow();
+        ready.clear();
+        if (texture != 0) {
+            GL11.glDeleteTextures(texture);
+            texture = 0;
+        }
+    }
+}
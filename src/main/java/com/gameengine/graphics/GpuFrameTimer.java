@@ -0,0 +1,67 @@
+package com.gameengine.graphics;
+
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL33;
+import org.lwjgl.opengl.GLCapabilities;
+
+/**
+ * 用 GL_TIME_ELAPSED 查询测量每帧的 GPU 耗时。查询对象组成环形队列，
+ * 只读取已经完成的结果，从不等待 GPU；队列满时跳过该帧的测量。只能在 GL 线程使用。
+ */
+final class GpuFrameTimer {
+    private static final int RING = 4;
+
+    private final int[] queries = new int[RING];
+    private int writeIndex;
+    private int readIndex;
+    private int pending;
+    private boolean measuring;
+
+    static boolean isSupported(GLCapabilities capabilities) {
+        return capabilities != null && (capabilities.OpenGL33 || capabilities.GL_ARB_timer_query);
+    }
+
+    GpuFrameTimer() {
+        for (int i = 0; i < RING; i++) {
+            queries[i] = GL15.glGenQueries();
+        }
+    }
+
+    void begin() {
+        measuring = pending < RING;
+        if (measuring) {
+            GL15.glBeginQuery(GL33.GL_TIME_ELAPSED, queries[writeIndex]);
+        }
+    }
+
+    void end() {
+        if (!measuring) return;
+        GL15.glEndQuery(GL33.GL_TIME_ELAPSED);
+        writeIndex = (writeIndex + 1) % RING;
+        pending++;
+        measuring = false;
+    }
+
+    /**
+     * 取出所有已完成的测量，返回其中最新的一次（纳秒）；没有新结果时返回 -1。
+     */
+    long poll() {
+        long latest = -1;
+        while (pending > 0) {
+            int query = queries[readIndex];
+            if (GL15.glGetQueryObjecti(query, GL15.GL_QUERY_RESULT_AVAILABLE) == 0) {
+                break;
+            }
+            latest = GL33.glGetQueryObjecti64(query, GL15.GL_QUERY_RESULT);
+            readIndex = (readIndex + 1) % RING;
+            pending--;
+        }
+        return latest;
+    }
+
+    void delete() {
+        for (int query : queries) {
+            GL15.glDeleteQueries(query);
+        }
+    }
+}
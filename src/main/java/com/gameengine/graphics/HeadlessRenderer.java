@@ -0,0 +1,154 @@
+package com.gameengine.graphics;
+
+/**
+ * 无窗口渲染器：不依赖 LWJGL/GLFW，所有绘制都是空操作，用于服务器压测、机器人和 CI。
+ * 可选地按图元类型统计绘制次数（默认关闭，开启后每次绘制只多一次自增）。
+ */
+public class HeadlessRenderer implements IRenderer {
+    private final int width;
+    private final int height;
+    private final String title;
+    private boolean countDrawCalls;
+    private volatile boolean closeRequested;
+
+    private long frames;
+    private long rects;
+    private long circles;
+    private long lines;
+    private long texts;
+
+    public HeadlessRenderer(int width, int height, String title) {
+        this(width, height, title, false);
+    }
+
+    public HeadlessRenderer(int width, int height, String title, boolean countDrawCalls) {
+        this.width = width;
+        this.height = height;
+        this.title = title;
+        this.countDrawCalls = countDrawCalls;
+    }
+
+    @Override
+    public void beginFrame() {
+    }
+
+    @Override
+    public void endFrame() {
+        frames++;
+    }
+
+    @Override
+    public void drawRect(float x, float y, float width, float height, float r, float g, float b, float a) {
+        if (countDrawCalls) rects++;
+    }
+
+    @Override
+    public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
+        if (countDrawCalls) circles++;
+    }
+
+    @Override
+    public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
+        if (countDrawCalls) lines++;
+    }
+
+    @Override
+    public void drawText(float x, float y, String text, float r, float g, float b, float a) {
+        if (countDrawCalls) texts++;
+    }
+
+    @Override
+    public void bindContext() {
+    }
+
+    @Override
+    public void releaseContext() {
+    }
+
+    @Override
+    public void setVSync(boolean enabled) {
+    }
+
+    @Override
+    public boolean shouldClose() {
+        return closeRequested;
+    }
+
+    /** 让主循环在下一帧退出（无窗口时代替关闭窗口）。 */
+    public void requestClose() {
+        closeRequested = true;
+    }
+
+    @Override
+    public void pollEvents() {
+    }
+
+    @Override
+    public void waitEvents(double timeoutSeconds) {
+        // 没有事件源，立即返回
+    }
+
+    @Override
+    public void wakeUp() {
+    }
+
+    @Override
+    public void cleanup() {
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+
+    public void setCountDrawCalls(boolean countDrawCalls) {
+        this.countDrawCalls = countDrawCalls;
+    }
+
+    public boolean isCountDrawCalls() {
+        return countDrawCalls;
+    }
+
+    public void resetCounters() {
+        frames = 0;
+        rects = 0;
+        circles = 0;
+        lines = 0;
+        texts = 0;
+    }
+
+    public long getFrameCount() {
+        return frames;
+    }
+
+    public long getRectCount() {
+        return rects;
+    }
+
+    public long getCircleCount() {
+        return circles;
+    }
+
+    public long getLineCount() {
+        return lines;
+    }
+
+    public long getTextCount() {
+        return texts;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("frames=%d rects=%d circles=%d lines=%d texts=%d", frames, rects, circles, lines, texts);
+    }
+}
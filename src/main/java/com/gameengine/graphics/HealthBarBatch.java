@@ -0,0 +1,78 @@
+package com.gameengine.graphics;
+
+import java.util.Arrays;
+
+/**
+ * 一批血条：每条保存位置、尺寸、血量比例与前景/背景颜色，连续存放在一个浮点数组中。
+ * Scene 每层收集一批，用一次 IRenderer.drawHealthBars 提交，而不是每个对象单独绘制。
+ * 容量按需增长后复用，clear 不释放数组。
+ */
+public final class HealthBarBatch {
+    // x, y, w, h, fraction, 前景 rgba, 背景 rgba
+    public static final int STRIDE = 13;
+
+    private float[] data = new float[64 * STRIDE];
+    private int count;
+
+    public void add(float x, float y, float width, float height, float fraction,
+                    float r, float g, float b, float a,
+                    float bgR, float bgG, float bgB, float bgA) {
+        int base = count * STRIDE;
+        if (base + STRIDE > data.length) {
+            data = Arrays.copyOf(data, data.length * 2);
+        }
+        float[] d = data;
+        d[base] = x;
+        d[base + 1] = y;
+        d[base + 2] = width;
+        d[base + 3] = height;
+        d[base + 4] = fraction;
+        d[base + 5] = r;
+        d[base + 6] = g;
+        d[base + 7] = b;
+        d[base + 8] = a;
+        d[base + 9] = bgR;
+        d[base + 10] = bgG;
+        d[base + 11] = bgB;
+        d[base + 12] = bgA;
+        count++;
+    }
+
+    /** 复制另一批的全部血条，覆盖当前内容。 */
+    public void copyFrom(HealthBarBatch other) {
+        int floats = other.count * STRIDE;
+        if (data.length < floats) {
+            data = new float[Math.max(floats, data.length * 2)];
+        }
+        System.arraycopy(other.data, 0, data, 0, floats);
+        count = other.count;
+    }
+
+    // 把位置与尺寸换算到屏幕坐标
+    void transform(ViewTransform view) {
+        int floats = count * STRIDE;
+        for (int base = 0; base < floats; base += STRIDE) {
+            data[base] = view.x(data[base]);
+            data[base + 1] = view.y(data[base + 1]);
+            data[base + 2] = view.length(data[base + 2]);
+            data[base + 3] = view.length(data[base + 3]);
+        }
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    /** 第 i 条的起始下标为 i * STRIDE。 */
+    public float[] data() {
+        return data;
+    }
+}
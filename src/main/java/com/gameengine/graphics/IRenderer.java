@@ -1,6 +1,12 @@
 package com.gameengine.graphics;
 
 public interface IRenderer {
+    /** 渲染层：层号小的先画，同层内按提交顺序（开启命令缓冲时按状态排序）。 */
+    int LAYER_BACKGROUND = 0;
+    int LAYER_WORLD = 10;
+    int LAYER_HUD = 20;
+    int LAYER_OVERLAY = 30;
+    
     void beginFrame();
     void endFrame();
     
@@ -9,8 +15,78 @@ public interface IRenderer {
     void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a);
     void drawText(float x, float y, String text, float r, float g, float b, float a);
     
+    /**
+     * 绘制血条：整条背景加上按 fraction（0~1）截取的前景。
+     * 默认实现为两次 drawRect，后端可合并为一个图元。
+     */
+    default void drawHealthBar(float x, float y, float width, float height, float fraction,
+                               float r, float g, float b, float a,
+                               float bgR, float bgG, float bgB, float bgA) {
+        drawRect(x, y, width, height, bgR, bgG, bgB, bgA);
+        drawRect(x, y, width * fraction, height, r, g, b, a);
+    }
+    
+    /**
+     * 一次提交一批血条。默认逐条调用 drawHealthBar，后端可在一次遍历中写入同一批次。
+     */
+    default void drawHealthBars(HealthBarBatch bars) {
+        float[] d = bars.data();
+        int end = bars.size() * HealthBarBatch.STRIDE;
+        for (int i = 0; i < end; i += HealthBarBatch.STRIDE) {
+            drawHealthBar(d[i], d[i + 1], d[i + 2], d[i + 3], d[i + 4],
+                d[i + 5], d[i + 6], d[i + 7], d[i + 8], d[i + 9], d[i + 10], d[i + 11], d[i + 12]);
+        }
+    }
+    
+    /** 设置后续绘制所在的渲染层（0~127），每帧开始时恢复为 LAYER_WORLD；不排序的后端忽略。 */
+    default void setLayer(int layer) {
+    }
+    
+    /** 设置后续绘制的混合方式，每帧开始时恢复为 ALPHA。 */
+    default void setBlendMode(BlendMode mode) {
+    }
+    
+    /**
+     * 设置世界层的视图变换（屏幕坐标 = 世界坐标 * scale + offset），只作用于 LAYER_HUD 以下的层，
+     * 每帧开始时恢复为恒等变换。文字只变换起点，不缩放字号。
+     */
+    default void setWorldView(float scale, float offsetX, float offsetY) {
+    }
+    
+    /** 是否支持把一个渲染层缓存到离屏纹理（见 beginLayerCache / drawLayerCache）。 */
+    default boolean supportsLayerCache() {
+        return false;
+    }
+    
+    /** 清空 layer 的离屏缓存，之后的绘制写入缓存而不是屏幕，直到 endLayerCache。 */
+    default void beginLayerCache(int layer) {
+    }
+    
+    default void endLayerCache() {
+    }
+    
+    /** 用一个全屏四边形把 layer 的缓存合成到当前帧，不受世界层视图变换影响。 */
+    default void drawLayerCache(int layer) {
+    }
+    
+    /** 让当前线程持有渲染上下文（GL 上下文只能同时在一个线程上生效）。 */
+    void bindContext();
+    /** 当前线程释放渲染上下文，供其他线程 bindContext。 */
+    void releaseContext();
+    
+    /** 开启时 endFrame 的缓冲交换会等待垂直同步。 */
+    void setVSync(boolean enabled);
+    
     boolean shouldClose();
     void pollEvents();
+    /** 阻塞等待输入事件，最长 timeoutSeconds 秒。 */
+    void waitEvents(double timeoutSeconds);
+    /** 唤醒阻塞在 waitEvents 中的线程，可在任意线程调用。 */
+    void wakeUp();
+    /** 是否还有未完成的异步工作（如后台栅格化中的字形），有则静态场景也需继续重绘。 */
+    default boolean hasPendingWork() {
+        return false;
+    }
     void cleanup();
     
     int getWidth();
@@ -0,0 +1,101 @@
+package com.gameengine.graphics;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL12;
+import org.lwjgl.opengl.GL30;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 离屏渲染目标：一个 RGBA8 颜色纹理挂在帧缓冲对象上，绑定后的绘制写入纹理，
+ * 之后可作为普通纹理合成到屏幕。需要 OpenGL 3.0 的帧缓冲接口，只能在 GL 线程使用。
+ */
+final class OffscreenTarget {
+    private final int framebuffer;
+    private final int texture;
+    private int width;
+    private int height;
+
+    private OffscreenTarget(int framebuffer, int texture) {
+        this.framebuffer = framebuffer;
+        this.texture = texture;
+    }
+
+    static OffscreenTarget create(int width, int height) {
+        int texture = GL11.glGenTextures();
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, texture);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MIN_FILTER, GL11.GL_LINEAR);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_MAG_FILTER, GL11.GL_LINEAR);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_S, GL12.GL_CLAMP_TO_EDGE);
+        GL11.glTexParameteri(GL11.GL_TEXTURE_2D, GL11.GL_TEXTURE_WRAP_T, GL12.GL_CLAMP_TO_EDGE);
+
+        int framebuffer = GL30.glGenFramebuffers();
+        OffscreenTarget target = new OffscreenTarget(framebuffer, texture);
+        target.allocate(width, height);
+
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, framebuffer);
+        GL30.glFramebufferTexture2D(GL30.GL_FRAMEBUFFER, GL30.GL_COLOR_ATTACHMENT0, GL11.GL_TEXTURE_2D, texture, 0);
+        int status = GL30.glCheckFramebufferStatus(GL30.GL_FRAMEBUFFER);
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+        if (status != GL30.GL_FRAMEBUFFER_COMPLETE) {
+            target.delete();
+            throw new RuntimeException("离屏帧缓冲不完整: 0x" + Integer.toHexString(status));
+        }
+        return target;
+    }
+
+    private void allocate(int width, int height) {
+        this.width = Math.max(1, width);
+        this.height = Math.max(1, height);
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, texture);
+        GL11.glTexImage2D(GL11.GL_TEXTURE_2D, 0, GL30.GL_RGBA8, this.width, this.height, 0,
+                GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, (ByteBuffer) null);
+    }
+
+    /** 尺寸变化时重新分配纹理存储，帧缓冲的挂接保持不变；内容随之丢失。 */
+    void resize(int width, int height) {
+        if (width == this.width && height == this.height) return;
+        allocate(width, height);
+        GL11.glBindTexture(GL11.GL_TEXTURE_2D, 0);
+    }
+
+    /** 绑定为绘制目标，并把视口设为纹理尺寸。 */
+    void bind() {
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, framebuffer);
+        GL11.glViewport(0, 0, width, height);
+    }
+
+    /** 绑定为绘制目标，只使用纹理左下角 viewportWidth x viewportHeight 的区域。 */
+    void bind(int viewportWidth, int viewportHeight) {
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, framebuffer);
+        GL11.glViewport(0, 0, viewportWidth, viewportHeight);
+    }
+
+    /** 恢复默认帧缓冲（窗口）与窗口视口。 */
+    static void unbind(int screenWidth, int screenHeight) {
+        GL30.glBindFramebuffer(GL30.GL_FRAMEBUFFER, 0);
+        GL11.glViewport(0, 0, screenWidth, screenHeight);
+    }
+
+    int getFramebuffer() {
+        return framebuffer;
+    }
+
+    int getTexture() {
+        return texture;
+    }
+
+    int getWidth() {
+        return width;
+    }
+
+    int getHeight() {
+        return height;
+    }
+
+    void delete() {
+        GL30.glDeleteFramebuffers(framebuffer);
+        GL11.glDeleteTextures(texture);
+    }
+}
@@ -0,0 +1,132 @@
+package com.gameengine.graphics;
+
+import org.lwjgl.opengl.GL11;
+import org.lwjgl.opengl.GL15;
+import org.lwjgl.opengl.GL21;
+import org.lwjgl.opengl.GL32;
+import org.lwjgl.opengl.GLCapabilities;
+
+import java.nio.ByteBuffer;
+
+/**
+ * 用像素缓冲对象（PBO）环异步读回窗口画面，交给 FrameCapture 编码。
+ *
+ * 每帧 glReadPixels 只把像素拷进环中下一个 PBO 就返回，几帧之后 GPU 完成拷贝再映射取出；
+ * 有同步对象时按栅栏判断是否完成，否则至少等到环写满（约 RING-1 帧）再映射。
+ * 环满说明 GPU 拷贝跟不上，该帧直接记为丢弃。只能在 GL 线程使用。
+ */
+final class PixelReadback {
+    private static final int RING = 3;
+
+    private final FrameCapture capture;
+    private final int interval;
+    private final boolean useFences;
+    private final int[] buffers = new int[RING];
+    private final int[] bufferBytes = new int[RING];
+    private final long[] fences = new long[RING];
+    private final int[] widths = new int[RING];
+    private final int[] heights = new int[RING];
+    private final long[] frameIndices = new long[RING];
+    private int writeIndex;
+    private int readIndex;
+    private int pending;
+    private long frameCounter;
+
+    static boolean isSupported(GLCapabilities capabilities) {
+        return capabilities != null && (capabilities.OpenGL21 || capabilities.GL_ARB_pixel_buffer_object);
+    }
+
+    /**
+     * @param interval 每隔多少帧捕获一帧，1 为每帧
+     */
+    PixelReadback(GLCapabilities capabilities, FrameCapture capture, int interval) {
+        this.capture = capture;
+        this.interval = Math.max(1, interval);
+        this.useFences = capabilities.OpenGL32 || capabilities.GL_ARB_sync;
+        for (int i = 0; i < RING; i++) {
+            buffers[i] = GL15.glGenBuffers();
+        }
+    }
+
+    FrameCapture getCapture() {
+        return capture;
+    }
+
+    /**
+     * 在交换缓冲前调用：先取出已完成的读回，再按间隔发起本帧的读回。
+     */
+    void captureFrame(int width, int height) {
+        drain(false);
+        long index = frameCounter++;
+        if (index % interval != 0) return;
+        if (pending == RING) {
+            capture.drop();
+            return;
+        }
+
+        int slot = writeIndex;
+        int bytes = width * height * 4;
+        GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, buffers[slot]);
+        if (bufferBytes[slot] != bytes) {
+            GL15.glBufferData(GL21.GL_PIXEL_PACK_BUFFER, bytes, GL15.GL_STREAM_READ);
+            bufferBytes[slot] = bytes;
+        }
+        // 目标是 PBO 时最后一个参数是缓冲内偏移，调用立即返回
+        GL11.glReadPixels(0, 0, width, height, GL11.GL_RGBA, GL11.GL_UNSIGNED_BYTE, 0L);
+        GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, 0);
+        if (useFences) {
+            fences[slot] = GL32.glFenceSync(GL32.GL_SYNC_GPU_COMMANDS_COMPLETE, 0);
+        }
+        widths[slot] = width;
+        heights[slot] = height;
+        frameIndices[slot] = index;
+        writeIndex = (writeIndex + 1) % RING;
+        pending++;
+    }
+
+    /**
+     * 取出读回结果交给 FrameCapture；wait 为 false 时只取已完成的，为 true 时取出全部（停止捕获时用，可能等待 GPU）。
+     */
+    void drain(boolean wait) {
+        while (pending > 0) {
+            int slot = readIndex;
+            if (!wait) {
+                if (useFences) {
+                    int status = GL32.glClientWaitSync(fences[slot], 0, 0L);
+                    if (status != GL32.GL_ALREADY_SIGNALED && status != GL32.GL_CONDITION_SATISFIED) {
+                        break;
+                    }
+                } else if (pending < RING) {
+                    break;
+                }
+            }
+            if (fences[slot] != 0) {
+                GL32.glDeleteSync(fences[slot]);
+                fences[slot] = 0;
+            }
+
+            GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, buffers[slot]);
+            ByteBuffer pixels = GL15.glMapBuffer(GL21.GL_PIXEL_PACK_BUFFER, GL15.GL_READ_ONLY);
+            if (pixels != null) {
+                capture.submit(pixels, widths[slot], heights[slot], frameIndices[slot]);
+                GL15.glUnmapBuffer(GL21.GL_PIXEL_PACK_BUFFER);
+            } else {
+                capture.drop();
+            }
+            GL15.glBindBuffer(GL21.GL_PIXEL_PACK_BUFFER, 0);
+            readIndex = (readIndex + 1) % RING;
+            pending--;
+        }
+    }
+
+    void delete() {
+        for (int i = 0; i < RING; i++) {
+            if (fences[i] != 0) {
+                GL32.glDeleteSync(fences[i]);
+                fences[i] = 0;
+            }
+            GL15.glDeleteBuffers(buffers[i]);
+        }
+        pending = 0;
+    }
+}
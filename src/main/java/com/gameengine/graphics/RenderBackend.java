@@ -1,6 +1,14 @@
 package com.gameengine.graphics;
 
 public enum RenderBackend {
-    GPU
+    // 驱动支持时使用 OpenGL 3.3 核心模式，否则回退到 GL 2.1 固定管线
+    GPU,
+    // 强制 OpenGL 3.3 核心模式：着色器 + 实例化绘制
+    GPU_CORE,
+    // 强制 GL 2.1 固定管线
+    GPU_LEGACY,
+    // 无窗口、不加载 LWJGL，绘制为空操作
+    HEADLESS,
+    // CPU 光栅化到内存帧缓冲，可导出 PNG
+    SOFTWARE
 }
-
@@ -0,0 +1,317 @@
+package com.gameengine.graphics;
+
+import java.util.Arrays;
+
+/**
+ * 一帧的可渲染状态：按提交顺序保存的图元绘制命令（位置、尺寸、颜色、文字）。
+ * 由模拟线程写入，发布后只由渲染线程读取，同一时刻只属于一个线程。
+ *
+ * 每条命令带一个排序键：层(7 位) | 混合方式(4 位) | 纹理(8 位) | 提交序号(32 位)。
+ * sort 之后按键回放：先按层，同层内把相同混合方式、相同纹理的命令排在一起以减少状态切换，
+ * 状态相同的命令保持提交顺序。矩形、圆、线段共用一个批次，不按图元形状拆分，
+ * 否则同层内不同形状的半透明图元会改变前后遮挡关系。
+ * 世界层的视图变换在记录时换算，保存的坐标都是屏幕坐标，回放无需再设置变换。
+ * 层缓存命令（开始录制、结束录制、合成）排在所属层的最前或最后，不随同层命令重排。
+ */
+final class RenderSnapshot {
+    static final byte RECT = 0;
+    static final byte CIRCLE = 1;
+    static final byte LINE = 2;
+    static final byte TEXT = 3;
+    static final byte LAYER_CACHE_BEGIN = 4;
+    static final byte LAYER_CACHE_END = 5;
+    static final byte LAYER_CACHE_DRAW = 6;
+    // 一批血条，第三个参数为 healthBars 中的下标
+    static final byte HEALTH_BARS = 7;
+
+    // 每条命令占用的浮点数：x, y, w/x2/radius, h/y2/segments, r, g, b, a
+    static final int STRIDE = 8;
+
+    private static final int LAYER_SHIFT = 56;
+    private static final int BLEND_SHIFT = 52;
+    private static final int TEXTURE_SHIFT = 44;
+    private static final long SEQUENCE_MASK = 0xFFFFFFFFL;
+    // 纹理槽：0 为无纹理，1 为字形图集
+    private static final long TEXTURE_GLYPHS = 1L << TEXTURE_SHIFT;
+    // 层缓存的结束与合成命令使用最大的混合方式与纹理位，排在同层所有绘制之后
+    private static final long LAYER_TAIL = (0xFL << BLEND_SHIFT) | (0xFFL << TEXTURE_SHIFT);
+    private static final BlendMode[] BLEND_MODES = BlendMode.values();
+
+    private byte[] ops;
+    private float[] data;
+    private String[] texts;
+    private int count;
+    private int textCount;
+    // 血条批次的副本，跨帧复用
+    private HealthBarBatch[] healthBars = new HealthBarBatch[4];
+    private int healthBarCount;
+    long sequence;
+
+    private long[] keys;
+    private long[] sorted;
+    private boolean isSorted;
+    private long stateBits;
+    private int layer;
+    private BlendMode blendMode;
+    private final ViewTransform view = new ViewTransform();
+    private boolean buildsLayerCache;
+
+    RenderSnapshot() {
+        this.ops = new byte[256];
+        this.data = new float[256 * STRIDE];
+        this.texts = new String[32];
+        this.keys = new long[256];
+        this.sorted = new long[256];
+        resetState();
+    }
+
+    private void resetState() {
+        layer = IRenderer.LAYER_WORLD;
+        blendMode = BlendMode.ALPHA;
+        view.reset();
+        updateStateBits();
+    }
+
+    private void updateStateBits() {
+        stateBits = ((long) layer << LAYER_SHIFT) | ((long) blendMode.ordinal() << BLEND_SHIFT);
+    }
+
+    void setLayer(int layer) {
+        this.layer = Math.max(0, Math.min(127, layer));
+        view.setLayer(this.layer);
+        updateStateBits();
+    }
+
+    void setBlendMode(BlendMode mode) {
+        this.blendMode = mode != null ? mode : BlendMode.ALPHA;
+        updateStateBits();
+    }
+
+    void setWorldView(float scale, float offsetX, float offsetY) {
+        view.set(scale, offsetX, offsetY);
+    }
+
+    void reset() {
+        // 只清空文字引用，浮点数据直接覆盖
+        Arrays.fill(texts, 0, textCount, null);
+        count = 0;
+        textCount = 0;
+        healthBarCount = 0;
+        isSorted = false;
+        buildsLayerCache = false;
+        resetState();
+    }
+
+    void add(byte op, float a0, float a1, float a2, float a3, float r, float g, float b, float a) {
+        if (count == ops.length) {
+            ops = Arrays.copyOf(ops, count * 2);
+            data = Arrays.copyOf(data, count * 2 * STRIDE);
+            keys = Arrays.copyOf(keys, count * 2);
+        }
+        if (view.isActive() && op != HEALTH_BARS) {
+            a0 = view.x(a0);
+            a1 = view.y(a1);
+            if (op == RECT) {
+                a2 = view.length(a2);
+                a3 = view.length(a3);
+            } else if (op == CIRCLE) {
+                a2 = view.length(a2);
+            } else if (op == LINE) {
+                a2 = view.x(a2);
+                a3 = view.y(a3);
+            }
+        }
+        keys[count] = stateBits | (op == TEXT ? TEXTURE_GLYPHS : 0L) | count;
+        int base = count * STRIDE;
+        ops[count++] = op;
+        data[base] = a0;
+        data[base + 1] = a1;
+        data[base + 2] = a2;
+        data[base + 3] = a3;
+        data[base + 4] = r;
+        data[base + 5] = g;
+        data[base + 6] = b;
+        data[base + 7] = a;
+    }
+
+    /** 记录 layer 的层缓存命令，不经过视图变换。 */
+    void addLayerCache(byte op, int layer) {
+        if (count == ops.length) {
+            ops = Arrays.copyOf(ops, count * 2);
+            data = Arrays.copyOf(data, count * 2 * STRIDE);
+            keys = Arrays.copyOf(keys, count * 2);
+        }
+        layer = Math.max(0, Math.min(127, layer));
+        long layerBits = (long) layer << LAYER_SHIFT;
+        keys[count] = (op == LAYER_CACHE_BEGIN ? layerBits : layerBits | LAYER_TAIL) | count;
+        data[count * STRIDE] = layer;
+        ops[count++] = op;
+        if (op == LAYER_CACHE_BEGIN) {
+            buildsLayerCache = true;
+        }
+    }
+
+    /** 本帧是否重建了某个层缓存；这样的帧不能被渲染线程跳过。 */
+    boolean buildsLayerCache() {
+        return buildsLayerCache;
+    }
+
+    void addText(float x, float y, String text, float r, float g, float b, float a) {
+        if (textCount == texts.length) {
+            texts = Arrays.copyOf(texts, textCount * 2);
+        }
+        // 文字命令的第三个参数保存文字下标
+        add(TEXT, x, y, textCount, 0, r, g, b, a);
+        texts[textCount++] = text;
+    }
+
+    /** 复制一批血条并记录为一条命令；世界层的视图变换在复制时换算。 */
+    void addHealthBars(HealthBarBatch bars) {
+        if (bars.isEmpty()) return;
+        if (healthBarCount == healthBars.length) {
+            healthBars = Arrays.copyOf(healthBars, healthBarCount * 2);
+        }
+        HealthBarBatch copy = healthBars[healthBarCount];
+        if (copy == null) {
+            copy = new HealthBarBatch();
+            healthBars[healthBarCount] = copy;
+        }
+        copy.copyFrom(bars);
+        if (view.isActive()) {
+            copy.transform(view);
+        }
+        // 已在上面换算，add 只对矩形、圆和线段做变换
+        add(HEALTH_BARS, 0, 0, healthBarCount++, 0, 0, 0, 0, 0);
+    }
+
+    int size() {
+        return count;
+    }
+
+    /**
+     * 按排序键重排回放顺序。键已经有序（没有切换层、混合方式或穿插文字）时只做一次线性检查。
+     */
+    void sort() {
+        if (isSorted) return;
+        if (sorted.length < count) {
+            sorted = new long[keys.length];
+        }
+        System.arraycopy(keys, 0, sorted, 0, count);
+        boolean ordered = true;
+        for (int i = 1; i < count && ordered; i++) {
+            ordered = sorted[i - 1] <= sorted[i];
+        }
+        if (!ordered) {
+            Arrays.sort(sorted, 0, count);
+        }
+        isSorted = true;
+    }
+
+    /** 第 k 个回放的命令下标；未排序时即提交顺序。 */
+    int commandAt(int k) {
+        return isSorted ? (int) (sorted[k] & SEQUENCE_MASK) : k;
+    }
+
+    BlendMode blendModeOf(int command) {
+        int bits = (int) (keys[command] >>> BLEND_SHIFT) & 0xF;
+        // 层缓存命令不携带混合方式
+        return bits < BLEND_MODES.length ? BLEND_MODES[bits] : BlendMode.ALPHA;
+    }
+
+    /**
+     * 回放时需要的批次数：相邻命令的混合方式或纹理不同就要切换状态、重新提交。
+     */
+    int batchCount() {
+        int batches = 0;
+        long previous = -1;
+        for (int k = 0; k < count; k++) {
+            long state = keys[commandAt(k)] & ~SEQUENCE_MASK & ~(0x7FL << LAYER_SHIFT);
+            if (state != previous) {
+                batches++;
+                previous = state;
+            }
+        }
+        return batches;
+    }
+
+    byte[] ops() {
+        return ops;
+    }
+
+    /** 按命令下标 * STRIDE 排列的参数数组。 */
+    float[] data() {
+        return data;
+    }
+
+    /** 文字命令对应的字符串，参数为该命令的第三个参数。 */
+    String text(int textIndex) {
+        return texts[textIndex];
+    }
+
+    /**
+     * 按回放顺序把命令交给 target。层变化时先调用 target.setLayer：坐标已在记录时换算，
+     * 但后端依赖层切换安排绘制目标（如动态分辨率在进入 HUD 层前合成世界层）。
+     */
+    void replay(IRenderer target) {
+        BlendMode blend = BlendMode.ALPHA;
+        int layer = -1;
+        for (int k = 0; k < count; k++) {
+            int i = commandAt(k);
+            int commandLayer = (int) (keys[i] >>> LAYER_SHIFT) & 0x7F;
+            if (commandLayer != layer) {
+                layer = commandLayer;
+                target.setLayer(layer);
+            }
+            if (ops[i] >= LAYER_CACHE_BEGIN && ops[i] <= LAYER_CACHE_DRAW) {
+                replayLayerCache(target, ops[i], (int) data[i * STRIDE]);
+                continue;
+            }
+            BlendMode commandBlend = blendModeOf(i);
+            if (commandBlend != blend) {
+                blend = commandBlend;
+                target.setBlendMode(blend);
+            }
+            int base = i * STRIDE;
+            float[] d = data;
+            switch (ops[i]) {
+                case RECT:
+                    target.drawRect(d[base], d[base + 1], d[base + 2], d[base + 3],
+                            d[base + 4], d[base + 5], d[base + 6], d[base + 7]);
+                    break;
+                case CIRCLE:
+                    target.drawCircle(d[base], d[base + 1], d[base + 2], (int) d[base + 3],
+                            d[base + 4], d[base + 5], d[base + 6], d[base + 7]);
+                    break;
+                case LINE:
+                    target.drawLine(d[base], d[base + 1], d[base + 2], d[base + 3],
+                            d[base + 4], d[base + 5], d[base + 6], d[base + 7]);
+                    break;
+                case TEXT:
+                    target.drawText(d[base], d[base + 1], texts[(int) d[base + 2]],
+                            d[base + 4], d[base + 5], d[base + 6], d[base + 7]);
+                    break;
+                case HEALTH_BARS:
+                    target.drawHealthBars(healthBars[(int) d[base + 2]]);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    private static void replayLayerCache(IRenderer target, byte op, int layer) {
+        switch (op) {
+            case LAYER_CACHE_BEGIN:
+                target.beginLayerCache(layer);
+                break;
+            case LAYER_CACHE_END:
+                target.endLayerCache();
+                break;
+            case LAYER_CACHE_DRAW:
+                target.drawLayerCache(layer);
+                break;
+            default:
+                break;
+        }
+    }
+}
@@ -3,9 +3,32 @@ package com.gameengine.graphics;
 public class RendererFactory {
     public static IRenderer createRenderer(RenderBackend backend, int width, int height, String title) {
         if (backend == RenderBackend.GPU) {
+            // -Dgameengine.gl.core=false 可关闭自动选择核心模式
+            if (!"false".equalsIgnoreCase(System.getProperty("gameengine.gl.core"))) {
+                IRenderer core = CoreProfileRenderer.tryCreate(width, height, title);
+                if (core != null) {
+                    return core;
+                }
+                System.out.println("驱动不支持 OpenGL 3.3 核心模式，回退到固定管线渲染器");
+            }
             return new GPURenderer(width, height, title);
         }
+        if (backend == RenderBackend.GPU_CORE) {
+            IRenderer core = CoreProfileRenderer.tryCreate(width, height, title);
+            if (core == null) {
+                throw new IllegalStateException("无法创建 OpenGL 3.3 核心模式上下文");
+            }
+            return core;
+        }
+        if (backend == RenderBackend.GPU_LEGACY) {
+            return new GPURenderer(width, height, title);
+        }
+        if (backend == RenderBackend.HEADLESS) {
+            return new HeadlessRenderer(width, height, title, Boolean.getBoolean("gameengine.headless.countDrawCalls"));
+        }
+        if (backend == RenderBackend.SOFTWARE) {
+            return new SoftwareRenderer(width, height, title);
+        }
         throw new IllegalArgumentException("不支持的渲染后端: " + backend);
     }
 }
-
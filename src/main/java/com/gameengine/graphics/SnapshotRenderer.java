@@ -0,0 +1,296 @@
+package com.gameengine.graphics;
+
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 独立渲染线程的前端：模拟线程照常调用 beginFrame、各 draw 方法与 endFrame，但绘制命令只写入
+ * 当前帧的 {@link RenderSnapshot}，endFrame 时发布；渲染线程持有 GL 上下文，取最新快照回放到目标渲染器。
+ *
+ * 三个快照轮转（模拟线程写、待取、渲染线程读），交换只用一次原子 getAndSet，热路径上没有锁。
+ * 渲染线程跟不上时中间帧会被跳过，总是绘制最新的一帧。未 start 时 endFrame 在当前线程同步回放。
+ *
+ * 快照同时是命令缓冲：回放前按排序键（层、混合方式、纹理）排序，减少目标渲染器的状态切换，
+ * 并统计每帧命令数与排序前后的批次数。
+ *
+ * 重建层缓存的帧不能被跳过（之后的帧只合成缓存），发布下一帧前会等渲染线程取走它。
+ */
+public class SnapshotRenderer implements IRenderer {
+    private final IRenderer target;
+    private final AtomicReference<RenderSnapshot> latest;
+    private RenderSnapshot back;  // 模拟线程独占
+    private RenderSnapshot front; // 渲染线程独占
+    private long sequence;
+
+    private Thread thread;
+    private volatile boolean running;
+    private volatile boolean vsync;
+    private volatile long framesPublished;
+    private volatile long framesRendered;
+    private volatile boolean sortCommands = true;
+    private volatile int lastCommandCount;
+    private volatile int lastBatchesUnsorted;
+    private volatile int lastBatches;
+    // 渲染线程最近取走的帧序号；模拟线程据此等待必须回放的帧
+    private volatile long consumedSequence;
+    private long pinnedSequence;
+    // 正在录制的层缓存，结束命令排在该层末尾
+    private int cacheLayer;
+
+    public SnapshotRenderer(IRenderer target) {
+        this.target = target;
+        this.latest = new AtomicReference<>(new RenderSnapshot());
+        this.back = new RenderSnapshot();
+        this.front = new RenderSnapshot();
+    }
+
+    /** 在当前线程释放 GL 上下文并启动渲染线程。 */
+    public void start() {
+        if (running) return;
+        running = true;
+        target.releaseContext();
+        thread = new Thread(this::renderLoop, "render-thread");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /** 停止渲染线程，并把 GL 上下文交还给调用线程。 */
+    public void stop() {
+        if (!running) return;
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+        target.bindContext();
+    }
+
+    private void renderLoop() {
+        target.bindContext();
+        boolean appliedVSync = vsync;
+        target.setVSync(appliedVSync);
+        while (running) {
+            if (latest.get().sequence <= front.sequence) {
+                LockSupport.parkNanos(this, 2_000_000L);
+                continue;
+            }
+            front = latest.getAndSet(front);
+            consumedSequence = front.sequence;
+            if (appliedVSync != vsync) {
+                appliedVSync = vsync;
+                target.setVSync(appliedVSync);
+            }
+            submit(front);
+            framesRendered++;
+        }
+        target.releaseContext();
+    }
+
+    // 在持有上下文的线程上排序并回放一帧
+    private void submit(RenderSnapshot snapshot) {
+        lastCommandCount = snapshot.size();
+        lastBatchesUnsorted = snapshot.batchCount();
+        if (sortCommands) {
+            snapshot.sort();
+            lastBatches = snapshot.batchCount();
+        } else {
+            lastBatches = lastBatchesUnsorted;
+        }
+        target.beginFrame();
+        snapshot.replay(target);
+        target.endFrame();
+    }
+
+    @Override
+    public void beginFrame() {
+        back.reset();
+    }
+
+    @Override
+    public void endFrame() {
+        back.sequence = ++sequence;
+        framesPublished++;
+        if (!running) {
+            submit(back);
+            return;
+        }
+        while (consumedSequence < pinnedSequence && running) {
+            LockSupport.unpark(thread);
+            LockSupport.parkNanos(this, 200_000L);
+        }
+        if (back.buildsLayerCache()) {
+            pinnedSequence = back.sequence;
+        }
+        back = latest.getAndSet(back);
+        LockSupport.unpark(thread);
+    }
+
+    @Override
+    public void drawRect(float x, float y, float width, float height, float r, float g, float b, float a) {
+        back.add(RenderSnapshot.RECT, x, y, width, height, r, g, b, a);
+    }
+
+    @Override
+    public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
+        back.add(RenderSnapshot.CIRCLE, x, y, radius, segments, r, g, b, a);
+    }
+
+    @Override
+    public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
+        back.add(RenderSnapshot.LINE, x1, y1, x2, y2, r, g, b, a);
+    }
+
+    @Override
+    public void drawText(float x, float y, String text, float r, float g, float b, float a) {
+        back.addText(x, y, text, r, g, b, a);
+    }
+
+    @Override
+    public void drawHealthBars(HealthBarBatch bars) {
+        back.addHealthBars(bars);
+    }
+
+    @Override
+    public void setLayer(int layer) {
+        back.setLayer(layer);
+    }
+
+    @Override
+    public void setBlendMode(BlendMode mode) {
+        back.setBlendMode(mode);
+    }
+
+    @Override
+    public void setWorldView(float scale, float offsetX, float offsetY) {
+        back.setWorldView(scale, offsetX, offsetY);
+    }
+
+    @Override
+    public boolean supportsLayerCache() {
+        return target.supportsLayerCache();
+    }
+
+    @Override
+    public void beginLayerCache(int layer) {
+        cacheLayer = layer;
+        back.addLayerCache(RenderSnapshot.LAYER_CACHE_BEGIN, layer);
+    }
+
+    @Override
+    public void endLayerCache() {
+        back.addLayerCache(RenderSnapshot.LAYER_CACHE_END, cacheLayer);
+    }
+
+    @Override
+    public void drawLayerCache(int layer) {
+        back.addLayerCache(RenderSnapshot.LAYER_CACHE_DRAW, layer);
+    }
+
+    /** 关闭后按提交顺序回放（层与混合方式仍然记录），用于对比排序效果。 */
+    public void setSortCommands(boolean sortCommands) {
+        this.sortCommands = sortCommands;
+    }
+
+    public boolean isSortCommands() {
+        return sortCommands;
+    }
+
+    /** 最近回放的一帧的命令数 */
+    public int getLastCommandCount() {
+        return lastCommandCount;
+    }
+
+    /** 最近回放的一帧按提交顺序需要的批次数 */
+    public int getLastBatchesUnsorted() {
+        return lastBatchesUnsorted;
+    }
+
+    /** 最近回放的一帧实际回放顺序下的批次数 */
+    public int getLastBatches() {
+        return lastBatches;
+    }
+
+    @Override
+    public void setVSync(boolean enabled) {
+        this.vsync = enabled;
+        if (!running) {
+            target.setVSync(enabled);
+        }
+    }
+
+    @Override
+    public void bindContext() {
+        // 上下文由渲染线程管理
+    }
+
+    @Override
+    public void releaseContext() {
+    }
+
+    @Override
+    public boolean shouldClose() {
+        return target.shouldClose();
+    }
+
+    @Override
+    public void pollEvents() {
+        target.pollEvents();
+    }
+
+    @Override
+    public void waitEvents(double timeoutSeconds) {
+        target.waitEvents(timeoutSeconds);
+    }
+
+    @Override
+    public void wakeUp() {
+        target.wakeUp();
+    }
+
+    @Override
+    public boolean hasPendingWork() {
+        return target.hasPendingWork();
+    }
+
+    @Override
+    public void cleanup() {
+        stop();
+        target.cleanup();
+    }
+
+    @Override
+    public int getWidth() {
+        return target.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return target.getHeight();
+    }
+
+    @Override
+    public String getTitle() {
+        return target.getTitle();
+    }
+
+    public IRenderer getTarget() {
+        return target;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** 模拟线程发布的帧数。 */
+    public long getFramesPublished() {
+        return framesPublished;
+    }
+
+    /** 渲染线程实际绘制的帧数，小于发布数时说明有帧被跳过。 */
+    public long getFramesRendered() {
+        return framesRendered;
+    }
+}
@@ -0,0 +1,472 @@
+package com.gameengine.graphics;
+
+import javax.imageio.ImageIO;
+import java.awt.AlphaComposite;
+import java.awt.Color;
+import java.awt.Font;
+import java.awt.FontMetrics;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * 软件光栅化渲染器：不需要 GPU，把一帧画进 ARGB int[] 帧缓冲，可导出 PNG。
+ * 绘制调用先记录为命令，endFrame 时把帧缓冲切成 64x64 的瓦片，在 ForkJoinPool 上并行光栅化；
+ * 每个瓦片按与 GPU 后端相同的排序后顺序处理全部命令，因此混合顺序一致。
+ *
+ * 与 GPURenderer 的对应关系：清屏色 (0.2, 0.2, 0.2)，混合 SRC_ALPHA / ONE_MINUS_SRC_ALPHA，
+ * 像素中心采样；圆按精确圆盘填充，线宽 2.5px，文字使用同样的字体与字形布局并双线性采样。
+ * 帧缓冲的 alpha 通道始终为不透明，即屏幕上看到的结果。
+ */
+public class SoftwareRenderer implements IRenderer {
+    private static final int TILE_SIZE = 64;
+    private static final int CLEAR_COLOR = 0xFF333333;
+    private static final float LINE_HALF_WIDTH = 1.25f;
+    private static final int FONT_SIZE = 32;
+    private static final float CHAR_WIDTH = FONT_SIZE * 0.6f;
+    private static final float CHAR_HEIGHT = FONT_SIZE;
+    private static final float CHAR_SPACING = 1.0f;
+
+    private final int width;
+    private final int height;
+    private final String title;
+    private final int[] pixels;
+    private final int tilesX;
+    private final int tilesY;
+    private final RenderSnapshot commands;
+    private final ForkJoinPool pool;
+    private final Font font;
+    // 字形覆盖率（0~1），只在录制线程写入，光栅化时只读
+    private final Map<Character, float[]> glyphs;
+    private volatile boolean closeRequested;
+
+    private long frames;
+    private long lastRasterNanos;
+
+    public SoftwareRenderer(int width, int height, String title) {
+        this(width, height, title, Runtime.getRuntime().availableProcessors());
+    }
+
+    public SoftwareRenderer(int width, int height, String title, int parallelism) {
+        System.setProperty("java.awt.headless", "true");
+        this.width = width;
+        this.height = height;
+        this.title = title;
+        this.pixels = new int[width * height];
+        this.tilesX = (width + TILE_SIZE - 1) / TILE_SIZE;
+        this.tilesY = (height + TILE_SIZE - 1) / TILE_SIZE;
+        this.commands = new RenderSnapshot();
+        this.pool = new ForkJoinPool(Math.max(1, parallelism));
+        this.font = new Font(Font.MONOSPACED, Font.BOLD, FONT_SIZE);
+        this.glyphs = new HashMap<>();
+        Arrays.fill(pixels, CLEAR_COLOR);
+    }
+
+    @Override
+    public void beginFrame() {
+        commands.reset();
+    }
+
+    @Override
+    public void endFrame() {
+        long start = System.nanoTime();
+        // 按层排序；同层内的混合方式分组对 CPU 光栅化没有收益，但保持与 GPU 后端相同的绘制顺序
+        commands.sort();
+        pool.invoke(new TileTask(0, tilesX * tilesY));
+        lastRasterNanos = System.nanoTime() - start;
+        frames++;
+    }
+
+    @Override
+    public void setLayer(int layer) {
+        commands.setLayer(layer);
+    }
+
+    @Override
+    public void setBlendMode(BlendMode mode) {
+        commands.setBlendMode(mode);
+    }
+
+    @Override
+    public void setWorldView(float scale, float offsetX, float offsetY) {
+        commands.setWorldView(scale, offsetX, offsetY);
+    }
+
+    @Override
+    public void drawRect(float x, float y, float width, float height, float r, float g, float b, float a) {
+        commands.add(RenderSnapshot.RECT, x, y, width, height, r, g, b, a);
+    }
+
+    @Override
+    public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
+        commands.add(RenderSnapshot.CIRCLE, x, y, radius, segments, r, g, b, a);
+    }
+
+    @Override
+    public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
+        commands.add(RenderSnapshot.LINE, x1, y1, x2, y2, r, g, b, a);
+    }
+
+    @Override
+    public void drawText(float x, float y, String text, float r, float g, float b, float a) {
+        if (text == null || text.isEmpty()) return;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c != ' ' && !glyphs.containsKey(c)) {
+                glyphs.put(c, rasterizeGlyph(c));
+            }
+        }
+        commands.addText(x, y, text, r, g, b, a);
+    }
+
+    // ---- 光栅化 ----
+
+    private final class TileTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final int from;
+        private final int to;
+
+        TileTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 2) {
+                for (int t = from; t < to; t++) {
+                    rasterizeTile(t);
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new TileTask(from, mid), new TileTask(mid, to));
+        }
+    }
+
+    private void rasterizeTile(int tile) {
+        int x0 = (tile % tilesX) * TILE_SIZE;
+        int y0 = (tile / tilesX) * TILE_SIZE;
+        int x1 = Math.min(x0 + TILE_SIZE, width);
+        int y1 = Math.min(y0 + TILE_SIZE, height);
+        for (int y = y0; y < y1; y++) {
+            Arrays.fill(pixels, y * width + x0, y * width + x1, CLEAR_COLOR);
+        }
+
+        byte[] ops = commands.ops();
+        float[] d = commands.data();
+        int n = commands.size();
+        for (int k = 0; k < n; k++) {
+            int i = commands.commandAt(k);
+            int base = i * RenderSnapshot.STRIDE;
+            int alpha = toByte(d[base + 7]);
+            if (alpha == 0) continue;
+            int rgb = (toByte(d[base + 4]) << 16) | (toByte(d[base + 5]) << 8) | toByte(d[base + 6]);
+            boolean additive = commands.blendModeOf(i) == BlendMode.ADDITIVE;
+            switch (ops[i]) {
+                case RenderSnapshot.RECT:
+                    fillRect(d[base], d[base + 1], d[base + 2], d[base + 3], rgb, alpha, additive, x0, y0, x1, y1);
+                    break;
+                case RenderSnapshot.CIRCLE:
+                    fillCircle(d[base], d[base + 1], d[base + 2], rgb, alpha, additive, x0, y0, x1, y1);
+                    break;
+                case RenderSnapshot.LINE:
+                    fillLine(d[base], d[base + 1], d[base + 2], d[base + 3], rgb, alpha, additive, x0, y0, x1, y1);
+                    break;
+                case RenderSnapshot.TEXT:
+                    fillText(d[base], d[base + 1], commands.text((int) d[base + 2]), rgb, alpha, additive, x0, y0, x1, y1);
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    // 覆盖像素中心落在 [min, max) 内的像素，与 GL 的多边形光栅化规则一致
+    private void fillRect(float x, float y, float w, float h, int rgb, int alpha, boolean additive,
+                          int x0, int y0, int x1, int y1) {
+        float minX = Math.min(x, x + w);
+        float maxX = Math.max(x, x + w);
+        float minY = Math.min(y, y + h);
+        float maxY = Math.max(y, y + h);
+        int px0 = Math.max(x0, (int) Math.ceil(minX - 0.5f));
+        int px1 = Math.min(x1, (int) Math.ceil(maxX - 0.5f));
+        int py0 = Math.max(y0, (int) Math.ceil(minY - 0.5f));
+        int py1 = Math.min(y1, (int) Math.ceil(maxY - 0.5f));
+        if (px0 >= px1) return;
+        if (alpha >= 255 && !additive) {
+            int color = 0xFF000000 | rgb;
+            for (int py = py0; py < py1; py++) {
+                Arrays.fill(pixels, py * width + px0, py * width + px1, color);
+            }
+            return;
+        }
+        for (int py = py0; py < py1; py++) {
+            int row = py * width;
+            for (int px = px0; px < px1; px++) {
+                blend(row + px, rgb, alpha, additive);
+            }
+        }
+    }
+
+    private void fillCircle(float cx, float cy, float radius, int rgb, int alpha, boolean additive,
+                            int x0, int y0, int x1, int y1) {
+        int px0 = Math.max(x0, (int) Math.floor(cx - radius));
+        int px1 = Math.min(x1, (int) Math.ceil(cx + radius) + 1);
+        int py0 = Math.max(y0, (int) Math.floor(cy - radius));
+        int py1 = Math.min(y1, (int) Math.ceil(cy + radius) + 1);
+        float r2 = radius * radius;
+        for (int py = py0; py < py1; py++) {
+            float dy = py + 0.5f - cy;
+            int row = py * width;
+            for (int px = px0; px < px1; px++) {
+                float dx = px + 0.5f - cx;
+                if (dx * dx + dy * dy <= r2) {
+                    blend(row + px, rgb, alpha, additive);
+                }
+            }
+        }
+    }
+
+    private void fillLine(float ax, float ay, float bx, float by, int rgb, int alpha, boolean additive,
+                          int x0, int y0, int x1, int y1) {
+        int px0 = Math.max(x0, (int) Math.floor(Math.min(ax, bx) - LINE_HALF_WIDTH));
+        int px1 = Math.min(x1, (int) Math.ceil(Math.max(ax, bx) + LINE_HALF_WIDTH) + 1);
+        int py0 = Math.max(y0, (int) Math.floor(Math.min(ay, by) - LINE_HALF_WIDTH));
+        int py1 = Math.min(y1, (int) Math.ceil(Math.max(ay, by) + LINE_HALF_WIDTH) + 1);
+        if (px0 >= px1 || py0 >= py1) return;
+        float dx = bx - ax;
+        float dy = by - ay;
+        float lenSq = dx * dx + dy * dy;
+        float hw2 = LINE_HALF_WIDTH * LINE_HALF_WIDTH;
+        for (int py = py0; py < py1; py++) {
+            float cy = py + 0.5f;
+            int row = py * width;
+            for (int px = px0; px < px1; px++) {
+                float cx = px + 0.5f;
+                float t = lenSq > 0 ? ((cx - ax) * dx + (cy - ay) * dy) / lenSq : 0f;
+                if (t < 0f || t > 1f) continue;
+                float ex = ax + dx * t - cx;
+                float ey = ay + dy * t - cy;
+                if (ex * ex + ey * ey <= hw2) {
+                    blend(row + px, rgb, alpha, additive);
+                }
+            }
+        }
+    }
+
+    // 字形布局与 GPURenderer.drawText 相同：每个字符是 CHAR_WIDTH x CHAR_HEIGHT 的四边形
+    private void fillText(float x, float y, String text, int rgb, int alpha, boolean additive,
+                          int x0, int y0, int x1, int y1) {
+        if (y >= y1 || y + CHAR_HEIGHT <= y0) return;
+        float currentX = x;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ' ') {
+                currentX += CHAR_WIDTH * 0.5f;
+                continue;
+            }
+            if (currentX >= x1) break;
+            if (currentX + CHAR_WIDTH > x0) {
+                float[] glyph = glyphs.get(c);
+                if (glyph != null) {
+                    fillGlyph(glyph, currentX, y, rgb, alpha, additive, x0, y0, x1, y1);
+                }
+            }
+            currentX += CHAR_WIDTH + CHAR_SPACING;
+        }
+    }
+
+    private void fillGlyph(float[] glyph, float gx, float gy, int rgb, int alpha, boolean additive,
+                           int x0, int y0, int x1, int y1) {
+        int px0 = Math.max(x0, (int) Math.ceil(gx - 0.5f));
+        int px1 = Math.min(x1, (int) Math.ceil(gx + CHAR_WIDTH - 0.5f));
+        int py0 = Math.max(y0, (int) Math.ceil(gy - 0.5f));
+        int py1 = Math.min(y1, (int) Math.ceil(gy + CHAR_HEIGHT - 0.5f));
+        float su = FONT_SIZE / CHAR_WIDTH;
+        float sv = FONT_SIZE / CHAR_HEIGHT;
+        for (int py = py0; py < py1; py++) {
+            float v = (py + 0.5f - gy) * sv - 0.5f;
+            int row = py * width;
+            for (int px = px0; px < px1; px++) {
+                float u = (px + 0.5f - gx) * su - 0.5f;
+                float coverage = sampleBilinear(glyph, u, v);
+                if (coverage <= 0f) continue;
+                blend(row + px, rgb, (int) (coverage * alpha + 0.5f), additive);
+            }
+        }
+    }
+
+    private static float sampleBilinear(float[] glyph, float u, float v) {
+        int iu = (int) Math.floor(u);
+        int iv = (int) Math.floor(v);
+        float fu = u - iu;
+        float fv = v - iv;
+        float a = texel(glyph, iu, iv);
+        float b = texel(glyph, iu + 1, iv);
+        float c = texel(glyph, iu, iv + 1);
+        float d = texel(glyph, iu + 1, iv + 1);
+        float top = a + (b - a) * fu;
+        float bottom = c + (d - c) * fu;
+        return top + (bottom - top) * fv;
+    }
+
+    private static float texel(float[] glyph, int u, int v) {
+        u = Math.max(0, Math.min(FONT_SIZE - 1, u));
+        v = Math.max(0, Math.min(FONT_SIZE - 1, v));
+        return glyph[v * FONT_SIZE + u];
+    }
+
+    // SRC_ALPHA / ONE_MINUS_SRC_ALPHA，叠加模式为 SRC_ALPHA / ONE；alpha 取 0~255
+    private void blend(int index, int rgb, int alpha, boolean additive) {
+        if (additive) {
+            int dst = pixels[index];
+            int r = Math.min(255, ((dst >>> 16) & 0xFF) + div255(((rgb >>> 16) & 0xFF) * alpha));
+            int g = Math.min(255, ((dst >>> 8) & 0xFF) + div255(((rgb >>> 8) & 0xFF) * alpha));
+            int b = Math.min(255, (dst & 0xFF) + div255((rgb & 0xFF) * alpha));
+            pixels[index] = 0xFF000000 | (r << 16) | (g << 8) | b;
+            return;
+        }
+        if (alpha >= 255) {
+            pixels[index] = 0xFF000000 | rgb;
+            return;
+        }
+        int dst = pixels[index];
+        int inv = 255 - alpha;
+        int r = div255(((rgb >>> 16) & 0xFF) * alpha + ((dst >>> 16) & 0xFF) * inv);
+        int g = div255(((rgb >>> 8) & 0xFF) * alpha + ((dst >>> 8) & 0xFF) * inv);
+        int b = div255((rgb & 0xFF) * alpha + (dst & 0xFF) * inv);
+        pixels[index] = 0xFF000000 | (r << 16) | (g << 8) | b;
+    }
+
+    // 对 [0, 255*255] 内的值等价于四舍五入的 v / 255
+    private static int div255(int v) {
+        v += 128;
+        return (v + (v >>> 8)) >>> 8;
+    }
+
+    private static int toByte(float v) {
+        if (v <= 0f) return 0;
+        if (v >= 1f) return 255;
+        return (int) (v * 255f + 0.5f);
+    }
+
+    // 与 GPURenderer.createCharTexture 相同的字形绘制方式，只保留覆盖率
+    private float[] rasterizeGlyph(char c) {
+        BufferedImage img = new BufferedImage(FONT_SIZE, FONT_SIZE, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g2d = img.createGraphics();
+        g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+        g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+        g2d.setComposite(AlphaComposite.Clear);
+        g2d.fillRect(0, 0, FONT_SIZE, FONT_SIZE);
+        g2d.setComposite(AlphaComposite.SrcOver);
+        g2d.setColor(Color.WHITE);
+        g2d.setFont(font);
+        FontMetrics fm = g2d.getFontMetrics();
+        int x = (FONT_SIZE - fm.charWidth(c)) / 2;
+        int y = (FONT_SIZE - fm.getHeight()) / 2 + fm.getAscent();
+        g2d.drawString(String.valueOf(c), x, y);
+        g2d.dispose();
+
+        int[] argb = new int[FONT_SIZE * FONT_SIZE];
+        img.getRGB(0, 0, FONT_SIZE, FONT_SIZE, argb, 0, FONT_SIZE);
+        float[] coverage = new float[argb.length];
+        for (int i = 0; i < argb.length; i++) {
+            coverage[i] = ((argb[i] >>> 24) & 0xFF) / 255f;
+        }
+        return coverage;
+    }
+
+    // ---- 输出 ----
+
+    /** 当前帧缓冲（行优先 ARGB），内容在下一次 endFrame 前有效。 */
+    public int[] getPixels() {
+        return pixels;
+    }
+
+    public BufferedImage toImage() {
+        BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        img.setRGB(0, 0, width, height, pixels, 0, width);
+        return img;
+    }
+
+    public void writePng(File file) throws IOException {
+        File parent = file.getAbsoluteFile().getParentFile();
+        if (parent != null) {
+            parent.mkdirs();
+        }
+        ImageIO.write(toImage(), "png", file);
+    }
+
+    /** 最近一帧光栅化耗时（纳秒）。 */
+    public long getLastRasterNanos() {
+        return lastRasterNanos;
+    }
+
+    public long getFrameCount() {
+        return frames;
+    }
+
+    // ---- 窗口相关接口：没有窗口，均为空操作 ----
+
+    @Override
+    public void bindContext() {
+    }
+
+    @Override
+    public void releaseContext() {
+    }
+
+    @Override
+    public void setVSync(boolean enabled) {
+    }
+
+    @Override
+    public boolean shouldClose() {
+        return closeRequested;
+    }
+
+    public void requestClose() {
+        closeRequested = true;
+    }
+
+    @Override
+    public void pollEvents() {
+    }
+
+    @Override
+    public void waitEvents(double timeoutSeconds) {
+    }
+
+    @Override
+    public void wakeUp() {
+    }
+
+    @Override
+    public void cleanup() {
+        pool.shutdown();
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+}
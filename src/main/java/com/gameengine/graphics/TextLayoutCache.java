@@ -0,0 +1,120 @@
+package com.gameengine.graphics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 文字排版缓存：按字符串缓存排好的字形四边形（相对起点的横向位置与图集纹理坐标），
+ * 最近最少使用的条目先淘汰。每个缓存绑定一个字形图集，字体与字号由图集确定。
+ * 含占位字形的排版不入缓存，字形就绪后重新排版。只能在 GL 线程使用。
+ */
+final class TextLayoutCache {
+    // 每个字形：x0, x1, u0, v0, u1, v1
+    static final int QUAD_FLOATS = 6;
+
+    /** 一个字符串的排版结果，x 坐标相对于绘制起点 */
+    static final class TextLayout {
+        final float[] quads;
+        final int glyphCount;
+
+        TextLayout(float[] quads, int glyphCount) {
+            this.quads = quads;
+            this.glyphCount = glyphCount;
+        }
+    }
+
+    private final GlyphAtlas atlas;
+    private final float charWidth;
+    private final float spacing;
+    private final Map<String, TextLayout> layouts;
+    private float[] scratch = new float[64 * QUAD_FLOATS];
+
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    TextLayoutCache(GlyphAtlas atlas, float charWidth, float spacing, int capacity) {
+        this.atlas = atlas;
+        this.charWidth = charWidth;
+        this.spacing = spacing;
+        this.layouts = new LinkedHashMap<String, TextLayout>(capacity * 4 / 3 + 1, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, TextLayout> eldest) {
+                if (size() > capacity) {
+                    evictions++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    TextLayout get(String text) {
+        TextLayout layout = layouts.get(text);
+        if (layout != null) {
+            hits++;
+            return layout;
+        }
+        misses++;
+        return layout(text);
+    }
+
+    private TextLayout layout(String text) {
+        float[] uvs = atlas.uvs();
+        int needed = text.length() * QUAD_FLOATS;
+        if (scratch.length < needed) {
+            scratch = new float[needed];
+        }
+
+        int count = 0;
+        boolean complete = true;
+        float currentX = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ' ') {
+                currentX += charWidth * 0.5f;
+                continue;
+            }
+            int cell = atlas.cellFor(c);
+            if (cell == GlyphAtlas.PLACEHOLDER_CELL) {
+                complete = false;
+            }
+            if (cell >= 0) {
+                int k = cell * 4;
+                int q = count * QUAD_FLOATS;
+                scratch[q] = currentX;
+                scratch[q + 1] = currentX + charWidth;
+                scratch[q + 2] = uvs[k];
+                scratch[q + 3] = uvs[k + 1];
+                scratch[q + 4] = uvs[k + 2];
+                scratch[q + 5] = uvs[k + 3];
+                count++;
+            }
+            currentX += charWidth + spacing;
+        }
+
+        float[] quads = new float[count * QUAD_FLOATS];
+        System.arraycopy(scratch, 0, quads, 0, quads.length);
+        TextLayout layout = new TextLayout(quads, count);
+        if (complete) {
+            layouts.put(text, layout);
+        }
+        return layout;
+    }
+
+    int size() {
+        return layouts.size();
+    }
+
+    long getHits() {
+        return hits;
+    }
+
+    long getMisses() {
+        return misses;
+    }
+
+    long getEvictions() {
+        return evictions;
+    }
+}
@@ -0,0 +1,171 @@
+package com.gameengine.graphics;
+
+import org.lwjgl.BufferUtils;
+import org.lwjgl.opengl.GL11;
+
+import java.nio.FloatBuffer;
+
+/**
+ * 顶点批处理：把三角形顶点累积到常驻的堆外 FloatBuffer 中，
+ * 仅在状态切换（纹理变化）、缓冲区写满或帧结束时用一次 glDrawArrays 提交。
+ * 顶点格式为交错的 x, y, u, v, r, g, b, a。纹理与数组开关经由 GLStateCache 设置，提交后不再复原。
+ * 只能在持有 GL 上下文的线程使用。
+ */
+final class VertexBatch {
+    static final int FLOATS_PER_VERTEX = 8;
+    private static final int STRIDE_BYTES = FLOATS_PER_VERTEX * 4;
+
+    private final FloatBuffer buffer;
+    private final int maxVertices;
+    private final boolean debug;
+    private final GLStateCache state;
+    private int vertexCount;
+    private int texture;
+
+    // 统计：本帧提交次数、顶点数
+    private int drawCalls;
+    private int verticesDrawn;
+    private int lastDrawCalls;
+    private int lastVerticesDrawn;
+
+    VertexBatch(int maxVertices, boolean debug, GLStateCache state) {
+        // 容量按三角形对齐，保证一次 ensureCapacity 后不会写出半个图元
+        this.maxVertices = Math.max(3, maxVertices - maxVertices % 3);
+        this.debug = debug;
+        this.state = state;
+        this.buffer = BufferUtils.createFloatBuffer(this.maxVertices * FLOATS_PER_VERTEX);
+    }
+
+    void beginFrame() {
+        lastDrawCalls = drawCalls;
+        lastVerticesDrawn = verticesDrawn;
+        drawCalls = 0;
+        verticesDrawn = 0;
+        buffer.clear();
+        vertexCount = 0;
+        texture = 0;
+    }
+
+    /**
+     * 切换纹理（0 表示纯色），发生变化时先提交已累积的顶点。
+     */
+    void setTexture(int textureId) {
+        if (textureId != texture) {
+            flush();
+            texture = textureId;
+        }
+    }
+
+    /**
+     * 保证还能再写入 vertices 个顶点，不够则先提交。
+     */
+    void ensureCapacity(int vertices) {
+        if (vertexCount + vertices > maxVertices) {
+            flush();
+        }
+    }
+
+    int getMaxVertices() {
+        return maxVertices;
+    }
+
+    void vertex(float x, float y, float u, float v, float r, float g, float b, float a) {
+        buffer.put(x).put(y).put(u).put(v).put(r).put(g).put(b).put(a);
+        vertexCount++;
+    }
+
+    void triangle(float x0, float y0, float x1, float y1, float x2, float y2,
+                  float r, float g, float b, float a) {
+        ensureCapacity(3);
+        vertex(x0, y0, 0, 0, r, g, b, a);
+        vertex(x1, y1, 0, 0, r, g, b, a);
+        vertex(x2, y2, 0, 0, r, g, b, a);
+    }
+
+    /**
+     * 写入任意四边形（顶点按顺时针或逆时针顺序给出），拆成两个三角形。
+     */
+    void quad(float x0, float y0, float x1, float y1, float x2, float y2, float x3, float y3,
+              float r, float g, float b, float a) {
+        ensureCapacity(6);
+        vertex(x0, y0, 0, 0, r, g, b, a);
+        vertex(x1, y1, 0, 0, r, g, b, a);
+        vertex(x2, y2, 0, 0, r, g, b, a);
+        vertex(x0, y0, 0, 0, r, g, b, a);
+        vertex(x2, y2, 0, 0, r, g, b, a);
+        vertex(x3, y3, 0, 0, r, g, b, a);
+    }
+
+    /**
+     * 写入轴对齐的带纹理坐标矩形。
+     */
+    void rect(float x0, float y0, float x1, float y1,
+              float u0, float v0, float u1, float v1,
+              float r, float g, float b, float a) {
+        ensureCapacity(6);
+        vertex(x0, y0, u0, v0, r, g, b, a);
+        vertex(x1, y0, u1, v0, r, g, b, a);
+        vertex(x1, y1, u1, v1, r, g, b, a);
+        vertex(x0, y0, u0, v0, r, g, b, a);
+        vertex(x1, y1, u1, v1, r, g, b, a);
+        vertex(x0, y1, u0, v1, r, g, b, a);
+    }
+
+    /**
+     * 提交累积的顶点：一次 glDrawArrays。
+     */
+    void flush() {
+        if (vertexCount == 0) return;
+
+        boolean textured = texture != 0;
+        if (textured) {
+            state.enable(GL11.GL_TEXTURE_2D);
+            state.bindTexture(texture);
+            state.texEnvMode(GL11.GL_MODULATE);
+            state.enableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        } else {
+            state.disable(GL11.GL_TEXTURE_2D);
+            state.disableClientState(GL11.GL_TEXTURE_COORD_ARRAY);
+        }
+        state.enableClientState(GL11.GL_VERTEX_ARRAY);
+        state.enableClientState(GL11.GL_COLOR_ARRAY);
+
+        buffer.position(0);
+        GL11.glVertexPointer(2, GL11.GL_FLOAT, STRIDE_BYTES, buffer);
+        buffer.position(4);
+        GL11.glColorPointer(4, GL11.GL_FLOAT, STRIDE_BYTES, buffer);
+        if (textured) {
+            buffer.position(2);
+            GL11.glTexCoordPointer(2, GL11.GL_FLOAT, STRIDE_BYTES, buffer);
+        }
+
+        GL11.glDrawArrays(GL11.GL_TRIANGLES, 0, vertexCount);
+
+        if (debug) {
+            int err = GL11.glGetError();
+            if (err != GL11.GL_NO_ERROR) {
+                System.err.println("[VertexBatch] flush GL error: 0x" + Integer.toHexString(err)
+                    + " (vertices=" + vertexCount + ", texture=" + texture + ")");
+            }
+        }
+
+        drawCalls++;
+        verticesDrawn += vertexCount;
+        buffer.clear();
+        vertexCount = 0;
+    }
+
+    int getPendingVertices() {
+        return vertexCount;
+    }
+
+    /** 上一帧的 glDrawArrays 次数 */
+    int getLastDrawCalls() {
+        return lastDrawCalls;
+    }
+
+    /** 上一帧提交的顶点数 */
+    int getLastVerticesDrawn() {
+        return lastVerticesDrawn;
+    }
+}
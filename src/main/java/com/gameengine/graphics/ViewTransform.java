@@ -0,0 +1,54 @@
+package com.gameengine.graphics;
+
+/**
+ * 世界层的视图变换：屏幕坐标 = 世界坐标 * scale + offset，只作用于 LAYER_HUD 以下的层。
+ * 在提交绘制时于 CPU 上换算，文字只变换起点、不缩放字号，线宽保持屏幕像素。
+ */
+final class ViewTransform {
+    private float scale = 1f;
+    private float offsetX;
+    private float offsetY;
+    private boolean worldLayer = true;
+    // 当前层需要变换且变换不是恒等
+    private boolean active;
+
+    void set(float scale, float offsetX, float offsetY) {
+        this.scale = scale;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        update();
+    }
+
+    void setLayer(int layer) {
+        worldLayer = layer < IRenderer.LAYER_HUD;
+        update();
+    }
+
+    void reset() {
+        scale = 1f;
+        offsetX = 0;
+        offsetY = 0;
+        worldLayer = true;
+        active = false;
+    }
+
+    private void update() {
+        active = worldLayer && (scale != 1f || offsetX != 0 || offsetY != 0);
+    }
+
+    boolean isActive() {
+        return active;
+    }
+
+    float x(float worldX) {
+        return worldX * scale + offsetX;
+    }
+
+    float y(float worldY) {
+        return worldY * scale + offsetY;
+    }
+
+    float length(float worldLength) {
+        return worldLength * scale;
+    }
+}
@@ -14,6 +14,8 @@ public class InputManager {
     private Vector2 mousePosition;
     private boolean[] mouseButtons;
     private boolean[] mouseButtonsJustPressed;
+    // 收到的输入事件总数，引擎据此判断空闲等待期间是否有输入
+    private volatile long eventCount;
     
     private InputManager() {
         pressedKeys = new HashSet<>();
@@ -39,6 +41,7 @@ public class InputManager {
     }
     
     public void onKeyPressed(int keyCode) {
+        eventCount++;
         if (!pressedKeys.contains(keyCode)) {
             justPressedKeys.add(keyCode);
         }
@@ -47,16 +50,19 @@ public class InputManager {
     }
     
     public void onKeyReleased(int keyCode) {
+        eventCount++;
         pressedKeys.remove(keyCode);
         keyStates.put(keyCode, false);
     }
     
     public void onMouseMoved(float x, float y) {
+        eventCount++;
         mousePosition.x = x;
         mousePosition.y = y;
     }
     
     public void onMousePressed(int button) {
+        eventCount++;
         if (button >= 0 && button < mouseButtons.length) {
             if (!mouseButtons[button]) {
                 mouseButtonsJustPressed[button] = true;
@@ -66,11 +72,16 @@ public class InputManager {
     }
     
     public void onMouseReleased(int button) {
+        eventCount++;
         if (button >= 0 && button < mouseButtons.length) {
             mouseButtons[button] = false;
         }
     }
     
+    public long getEventCount() {
+        return eventCount;
+    }
+    
     public boolean isKeyPressed(int keyCode) {
         return pressedKeys.contains(keyCode);
     }
@@ -109,6 +120,10 @@ public class InputManager {
         return new Vector2(mousePosition);
     }
     
+    public Vector2 getMousePosition(Vector2 out) {
+        return out.set(mousePosition);
+    }
+    
     public float getMouseX() {
         return mousePosition.x;
     }
@@ -0,0 +1,40 @@
+package com.gameengine.math;
+
+/**
+ * 扫掠圆与点的连续碰撞检测：圆心沿线段 (x0, y0) -> (x1, y1) 移动时，
+ * 求第一次与点 (cx, cy) 距离小于 radius 的时刻。
+ * 与原来的逐帧检测一致按严格小于判定，恰好相距 radius（相切、终点刚好碰到）不算命中。
+ */
+public final class SweptCircle {
+    private SweptCircle() {
+    }
+
+    /**
+     * 返回线段上的首次接触参数 t ∈ [0, 1]；起点已经重叠时返回 0，整段都未接触时返回 -1。
+     */
+    public static float timeOfImpact(float x0, float y0, float x1, float y1,
+                                     float cx, float cy, float radius) {
+        float fx = x0 - cx;
+        float fy = y0 - cy;
+        float c = fx * fx + fy * fy - radius * radius;
+        if (c < 0) {
+            return 0f;
+        }
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        float a = dx * dx + dy * dy;
+        float b = fx * dx + fy * dy;
+        // 未移动或正在远离（起点恰在圆周上时也只有向内移动才算命中）
+        if (a == 0f || b >= 0f) {
+            return -1f;
+        }
+        float disc = b * b - a * c;
+        // disc 为 0 时只是擦过圆周
+        if (disc <= 0f) {
+            return -1f;
+        }
+        float t = (-b - (float) Math.sqrt(disc)) / a;
+        // t 为 1 时终点恰好在圆周上，同样不算
+        return t < 1f ? t : -1f;
+    }
+}
@@ -30,6 +30,68 @@ public class Vector2 {
         return new Vector2(this.x * scalar, this.y * scalar);
     }
     
+    // ---- 原地修改版本：修改自身并返回 this，用于热路径避免分配 ----
+    
+    public Vector2 set(float x, float y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+    
+    public Vector2 set(Vector2 other) {
+        this.x = other.x;
+        this.y = other.y;
+        return this;
+    }
+    
+    public Vector2 addLocal(Vector2 other) {
+        this.x += other.x;
+        this.y += other.y;
+        return this;
+    }
+    
+    public Vector2 addLocal(float dx, float dy) {
+        this.x += dx;
+        this.y += dy;
+        return this;
+    }
+    
+    public Vector2 subtractLocal(Vector2 other) {
+        this.x -= other.x;
+        this.y -= other.y;
+        return this;
+    }
+    
+    public Vector2 scaleLocal(float scalar) {
+        this.x *= scalar;
+        this.y *= scalar;
+        return this;
+    }
+    
+    public Vector2 normalizeLocal() {
+        float mag = magnitude();
+        if (mag == 0) return set(0, 0);
+        return scaleLocal(1.0f / mag);
+    }
+    
+    // ---- 写入调用方提供的 out，返回 out ----
+    
+    public Vector2 add(Vector2 other, Vector2 out) {
+        return out.set(this.x + other.x, this.y + other.y);
+    }
+    
+    public Vector2 subtract(Vector2 other, Vector2 out) {
+        return out.set(this.x - other.x, this.y - other.y);
+    }
+    
+    public Vector2 multiply(float scalar, Vector2 out) {
+        return out.set(this.x * scalar, this.y * scalar);
+    }
+    
+    public Vector2 normalize(Vector2 out) {
+        return out.set(this).normalizeLocal();
+    }
+    
     public float magnitude() {
         return (float) Math.sqrt(x * x + y * y);
     }
@@ -45,7 +107,13 @@ public class Vector2 {
     }
     
     public float distance(Vector2 other) {
-        return this.subtract(other).magnitude();
+        return (float) Math.sqrt(distanceSquared(other));
+    }
+    
+    public float distanceSquared(Vector2 other) {
+        float dx = this.x - other.x;
+        float dy = this.y - other.y;
+        return dx * dx + dy * dy;
     }
     
     @Override
@@ -121,11 +121,11 @@ public class RecordingService {
         StringBuilder sb = new StringBuilder();
         sb.append("{\"type\":\"event\",\"t\":").append(qfmt.format(elapsed)).append(",\"entity\":");
 
-        TransformComponent tc = obj.getComponent(TransformComponent.class);
+        TransformComponent tc = obj.getComponent(TransformComponent.TYPE);
         if (tc == null) return;
 
-        float x = tc.getPosition().x;
-        float y = tc.getPosition().y;
+        float x = tc.getX();
+        float y = tc.getY();
 
         sb.append('{')
                 .append("\"id\":\"").append(obj.getName()).append("\",")
@@ -179,10 +179,10 @@ public class RecordingService {
         boolean first = true;
         int count = 0;
         for (GameObject obj : objs) {
-            TransformComponent tc = obj.getComponent(TransformComponent.class);
+            TransformComponent tc = obj.getComponent(TransformComponent.TYPE);
             if (tc == null) continue;
-            float x = tc.getPosition().x;
-            float y = tc.getPosition().y;
+            float x = tc.getX();
+            float y = tc.getY();
             if (!first) sb.append(',');
             sb.append('{')
               .append("\"id\":\"").append(obj.getName()).append("\",")
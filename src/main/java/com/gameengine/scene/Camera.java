@@ -0,0 +1,157 @@
+package com.gameengine.scene;
+
+/**
+ * 二维相机：以世界坐标中的一点为视野中心，按缩放倍数映射到屏幕上的视口矩形。
+ * Scene 在绘制前用视野矩形剔除画面外的对象，引擎每帧把相机变换交给渲染器
+ * （只作用于 LAYER_HUD 以下的层，HUD 始终使用屏幕坐标）。视口只决定映射位置，不裁剪绘制。
+ */
+public class Camera {
+    private static final float MIN_ZOOM = 0.05f;
+
+    // 视野中心的世界坐标
+    private float x;
+    private float y;
+    private float zoom = 1.0f;
+    private float viewportX;
+    private float viewportY;
+    private float viewportWidth;
+    private float viewportHeight;
+    // 剔除时视野向外扩展的世界距离，覆盖血条、身体部件等超出对象位置的绘制
+    private float cullMargin = 64f;
+
+    /** 视口铺满整个屏幕，视野左上角对齐世界原点（与不使用相机时的坐标一致）。 */
+    public Camera(float viewportWidth, float viewportHeight) {
+        setViewport(0, 0, viewportWidth, viewportHeight);
+        this.x = viewportWidth * 0.5f;
+        this.y = viewportHeight * 0.5f;
+    }
+
+    public void setPosition(float x, float y) {
+        this.x = x;
+        this.y = y;
+    }
+
+    public void translate(float dx, float dy) {
+        this.x += dx;
+        this.y += dy;
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public void setZoom(float zoom) {
+        this.zoom = Math.max(MIN_ZOOM, zoom);
+    }
+
+    public float getZoom() {
+        return zoom;
+    }
+
+    public void setViewport(float x, float y, float width, float height) {
+        this.viewportX = x;
+        this.viewportY = y;
+        this.viewportWidth = Math.max(1f, width);
+        this.viewportHeight = Math.max(1f, height);
+    }
+
+    public float getViewportX() {
+        return viewportX;
+    }
+
+    public float getViewportY() {
+        return viewportY;
+    }
+
+    public float getViewportWidth() {
+        return viewportWidth;
+    }
+
+    public float getViewportHeight() {
+        return viewportHeight;
+    }
+
+    public void setCullMargin(float cullMargin) {
+        this.cullMargin = Math.max(0f, cullMargin);
+    }
+
+    public float getCullMargin() {
+        return cullMargin;
+    }
+
+    // ---- 视野矩形（世界坐标）----
+
+    public float getViewWidth() {
+        return viewportWidth / zoom;
+    }
+
+    public float getViewHeight() {
+        return viewportHeight / zoom;
+    }
+
+    public float getViewLeft() {
+        return x - getViewWidth() * 0.5f;
+    }
+
+    public float getViewTop() {
+        return y - getViewHeight() * 0.5f;
+    }
+
+    public float getViewRight() {
+        return x + getViewWidth() * 0.5f;
+    }
+
+    public float getViewBottom() {
+        return y + getViewHeight() * 0.5f;
+    }
+
+    /** 世界坐标中的矩形是否与视野相交（不含剔除边距）。 */
+    public boolean isVisible(float minX, float minY, float maxX, float maxY) {
+        return maxX >= getViewLeft() && minX <= getViewRight()
+            && maxY >= getViewTop() && minY <= getViewBottom();
+    }
+
+    /**
+     * 把视野限制在 [0, worldWidth] x [0, worldHeight] 内；视野比世界大时居中。
+     */
+    public void clampToWorld(float worldWidth, float worldHeight) {
+        float halfW = getViewWidth() * 0.5f;
+        float halfH = getViewHeight() * 0.5f;
+        x = halfW * 2 >= worldWidth ? worldWidth * 0.5f : Math.max(halfW, Math.min(worldWidth - halfW, x));
+        y = halfH * 2 >= worldHeight ? worldHeight * 0.5f : Math.max(halfH, Math.min(worldHeight - halfH, y));
+    }
+
+    // ---- 坐标换算：屏幕坐标 = 世界坐标 * scale + offset ----
+
+    public float getScale() {
+        return zoom;
+    }
+
+    public float getOffsetX() {
+        return viewportX + viewportWidth * 0.5f - x * zoom;
+    }
+
+    public float getOffsetY() {
+        return viewportY + viewportHeight * 0.5f - y * zoom;
+    }
+
+    public float worldToScreenX(float worldX) {
+        return worldX * zoom + getOffsetX();
+    }
+
+    public float worldToScreenY(float worldY) {
+        return worldY * zoom + getOffsetY();
+    }
+
+    public float screenToWorldX(float screenX) {
+        return (screenX - getOffsetX()) / zoom;
+    }
+
+    public float screenToWorldY(float screenY) {
+        return (screenY - getOffsetY()) / zoom;
+    }
+}
@@ -0,0 +1,20 @@
+package com.gameengine.scene;
+
+import com.gameengine.core.GameObject;
+
+/**
+ * 视野剔除用的空间索引：Scene 每帧先用视野矩形查询一次，再逐个对象询问可见性。
+ * 索引只需覆盖部分对象（例如碰撞粗筛中的敌人与子弹），其余对象由 Scene 按位置自行判断。
+ */
+public interface CullingIndex {
+    int HIDDEN = 0;
+    int VISIBLE = 1;
+    /** 对象不在索引中，由调用方自行判断 */
+    int UNTRACKED = -1;
+
+    /** 标记与矩形（世界坐标）相交的对象，每帧渲染前调用一次。 */
+    void markVisible(float minX, float minY, float maxX, float maxY);
+
+    /** 对象在最近一次 markVisible 中的可见性：VISIBLE、HIDDEN 或 UNTRACKED。 */
+    int visibility(GameObject obj);
+}
@@ -1,9 +1,13 @@
 package com.gameengine.scene;
 
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.ArchetypeStore;
 import com.gameengine.core.GameObject;
 import com.gameengine.core.Component;
+import com.gameengine.graphics.HealthBarBatch;
+import com.gameengine.graphics.IRenderer;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class Scene {
     private String name;
@@ -11,6 +15,47 @@ public class Scene {
     private List<GameObject> objectsToAdd;
     private List<GameObject> objectsToRemove;
     private boolean initialized;
+    // 按组件类型维护的实时索引：类型（含父类）-> 场景中该类型的组件
+    private final Map<Class<?>, List<Component<?>>> componentIndex;
+    private final Map<Class<?>, List<Component<?>>> componentViews;
+    private final Set<Component<?>> pendingUnindex;
+    // 可选的 Transform/Physics 列式存储，默认关闭
+    private ArchetypeStore archetypeStore;
+    // 渲染插值系数，由引擎在固定步长模式下每帧设置
+    private float interpolationAlpha = 1.0f;
+    // 静态场景的重绘请求：输入或 invalidate() 时置位，引擎重绘后清除
+    private volatile boolean redrawRequested = true;
+    // 视野剔除：未设置相机时绘制全部对象
+    private Camera camera;
+    private CullingIndex cullingIndex;
+    // 世界尺寸，0 表示沿用屏幕尺寸
+    private int worldWidth;
+    private int worldHeight;
+    private int lastDrawnCount;
+    private int lastCulledCount;
+    // 渲染层：对象按 (层号, zOrder) 排序后逐层绘制；静态层绘制一次进离屏缓存，之后每帧合成
+    private IRenderer renderer;
+    private final List<GameObject> renderOrder = new ArrayList<>();
+    private int[] renderLayers = new int[0];
+    private long[] renderKeys = new long[0];
+    private int frameDrawn;
+    private int frameCulled;
+    private boolean renderOrderDirty = true;
+    private final boolean[] staticLayers = new boolean[128];
+    private final boolean[] layerCacheValid = new boolean[128];
+    // 缓存内容对应的相机变换，变化后缓存失效
+    private float cachedViewScale = 1f;
+    private float cachedViewOffsetX;
+    private float cachedViewOffsetY;
+    private long layerCacheInvalidations;
+    private long layerCacheRebuilds;
+    private long lastLayerRebuildNanos;
+    private long lastLayerCompositeNanos;
+    private int lastCachedObjectCount;
+    // 血条由组件收集到这里，每层绘制完后一次提交
+    private final HealthBarBatch healthBars = new HealthBarBatch();
+    private int frameHealthBars;
+    private int lastHealthBarCount;
     
     public Scene(String name) {
         this.name = name;
@@ -18,6 +63,9 @@ public class Scene {
         this.objectsToAdd = new ArrayList<>();
         this.objectsToRemove = new ArrayList<>();
         this.initialized = false;
+        this.componentIndex = new HashMap<>();
+        this.componentViews = new HashMap<>();
+        this.pendingUnindex = Collections.newSetFromMap(new IdentityHashMap<>());
     }
     
     public void initialize() {
@@ -30,6 +78,8 @@ public class Scene {
     public void update(float deltaTime) {
         for (GameObject obj : objectsToAdd) {
             gameObjects.add(obj);
+            indexGameObject(obj);
+            onRenderSetChanged(obj);
             if (initialized) {
                 obj.initialize();
             }
@@ -37,7 +87,10 @@ public class Scene {
         objectsToAdd.clear();
         
         for (GameObject obj : objectsToRemove) {
-            gameObjects.remove(obj);
+            if (gameObjects.remove(obj)) {
+                markUnindexed(obj);
+                onRenderSetChanged(obj);
+            }
         }
         objectsToRemove.clear();
         
@@ -48,39 +101,464 @@ public class Scene {
                 obj.update(deltaTime);
             } else {
                 iterator.remove();
+                markUnindexed(obj);
+                onRenderSetChanged(obj);
             }
         }
+        flushUnindexed();
     }
     
     public void render() {
-        for (GameObject obj : gameObjects) {
-            if (obj.isActive()) {
+        ensureRenderOrder();
+        IRenderer target = renderer;
+        Camera view = camera;
+        float minX = -Float.MAX_VALUE;
+        float minY = -Float.MAX_VALUE;
+        float maxX = Float.MAX_VALUE;
+        float maxY = Float.MAX_VALUE;
+        CullingIndex index = null;
+        if (view != null) {
+            float margin = view.getCullMargin();
+            minX = view.getViewLeft() - margin;
+            minY = view.getViewTop() - margin;
+            maxX = view.getViewRight() + margin;
+            maxY = view.getViewBottom() + margin;
+            index = cullingIndex;
+            if (index != null) {
+                index.markVisible(minX, minY, maxX, maxY);
+            }
+            checkCachedView(view);
+        }
+        
+        boolean caching = target != null && target.supportsLayerCache();
+        frameDrawn = 0;
+        frameCulled = 0;
+        frameHealthBars = 0;
+        int cached = 0;
+        long compositeNanos = 0;
+        int n = renderOrder.size();
+        int from = 0;
+        while (from < n) {
+            int layer = renderLayers[from];
+            int to = from + 1;
+            while (to < n && renderLayers[to] == layer) {
+                to++;
+            }
+            if (target != null) {
+                target.setLayer(layer);
+            }
+            if (caching && staticLayers[layer]) {
+                if (layerCacheValid[layer]) {
+                    cached += to - from;
+                } else {
+                    long start = System.nanoTime();
+                    target.beginLayerCache(layer);
+                    renderRange(target, layer, from, to, index, minX, minY, maxX, maxY);
+                    target.endLayerCache();
+                    lastLayerRebuildNanos = System.nanoTime() - start;
+                    layerCacheValid[layer] = true;
+                    layerCacheRebuilds++;
+                }
+                long start = System.nanoTime();
+                target.drawLayerCache(layer);
+                compositeNanos += System.nanoTime() - start;
+            } else {
+                renderRange(target, layer, from, to, index, minX, minY, maxX, maxY);
+            }
+            from = to;
+        }
+        if (target != null) {
+            target.setLayer(IRenderer.LAYER_WORLD);
+        }
+        lastDrawnCount = frameDrawn;
+        lastCulledCount = frameCulled;
+        lastHealthBarCount = frameHealthBars;
+        lastCachedObjectCount = cached;
+        lastLayerCompositeNanos = compositeNanos;
+    }
+    
+    // 绘制 renderOrder[from, to) 中活动且在视野内的对象
+    private void renderRange(IRenderer target, int layer, int from, int to, CullingIndex index,
+                             float minX, float minY, float maxX, float maxY) {
+        for (int i = from; i < to; i++) {
+            GameObject obj = renderOrder.get(i);
+            if (!obj.isActive()) continue;
+            if (camera == null || isInView(obj, index, minX, minY, maxX, maxY)) {
+                if (target != null) {
+                    // 组件可能临时切到其他层（如 HUD），每个对象前恢复本层
+                    target.setLayer(layer);
+                }
                 obj.render();
+                frameDrawn++;
+            } else {
+                frameCulled++;
+            }
+        }
+        if (!healthBars.isEmpty()) {
+            frameHealthBars += healthBars.size();
+            if (target != null) {
+                target.setLayer(layer);
+                target.drawHealthBars(healthBars);
+            }
+            healthBars.clear();
+        }
+    }
+    
+    // 排序键：层号(7 位) | zOrder(32 位) | 加入顺序(24 位)，对基本类型数组排序后重建列表
+    private void ensureRenderOrder() {
+        if (!renderOrderDirty) return;
+        renderOrderDirty = false;
+        int n = gameObjects.size();
+        if (renderKeys.length < n) {
+            renderKeys = new long[Math.max(16, n * 2)];
+            renderLayers = new int[renderKeys.length];
+        }
+        for (int i = 0; i < n; i++) {
+            GameObject obj = gameObjects.get(i);
+            RenderComponent render = obj.getComponent(RenderComponent.TYPE);
+            long zOrder = (render != null ? render.getZOrder() : 0) + 0x80000000L;
+            renderKeys[i] = ((long) layerOf(obj) << 56) | (zOrder << 24) | i;
+        }
+        Arrays.sort(renderKeys, 0, n);
+        renderOrder.clear();
+        for (int i = 0; i < n; i++) {
+            long key = renderKeys[i];
+            renderOrder.add(gameObjects.get((int) (key & 0xFFFFFF)));
+            renderLayers[i] = (int) (key >>> 56);
+        }
+    }
+    
+    private static int layerOf(GameObject obj) {
+        RenderComponent render = obj.getComponent(RenderComponent.TYPE);
+        int layer = render != null ? render.getLayer() : IRenderer.LAYER_WORLD;
+        return Math.max(0, Math.min(127, layer));
+    }
+    
+    private void onRenderSetChanged(GameObject obj) {
+        renderOrderDirty = true;
+        invalidateLayer(layerOf(obj));
+    }
+    
+    // 缓存是屏幕坐标，相机移动或缩放后全部静态层需要重画
+    private void checkCachedView(Camera view) {
+        float scale = view.getScale();
+        float offsetX = view.getOffsetX();
+        float offsetY = view.getOffsetY();
+        if (scale != cachedViewScale || offsetX != cachedViewOffsetX || offsetY != cachedViewOffsetY) {
+            cachedViewScale = scale;
+            cachedViewOffsetX = offsetX;
+            cachedViewOffsetY = offsetY;
+            invalidateAllLayers();
+        }
+    }
+    
+    /**
+     * 标记静态层：开启缓存的渲染器上，该层只在失效后重画一次进离屏纹理，其余帧用一个全屏四边形合成。
+     * 层内对象移动不会被自动察觉，需要调用 {@link #invalidateLayer(int)}。
+     */
+    public void setLayerStatic(int layer, boolean isStatic) {
+        if (layer < 0 || layer >= staticLayers.length) return;
+        staticLayers[layer] = isStatic;
+        layerCacheValid[layer] = false;
+    }
+    
+    public boolean isLayerStatic(int layer) {
+        return layer >= 0 && layer < staticLayers.length && staticLayers[layer];
+    }
+    
+    /** 使静态层的缓存失效，下一帧重画；对非静态层无作用。 */
+    public void invalidateLayer(int layer) {
+        if (layer < 0 || layer >= layerCacheValid.length) return;
+        if (layerCacheValid[layer]) {
+            layerCacheValid[layer] = false;
+            layerCacheInvalidations++;
+        }
+    }
+    
+    private void invalidateAllLayers() {
+        for (int layer = 0; layer < layerCacheValid.length; layer++) {
+            invalidateLayer(layer);
+        }
+    }
+    
+    /** 对象的层或 zOrder 变化后调用，下一帧重新排序。 */
+    public void markRenderOrderDirty() {
+        renderOrderDirty = true;
+    }
+    
+    /** 由引擎在每帧渲染前设置；层缓存属于渲染器，更换渲染器时全部失效。 */
+    public void setRenderer(IRenderer renderer) {
+        if (this.renderer != renderer) {
+            this.renderer = renderer;
+            invalidateAllLayers();
+        }
+    }
+    
+    public IRenderer getRenderer() {
+        return renderer;
+    }
+    
+    private static boolean isInView(GameObject obj, CullingIndex index,
+                                    float minX, float minY, float maxX, float maxY) {
+        if (index != null) {
+            int visibility = index.visibility(obj);
+            if (visibility != CullingIndex.UNTRACKED) {
+                return visibility == CullingIndex.VISIBLE;
             }
         }
+        TransformComponent transform = obj.getComponent(TransformComponent.TYPE);
+        if (transform == null) {
+            // 没有位置的对象（界面、管理器）总是绘制
+            return true;
+        }
+        float x = transform.getX();
+        float y = transform.getY();
+        float extent = 0;
+        RenderComponent render = obj.getComponent(RenderComponent.TYPE);
+        if (render != null) {
+            extent = Math.max(render.getWidth(), render.getHeight());
+        }
+        return x + extent >= minX && x - extent <= maxX && y + extent >= minY && y - extent <= maxY;
+    }
+    
+    /** 设置用于视野剔除的相机，null 表示不剔除；引擎同时用它设置渲染器的世界变换。 */
+    public void setCamera(Camera camera) {
+        this.camera = camera;
+    }
+    
+    public Camera getCamera() {
+        return camera;
+    }
+    
+    /** 可选的空间索引，相机存在时先用它查询视野内的对象，不在索引中的对象按位置判断。 */
+    public void setCullingIndex(CullingIndex cullingIndex) {
+        this.cullingIndex = cullingIndex;
+    }
+    
+    public CullingIndex getCullingIndex() {
+        return cullingIndex;
+    }
+    
+    /** 设置世界尺寸，物理边界与相机限位使用；未设置时沿用屏幕尺寸。 */
+    public void setWorldSize(int worldWidth, int worldHeight) {
+        this.worldWidth = Math.max(0, worldWidth);
+        this.worldHeight = Math.max(0, worldHeight);
+    }
+    
+    public int getWorldWidth() {
+        return worldWidth;
+    }
+    
+    public int getWorldHeight() {
+        return worldHeight;
+    }
+    
+    /** 上一帧调用了 render 的对象数 */
+    public int getLastDrawnCount() {
+        return lastDrawnCount;
+    }
+    
+    /**
+     * 本帧的血条批次：组件在 render 中加入，Scene 在所在层的对象画完后一次提交并清空。
+     */
+    public HealthBarBatch getHealthBarBatch() {
+        return healthBars;
+    }
+    
+    /** 上一帧批量提交的血条数 */
+    public int getLastHealthBarCount() {
+        return lastHealthBarCount;
+    }
+    
+    /** 上一帧因在视野外而跳过的对象数 */
+    public int getLastCulledCount() {
+        return lastCulledCount;
+    }
+    
+    /** 上一帧由静态层缓存代替、没有重画的对象数 */
+    public int getLastCachedObjectCount() {
+        return lastCachedObjectCount;
+    }
+    
+    /** 静态层缓存失效次数（已失效的层重复失效不计） */
+    public long getLayerCacheInvalidations() {
+        return layerCacheInvalidations;
+    }
+    
+    /** 静态层缓存重画次数 */
+    public long getLayerCacheRebuilds() {
+        return layerCacheRebuilds;
+    }
+    
+    /** 最近一次重画静态层缓存的耗时（提交绘制命令的 CPU 时间），即不缓存时每帧要付出的代价 */
+    public long getLastLayerRebuildNanos() {
+        return lastLayerRebuildNanos;
+    }
+    
+    /** 上一帧合成全部静态层缓存的耗时（提交绘制命令的 CPU 时间） */
+    public long getLastLayerCompositeNanos() {
+        return lastLayerCompositeNanos;
+    }
+    
+    /**
+     * 返回 true 表示场景画面只随输入变化（菜单、文件列表等）。
+     * 引擎会在无输入时阻塞等待事件，只在输入或 {@link #invalidate()} 后重绘。
+     */
+    public boolean isStatic() {
+        return false;
+    }
+    
+    /** 请求静态场景在下一帧重绘；从其他线程调用时请使用 GameEngine.invalidate() 以唤醒主循环。 */
+    public void invalidate() {
+        redrawRequested = true;
+    }
+    
+    public boolean isRedrawRequested() {
+        return redrawRequested;
+    }
+    
+    /** 读取并清除重绘请求。 */
+    public boolean consumeRedrawRequest() {
+        boolean requested = redrawRequested;
+        redrawRequested = false;
+        return requested;
+    }
+    
+    public float getInterpolationAlpha() {
+        return interpolationAlpha;
+    }
+    
+    public void setInterpolationAlpha(float interpolationAlpha) {
+        this.interpolationAlpha = interpolationAlpha;
     }
     
     public void addGameObject(GameObject gameObject) {
         objectsToAdd.add(gameObject);
     }
     
-    public <T extends Component<T>> List<GameObject> findGameObjectsByComponent(Class<T> componentType) {
-        return gameObjects.stream()
-            .filter(obj -> obj.hasComponent(componentType))
-            .collect(Collectors.toList());
+    /**
+     * 把持有指定类型组件的对象追加到 out 并返回 out；按下标遍历类型索引，调用方复用 out 时不产生分配。
+     */
+    public <T extends Component<T>> List<GameObject> findGameObjectsByComponent(Class<T> componentType, List<GameObject> out) {
+        List<T> components = getComponents(componentType);
+        for (int i = 0, n = components.size(); i < n; i++) {
+            out.add(components.get(i).getOwner());
+        }
+        return out;
     }
     
+    /**
+     * 返回场景中指定类型组件的只读实时视图，不产生新的集合。
+     * 视图会随对象增删而变化，调用方不应跨帧持有或在遍历时增删对象。
+     */
+    @SuppressWarnings("unchecked")
     public <T extends Component<T>> List<T> getComponents(Class<T> componentType) {
-        return findGameObjectsByComponent(componentType).stream()
-            .map(obj -> obj.getComponent(componentType))
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
+        List<Component<?>> view = componentViews.get(componentType);
+        if (view == null) {
+            return Collections.emptyList();
+        }
+        return (List<T>) (List<?>) view;
+    }
+    
+    /**
+     * 由 GameObject 在已加入场景后添加组件时调用，保持类型索引同步。
+     */
+    public void indexComponent(Component<?> component) {
+        for (Class<?> type = component.getClass(); type != Component.class && type != null; type = type.getSuperclass()) {
+            addToBucket(type, component);
+        }
+        if (archetypeStore != null) {
+            archetypeStore.onComponentAdded(component);
+        }
+    }
+    
+    /**
+     * 由 GameObject 在销毁组件时调用。组件只登记为待移除，下一次 update 时与失活对象一起批量移出类型索引；
+     * 在此之前仍会出现在 getComponents 视图中（owner 已失活），正在遍历视图的调用方不受影响。
+     */
+    public void unindexComponent(Component<?> component) {
+        if (archetypeStore != null && component.getOwner() != null) {
+            archetypeStore.unbind(component.getOwner());
+        }
+        pendingUnindex.add(component);
+    }
+    
+    private void addToBucket(Class<?> type, Component<?> component) {
+        List<Component<?>> bucket = componentIndex.get(type);
+        if (bucket == null) {
+            bucket = new ArrayList<>();
+            componentIndex.put(type, bucket);
+            componentViews.put(type, Collections.unmodifiableList(bucket));
+        }
+        bucket.add(component);
+    }
+    
+    private void indexGameObject(GameObject obj) {
+        obj.setScene(this);
+        for (Component<?> component : obj.getComponentList()) {
+            for (Class<?> type = component.getClass(); type != Component.class && type != null; type = type.getSuperclass()) {
+                addToBucket(type, component);
+            }
+        }
+        if (archetypeStore != null) {
+            archetypeStore.bind(obj);
+        }
+    }
+    
+    private void markUnindexed(GameObject obj) {
+        if (obj.getScene() == this) {
+            obj.setScene(null);
+        }
+        if (archetypeStore != null) {
+            archetypeStore.unbind(obj);
+        }
+        pendingUnindex.addAll(obj.getComponentList());
+    }
+    
+    // 批量移除：每个受影响的类型桶只遍历一次，避免逐个 remove 的 O(n^2)
+    private void flushUnindexed() {
+        if (pendingUnindex.isEmpty()) return;
+        for (List<Component<?>> bucket : componentIndex.values()) {
+            bucket.removeIf(pendingUnindex::contains);
+        }
+        pendingUnindex.clear();
     }
     
     public void clear() {
+        for (GameObject obj : gameObjects) {
+            if (obj.getScene() == this) {
+                obj.setScene(null);
+            }
+        }
         gameObjects.clear();
         objectsToAdd.clear();
         objectsToRemove.clear();
+        renderOrder.clear();
+        renderOrderDirty = true;
+        invalidateAllLayers();
+        for (List<Component<?>> bucket : componentIndex.values()) {
+            bucket.clear();
+        }
+        pendingUnindex.clear();
+        if (archetypeStore != null) {
+            archetypeStore.clear();
+        }
+    }
+    
+    /**
+     * 启用 Transform/Physics 的原型列式存储，已在场景中的对象会立即迁入。
+     * 启用后 PhysicsSystem 会直接在数组上做批量积分，组件 API 保持不变。
+     */
+    public void enableArchetypeStorage() {
+        if (archetypeStore != null) return;
+        archetypeStore = new ArchetypeStore();
+        for (GameObject obj : gameObjects) {
+            archetypeStore.bind(obj);
+        }
+    }
+    
+    public ArchetypeStore getArchetypeStore() {
+        return archetypeStore;
     }
     
     public String getName() {